@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field of a {@link BindForm} class to a form element, which depends on type of field:
+ * <ul>
+ *   <li>String or CharSequence: edit text</li>
+ *   <li>int with {@link #options()}: combo box, value is index of selected option</li>
+ *   <li>java.util.Date: date picker, or time picker if {@link #time()}</li>
+ * </ul>
+ * Field must not be private, static or final. Elements are added in order of fields
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface FormField {
+
+  /**
+   * @return name of element and key in model, name of field if empty
+   */
+  String name() default "";
+
+  /**
+   * @return label of element, name if empty
+   */
+  String label() default "";
+
+  /**
+   * @return title of section of element, element stays in section of previous field if empty
+   */
+  String section() default "";
+
+  boolean required() default false;
+
+  /**
+   * @return placeholder of edit text
+   */
+  String placeholder() default "";
+
+  /**
+   * @return make edit text display in multi lines
+   */
+  boolean multiLine() default false;
+
+  /**
+   * @return make edit text input type as password
+   */
+  boolean password() default false;
+
+  /**
+   * @return options of combo box
+   */
+  String[] options() default {};
+
+  /**
+   * @return show time picker for a date
+   */
+  boolean time() default false;
+}
@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.compiler;
+
+import com.github.chilinh.android.form.annotation.BindForm;
+import com.github.chilinh.android.form.annotation.FormField;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a <code>FormBinding</code> for each class annotated with {@link BindForm}. Generated
+ * code calls elements, fields and model directly, as it would be written by hand
+ */
+public final class FormBindingProcessor extends AbstractProcessor {
+
+  static final String SUFFIX = "_FormBinding";
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    Set<String> types = new LinkedHashSet<>();
+    types.add(BindForm.class.getCanonicalName());
+    types.add(FormField.class.getCanonicalName());
+    return types;
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Set<? extends Element> bound = roundEnv.getElementsAnnotatedWith(BindForm.class);
+    for (Element field : roundEnv.getElementsAnnotatedWith(FormField.class)) {
+      if (!bound.contains(field.getEnclosingElement())) {
+        error(field, "@FormField is only allowed in a class annotated with @BindForm");
+      }
+    }
+    for (Element element : bound) {
+      if (element.getKind() != ElementKind.CLASS) {
+        error(element, "@BindForm is only allowed on a class");
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      List<BoundField> fields = readFields(type);
+      if (fields != null) {
+        write(type, fields);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return fields of type, null if one of them is invalid
+   */
+  private List<BoundField> readFields(TypeElement type) {
+    List<BoundField> fields = new ArrayList<>();
+    Set<String> names = new HashSet<>();
+    boolean valid = true;
+    for (Element member : type.getEnclosedElements()) {
+      FormField annotation = member.getAnnotation(FormField.class);
+      if (annotation == null || member.getKind() != ElementKind.FIELD) {
+        continue;
+      }
+      Set<Modifier> modifiers = member.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+        error(member, "@FormField field must not be private, static or final");
+        valid = false;
+        continue;
+      }
+
+      BoundField field = new BoundField((VariableElement) member, annotation);
+      if (field.kind == null) {
+        error(member, "@FormField field must be a String, CharSequence, Date, or an int with options");
+        valid = false;
+      } else if (!names.add(field.name)) {
+        error(member, "Another @FormField field has name " + field.name);
+        valid = false;
+      } else {
+        fields.add(field);
+      }
+    }
+    return valid ? fields : null;
+  }
+
+  private void write(TypeElement type, List<BoundField> fields) {
+    String packageName = getPackage(type).getQualifiedName().toString();
+    String typeName = type.getQualifiedName().toString();
+    String localName = packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1);
+    String className = localName.replace('.', '_') + SUFFIX;
+
+    StringBuilder out = new StringBuilder();
+    out.append("// Generated by ").append(FormBindingProcessor.class.getSimpleName()).append(", do not edit\n");
+    if (!packageName.isEmpty()) {
+      out.append("package ").append(packageName).append(";\n");
+    }
+    Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+    boolean sections = false;
+    for (BoundField field : fields) {
+      kinds.add(field.kind);
+      sections |= !field.annotation.section().isEmpty();
+    }
+    out.append('\n')
+      .append("import com.github.chilinh.android.form.Form;\n")
+      .append("import com.github.chilinh.android.form.FormBinding;\n")
+      .append("import com.github.chilinh.android.form.FormModel;\n");
+    if (kinds.contains(Kind.COMBO)) {
+      out.append("import com.github.chilinh.android.form.element.ComboBoxElement;\n");
+    }
+    if (kinds.contains(Kind.DATE)) {
+      out.append("import com.github.chilinh.android.form.element.DatePickerElement;\n");
+    }
+    if (kinds.contains(Kind.TEXT)) {
+      out.append("import com.github.chilinh.android.form.element.EditTextElement;\n");
+    }
+    if (sections) {
+      out.append("import com.github.chilinh.android.form.element.SectionElement;\n");
+    }
+    if (kinds.contains(Kind.TIME)) {
+      out.append("import com.github.chilinh.android.form.element.TimePickerElement;\n");
+    }
+    boolean dates = kinds.contains(Kind.DATE) || kinds.contains(Kind.TIME);
+    if (kinds.contains(Kind.COMBO) || dates) {
+      out.append('\n');
+    }
+    if (kinds.contains(Kind.COMBO)) {
+      out.append("import java.util.Arrays;\n")
+        .append("import java.util.Collections;\n");
+    }
+    if (dates) {
+      out.append("import java.util.Date;\n");
+    }
+    if (kinds.contains(Kind.COMBO)) {
+      out.append("import java.util.List;\n");
+    }
+    out.append('\n')
+      .append("public final class ").append(className).append(" implements FormBinding<").append(localName).append("> {\n");
+
+    for (BoundField field : fields) {
+      if (field.kind == Kind.COMBO) {
+        out.append("\n  private static final List<String> ").append(field.optionsConstant())
+          .append(" = Collections.unmodifiableList(Arrays.asList(");
+        String[] options = field.annotation.options();
+        for (int i = 0; i < options.length; i++) {
+          out.append(i > 0 ? ", " : "").append(literal(options[i]));
+        }
+        out.append("));\n");
+      }
+    }
+
+    out.append("\n  @Override\n")
+      .append("  public Form.Builder addElements(Form.Builder builder) {\n");
+    for (BoundField field : fields) {
+      String section = field.annotation.section();
+      if (!section.isEmpty()) {
+        out.append("    builder.addSection(new SectionElement(").append(literal(section)).append("));\n");
+      }
+      out.append("    builder.addElement(");
+      field.writeElement(out);
+      out.append(");\n");
+    }
+    out.append("    return builder;\n")
+      .append("  }\n");
+
+    out.append("\n  @Override\n")
+      .append("  public void write(").append(localName).append(" source, FormModel model) {\n")
+      .append("    model.beginBatch();\n")
+      .append("    try {\n");
+    for (BoundField field : fields) {
+      String source = "source." + field.field.getSimpleName();
+      out.append("      model.").append(field.kind == Kind.COMBO ? "setInt(" : "set(").append(literal(field.name)).append(", ");
+      if (field.kind == Kind.DATE || field.kind == Kind.TIME) {
+        // Dates are mutable, model and object must not share one
+        out.append(source).append(" == null ? null : new Date(").append(source).append(".getTime())");
+      } else {
+        out.append(source);
+      }
+      out.append(");\n");
+    }
+    out.append("    } finally {\n")
+      .append("      model.commitBatch();\n")
+      .append("    }\n")
+      .append("  }\n");
+
+    out.append("\n  @Override\n")
+      .append("  public void read(FormModel model, ").append(localName).append(" target) {\n");
+    for (BoundField field : fields) {
+      String name = literal(field.name);
+      String target = "target." + field.field.getSimpleName();
+      switch (field.kind) {
+        case TEXT:
+          out.append("    if (model.contains(").append(name).append(")) {\n")
+            .append("      CharSequence value = model.get(").append(name).append(");\n")
+            .append("      ").append(target).append(" = value == null ? null : value.toString();\n")
+            .append("    }\n");
+          break;
+        case COMBO:
+          out.append("    ").append(target).append(" = model.getInt(").append(name).append(", ").append(target).append(");\n");
+          break;
+        default:
+          out.append("    if (model.contains(").append(name).append(")) {\n")
+            .append("      Date value = model.get(").append(name).append(");\n")
+            .append("      ").append(target).append(" = value == null ? null : new Date(value.getTime());\n")
+            .append("    }\n");
+          break;
+      }
+    }
+    out.append("  }\n")
+      .append("}\n");
+
+    String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+      try (Writer writer = file.openWriter()) {
+        writer.write(out.toString());
+      }
+    } catch (IOException e) {
+      error(type, "Can't write " + qualifiedName + ": " + e.getMessage());
+    }
+  }
+
+  private static PackageElement getPackage(Element element) {
+    while (element.getKind() != ElementKind.PACKAGE) {
+      element = element.getEnclosingElement();
+    }
+    return (PackageElement) element;
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  /**
+   * @return Java string literal of value
+   */
+  static String literal(String value) {
+    StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          literal.append("\\\"");
+          break;
+        case '\\':
+          literal.append("\\\\");
+          break;
+        case '\n':
+          literal.append("\\n");
+          break;
+        case '\r':
+          literal.append("\\r");
+          break;
+        case '\t':
+          literal.append("\\t");
+          break;
+        default:
+          if (c < 0x20 || c > 0x7E) {
+            literal.append(String.format("\\u%04x", (int) c));
+          } else {
+            literal.append(c);
+          }
+          break;
+      }
+    }
+    return literal.append('"').toString();
+  }
+
+  enum Kind {
+    TEXT, COMBO, DATE, TIME
+  }
+
+  private static final class BoundField {
+
+    final VariableElement field;
+    final FormField annotation;
+    final String name;
+    final Kind kind;
+
+    BoundField(VariableElement field, FormField annotation) {
+      this.field = field;
+      this.annotation = annotation;
+      this.name = annotation.name().isEmpty() ? field.getSimpleName().toString() : annotation.name();
+      this.kind = kindOf(field.asType(), annotation);
+    }
+
+    private static Kind kindOf(TypeMirror type, FormField annotation) {
+      if (type.getKind() == TypeKind.INT) {
+        return annotation.options().length > 0 ? Kind.COMBO : null;
+      }
+      if (type.getKind() != TypeKind.DECLARED) {
+        return null;
+      }
+      switch (type.toString()) {
+        case "java.lang.String":
+        case "java.lang.CharSequence":
+          return Kind.TEXT;
+        case "java.util.Date":
+          return annotation.time() ? Kind.TIME : Kind.DATE;
+        default:
+          return null;
+      }
+    }
+
+    String optionsConstant() {
+      StringBuilder constant = new StringBuilder();
+      String fieldName = field.getSimpleName().toString();
+      for (int i = 0; i < fieldName.length(); i++) {
+        char c = fieldName.charAt(i);
+        if (Character.isUpperCase(c) && i > 0) {
+          constant.append('_');
+        }
+        constant.append(Character.toUpperCase(c));
+      }
+      return constant.append("_OPTIONS").toString();
+    }
+
+    void writeElement(StringBuilder out) {
+      String label = annotation.label().isEmpty() ? name : annotation.label();
+      String arguments = literal(name) + ", " + literal(label);
+      switch (kind) {
+        case TEXT:
+          out.append("new EditTextElement(").append(arguments).append(')');
+          if (!annotation.placeholder().isEmpty()) {
+            out.append(".placeholder(").append(literal(annotation.placeholder())).append(')');
+          }
+          if (annotation.multiLine()) {
+            out.append(".multiLine(true)");
+          }
+          if (annotation.password()) {
+            out.append(".password(true)");
+          }
+          break;
+        case COMBO:
+          out.append("new ComboBoxElement(").append(arguments).append(", ").append(optionsConstant()).append(')');
+          break;
+        case DATE:
+          out.append("new DatePickerElement(").append(arguments).append(')');
+          break;
+        default:
+          out.append("new TimePickerElement(").append(arguments).append(')');
+          break;
+      }
+      if (annotation.required()) {
+        out.append(".required(true)");
+      }
+    }
+  }
+}
@@ -0,0 +1,405 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.compiler;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles annotated classes with {@link FormBindingProcessor}, against minimal stand-ins of the
+ * library classes generated code uses, then runs the generated bindings. Generated code is
+ * compiled against the real library by <code>FormBindingTest</code> of the library
+ */
+public class FormBindingProcessorTest {
+
+  private static final String FORM_PACKAGE = "com.github.chilinh.android.form";
+  private static final String ELEMENT_PACKAGE = FORM_PACKAGE + ".element";
+
+  /**
+   * Stand-ins of library classes, elements record their names and options in the builder
+   */
+  private static final String[][] LIBRARY = {
+    {FORM_PACKAGE + ".FormModel",
+      "package " + FORM_PACKAGE + ";\n"
+        + "public interface FormModel {\n"
+        + "  <T> T get(String name);\n"
+        + "  FormModel set(String name, Object value);\n"
+        + "  boolean contains(String name);\n"
+        + "  int getInt(String name, int defaultIfEmpty);\n"
+        + "  FormModel setInt(String name, int value);\n"
+        + "  FormModel beginBatch();\n"
+        + "  FormModel commitBatch();\n"
+        + "}\n"},
+    {FORM_PACKAGE + ".MapModel",
+      "package " + FORM_PACKAGE + ";\n"
+        + "import java.util.HashMap;\n"
+        + "import java.util.Map;\n"
+        + "public class MapModel implements FormModel {\n"
+        + "  public final Map<String, Object> values = new HashMap<>();\n"
+        + "  public int batchDepth;\n"
+        + "  public int batches;\n"
+        + "  @SuppressWarnings(\"unchecked\") public <T> T get(String name) { return (T) values.get(name); }\n"
+        + "  public FormModel set(String name, Object value) { values.put(name, value); return this; }\n"
+        + "  public boolean contains(String name) { return values.containsKey(name); }\n"
+        + "  public int getInt(String name, int defaultIfEmpty) { Object v = values.get(name); return v == null ? defaultIfEmpty : (Integer) v; }\n"
+        + "  public FormModel setInt(String name, int value) { values.put(name, value); return this; }\n"
+        + "  public FormModel beginBatch() { batchDepth++; return this; }\n"
+        + "  public FormModel commitBatch() { batchDepth--; batches++; return this; }\n"
+        + "}\n"},
+    {FORM_PACKAGE + ".FormBinding",
+      "package " + FORM_PACKAGE + ";\n"
+        + "public interface FormBinding<T> {\n"
+        + "  Form.Builder addElements(Form.Builder builder);\n"
+        + "  void write(T source, FormModel model);\n"
+        + "  void read(FormModel model, T target);\n"
+        + "}\n"},
+    {FORM_PACKAGE + ".Form",
+      "package " + FORM_PACKAGE + ";\n"
+        + "import java.util.ArrayList;\n"
+        + "import java.util.List;\n"
+        + "public class Form {\n"
+        + "  public static class Builder {\n"
+        + "    public final List<String> added = new ArrayList<>();\n"
+        + "    public Builder addSection(Object section) { added.add(section.toString()); return this; }\n"
+        + "    public Builder addElement(Object element) { added.add(element.toString()); return this; }\n"
+        + "  }\n"
+        + "}\n"},
+    {ELEMENT_PACKAGE + ".Element",
+      "package " + ELEMENT_PACKAGE + ";\n"
+        + "public abstract class Element<T extends Element<T>> {\n"
+        + "  protected final StringBuilder mText = new StringBuilder();\n"
+        + "  Element(String kind, String name, CharSequence label) { mText.append(kind).append(':').append(name).append(':').append(label); }\n"
+        + "  @SuppressWarnings(\"unchecked\") T flag(String flag) { mText.append(':').append(flag); return (T) this; }\n"
+        + "  public T required(boolean required) { return flag(\"required\"); }\n"
+        + "  @Override public String toString() { return mText.toString(); }\n"
+        + "}\n"},
+    {ELEMENT_PACKAGE + ".EditTextElement",
+      "package " + ELEMENT_PACKAGE + ";\n"
+        + "public class EditTextElement extends Element<EditTextElement> {\n"
+        + "  public EditTextElement(String name, CharSequence label) { super(\"text\", name, label); }\n"
+        + "  public EditTextElement placeholder(String placeholder) { return flag(\"placeholder=\" + placeholder); }\n"
+        + "  public EditTextElement multiLine(boolean multiLine) { return flag(\"multiLine\"); }\n"
+        + "  public EditTextElement password(boolean password) { return flag(\"password\"); }\n"
+        + "}\n"},
+    {ELEMENT_PACKAGE + ".ComboBoxElement",
+      "package " + ELEMENT_PACKAGE + ";\n"
+        + "import java.util.List;\n"
+        + "public class ComboBoxElement extends Element<ComboBoxElement> {\n"
+        + "  public ComboBoxElement(String name, CharSequence label, List<String> options) { super(\"combo\", name, label); flag(options.toString()); }\n"
+        + "}\n"},
+    {ELEMENT_PACKAGE + ".DatePickerElement",
+      "package " + ELEMENT_PACKAGE + ";\n"
+        + "public class DatePickerElement extends Element<DatePickerElement> {\n"
+        + "  public DatePickerElement(String name, CharSequence label) { super(\"date\", name, label); }\n"
+        + "}\n"},
+    {ELEMENT_PACKAGE + ".TimePickerElement",
+      "package " + ELEMENT_PACKAGE + ";\n"
+        + "public class TimePickerElement extends Element<TimePickerElement> {\n"
+        + "  public TimePickerElement(String name, CharSequence label) { super(\"time\", name, label); }\n"
+        + "}\n"},
+    {ELEMENT_PACKAGE + ".SectionElement",
+      "package " + ELEMENT_PACKAGE + ";\n"
+        + "public class SectionElement {\n"
+        + "  private final String mTitle;\n"
+        + "  public SectionElement(String title) { mTitle = title; }\n"
+        + "  @Override public String toString() { return \"section:\" + mTitle; }\n"
+        + "}\n"},
+  };
+
+  private static final String PROFILE =
+    "package sample;\n"
+      + "import com.github.chilinh.android.form.annotation.BindForm;\n"
+      + "import com.github.chilinh.android.form.annotation.FormField;\n"
+      + "import java.util.Date;\n"
+      + "@BindForm\n"
+      + "public class Profile {\n"
+      + "  @FormField(section = \"Personal\", label = \"Name:\", placeholder = \"Your \\\"name\\\"\", required = true)\n"
+      + "  public String name;\n"
+      + "  @FormField(name = \"gender\", options = {\"\", \"Male\", \"Female\"})\n"
+      + "  public int genderIndex;\n"
+      + "  @FormField(multiLine = true, password = true)\n"
+      + "  public CharSequence note;\n"
+      + "  @FormField(section = \"More\", label = \"Birthday\")\n"
+      + "  public Date birthday;\n"
+      + "  @FormField(time = true)\n"
+      + "  public Date leave;\n"
+      + "  public String notBound;\n"
+      + "  @BindForm\n"
+      + "  public static class Inner {\n"
+      + "    @FormField public String value;\n"
+      + "  }\n"
+      + "}\n";
+
+  @Rule
+  public final TemporaryFolder mFolder = new TemporaryFolder();
+
+  private File mSources;
+  private File mGenerated;
+  private File mClasses;
+  private final DiagnosticCollector<JavaFileObject> mDiagnostics = new DiagnosticCollector<>();
+
+  @Before
+  public void setUp() throws IOException {
+    mSources = mFolder.newFolder("src");
+    mGenerated = mFolder.newFolder("generated");
+    mClasses = mFolder.newFolder("classes");
+  }
+
+  @Test
+  public void generatesBindingSource() throws Exception {
+    assertTrue(diagnostics(), compile("sample.Profile", PROFILE));
+
+    String source = generated("sample/Profile_FormBinding.java");
+    assertTrue(source, source.contains("public final class Profile_FormBinding implements FormBinding<Profile>"));
+    assertTrue(source, source.contains("private static final List<String> GENDER_INDEX_OPTIONS = Collections.unmodifiableList(Arrays.asList(\"\", \"Male\", \"Female\"));"));
+    assertTrue(source, source.contains("builder.addElement(new EditTextElement(\"name\", \"Name:\").placeholder(\"Your \\\"name\\\"\").required(true));"));
+    assertTrue(source, source.contains("model.setInt(\"gender\", source.genderIndex);"));
+    assertTrue(source, source.contains("model.beginBatch();"));
+    // Not bound
+    assertFalse(source, source.contains("notBound"));
+
+    // Nested class gets its own binding, named after enclosing classes
+    String inner = generated("sample/Profile_Inner_FormBinding.java");
+    assertTrue(inner, inner.contains("implements FormBinding<Profile.Inner>"));
+    // Only imports what it uses
+    assertFalse(inner, inner.contains("ComboBoxElement"));
+    assertFalse(inner, inner.contains("SectionElement"));
+  }
+
+  @Test
+  public void addsElementsInOrder() throws Exception {
+    assertTrue(diagnostics(), compile("sample.Profile", PROFILE));
+    ClassLoader loader = loader();
+
+    Object builder = loader.loadClass(FORM_PACKAGE + ".Form$Builder").newInstance();
+    Object binding = loader.loadClass("sample.Profile_FormBinding").newInstance();
+    binding.getClass().getMethod("addElements", builder.getClass()).invoke(binding, builder);
+
+    assertEquals(
+      Arrays.asList(
+        "section:Personal",
+        "text:name:Name::placeholder=Your \"name\":required",
+        "combo:gender:gender:[, Male, Female]",
+        "text:note:note:multiLine:password",
+        "section:More",
+        "date:birthday:Birthday",
+        "time:leave:leave"
+      ),
+      builder.getClass().getField("added").get(builder)
+    );
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    assertTrue(diagnostics(), compile("sample.Profile", PROFILE));
+    ClassLoader loader = loader();
+    Class<?> profileClass = loader.loadClass("sample.Profile");
+    Class<?> modelClass = loader.loadClass(FORM_PACKAGE + ".MapModel");
+    Class<?> modelInterface = loader.loadClass(FORM_PACKAGE + ".FormModel");
+    Object binding = loader.loadClass("sample.Profile_FormBinding").newInstance();
+    Method write = binding.getClass().getMethod("write", profileClass, modelInterface);
+    Method read = binding.getClass().getMethod("read", modelInterface, profileClass);
+
+    Date birthday = new Date(86400000L * 365);
+    Date leave = new Date(3600000L);
+    Object source = profileClass.newInstance();
+    set(source, "name", "Linh");
+    set(source, "genderIndex", 2);
+    set(source, "note", new StringBuilder("multi\nline"));
+    set(source, "birthday", birthday);
+    set(source, "leave", leave);
+    set(source, "notBound", "kept");
+
+    Object model = modelClass.newInstance();
+    write.invoke(binding, source, model);
+    assertEquals(0, modelClass.getField("batchDepth").get(model));
+    assertEquals(1, modelClass.getField("batches").get(model));
+    assertEquals(2, modelClass.getMethod("getInt", String.class, int.class).invoke(model, "gender", -1));
+    // Dates are mutable, they are copied both ways
+    Object written = modelClass.getMethod("get", String.class).invoke(model, "birthday");
+    assertEquals(birthday, written);
+    assertNotSame(birthday, written);
+
+    Object target = profileClass.newInstance();
+    set(target, "notBound", "other");
+    read.invoke(binding, model, target);
+    assertEquals("Linh", get(target, "name"));
+    assertEquals(2, get(target, "genderIndex"));
+    // CharSequence is read back as String
+    assertEquals("multi\nline", get(target, "note"));
+    assertEquals(birthday, get(target, "birthday"));
+    assertNotSame(written, get(target, "birthday"));
+    assertEquals(leave, get(target, "leave"));
+    assertEquals("other", get(target, "notBound"));
+  }
+
+  @Test
+  public void readKeepsFieldsWithoutValue() throws Exception {
+    assertTrue(diagnostics(), compile("sample.Profile", PROFILE));
+    ClassLoader loader = loader();
+    Class<?> profileClass = loader.loadClass("sample.Profile");
+    Class<?> modelInterface = loader.loadClass(FORM_PACKAGE + ".FormModel");
+    Object binding = loader.loadClass("sample.Profile_FormBinding").newInstance();
+
+    Object target = profileClass.newInstance();
+    set(target, "name", "Linh");
+    set(target, "genderIndex", 1);
+    Object model = loader.loadClass(FORM_PACKAGE + ".MapModel").newInstance();
+    binding.getClass().getMethod("read", modelInterface, profileClass).invoke(binding, model, target);
+
+    assertEquals("Linh", get(target, "name"));
+    assertEquals(1, get(target, "genderIndex"));
+    assertNull(get(target, "birthday"));
+  }
+
+  @Test
+  public void rejectsInvalidFields() throws Exception {
+    String source =
+      "package sample;\n"
+        + "import com.github.chilinh.android.form.annotation.BindForm;\n"
+        + "import com.github.chilinh.android.form.annotation.FormField;\n"
+        + "@BindForm\n"
+        + "public class Invalid {\n"
+        + "  @FormField private String hidden;\n"
+        + "  @FormField int noOptions;\n"
+        + "  @FormField String same;\n"
+        + "  @FormField(name = \"same\") String other;\n"
+        + "}\n";
+    assertFalse(compile("sample.Invalid", source));
+
+    String diagnostics = diagnostics();
+    assertTrue(diagnostics, diagnostics.contains("@FormField field must not be private, static or final"));
+    assertTrue(diagnostics, diagnostics.contains("@FormField field must be a String, CharSequence, Date, or an int with options"));
+    assertTrue(diagnostics, diagnostics.contains("Another @FormField field has name same"));
+    assertFalse(new File(mGenerated, "sample/Invalid_FormBinding.java").exists());
+  }
+
+  @Test
+  public void rejectsFieldOutsideBoundClass() throws Exception {
+    String source =
+      "package sample;\n"
+        + "import com.github.chilinh.android.form.annotation.FormField;\n"
+        + "public class Unbound {\n"
+        + "  @FormField String name;\n"
+        + "}\n";
+    assertFalse(compile("sample.Unbound", source));
+    String diagnostics = diagnostics();
+    assertTrue(diagnostics, diagnostics.contains("@FormField is only allowed in a class annotated with @BindForm"));
+  }
+
+  @Test
+  public void escapesLiterals() {
+    assertEquals("\"a\\\"b\\\\c\\n\\u00e9\"", FormBindingProcessor.literal("a\"b\\c\n\u00e9"));
+  }
+
+  /**
+   * @return true if sources, library stand-ins and generated bindings compiled without error
+   */
+  private boolean compile(String className, String source) throws IOException {
+    List<File> files = new ArrayList<>();
+    for (String[] library : LIBRARY) {
+      files.add(write(library[0], library[1]));
+    }
+    files.add(write(className, source));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertNotNull("Tests must run on a JDK", compiler);
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(mDiagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+      List<String> options = Arrays.asList(
+        "-classpath", System.getProperty("java.class.path"),
+        "-d", mClasses.getPath(),
+        "-s", mGenerated.getPath()
+      );
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, mDiagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(files));
+      task.setProcessors(Collections.singletonList(new FormBindingProcessor()));
+      return task.call();
+    }
+  }
+
+  private File write(String className, String source) throws IOException {
+    File file = new File(mSources, className.replace('.', '/') + ".java");
+    assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+    Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private String generated(String path) throws IOException {
+    File file = new File(mGenerated, path);
+    assertTrue("Not generated: " + path, file.exists());
+    return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+  }
+
+  private String diagnostics() {
+    StringBuilder text = new StringBuilder();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : mDiagnostics.getDiagnostics()) {
+      text.append(diagnostic.getKind()).append(": ").append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+    }
+    return text.toString();
+  }
+
+  private ClassLoader loader() throws IOException {
+    return new URLClassLoader(new URL[] {mClasses.toURI().toURL()}, getClass().getClassLoader());
+  }
+
+  private static void set(Object target, String name, Object value) throws Exception {
+    Field field = target.getClass().getField(name);
+    field.set(target, value);
+  }
+
+  private static Object get(Object target, String name) throws Exception {
+    return target.getClass().getField(name).get(target);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.chilinh.android.form.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares rows built by {@link InputRowFactory#XML} and {@link InputRowFactory#PROGRAMMATIC}
+ */
+@RunWith(AndroidJUnit4.class)
+public class InputRowFactoryTest {
+
+  private static final String TAG = "InputRowFactoryTest";
+  private static final int WARM_UP = 20;
+  private static final int ROUNDS = 300;
+
+  private Context mContext;
+
+  @Before
+  public void setUp() throws Exception {
+    mContext = InstrumentationRegistry.getTargetContext();
+  }
+
+  @Test
+  public void sameViewStructure() throws Exception {
+    InputRow xml = InputRowFactory.XML.createRow(mContext);
+    InputRow code = InputRowFactory.PROGRAMMATIC.createRow(mContext);
+
+    assertEquals(countViews(xml.root), countViews(code.root));
+    for (InputRow row : new InputRow[]{xml, code}) {
+      assertSame(row.horizontalLabel, row.root.findViewById(R.id.field_label_horizontal));
+      assertSame(row.verticalLabel, row.root.findViewById(R.id.field_label_vertical));
+      assertSame(row.fieldContainer, row.root.findViewById(R.id.field_container));
+      assertSame(row.error, row.root.findViewById(R.id.field_error));
+      assertEquals(View.VISIBLE, row.horizontalLabel.getVisibility());
+      assertEquals(View.GONE, row.verticalLabel.getVisibility());
+      assertEquals(View.GONE, row.error.getVisibility());
+    }
+  }
+
+  /**
+   * Only logs timings, wall clock time on emulators and shared devices is too noisy to assert
+   */
+  @Test
+  public void benchmarkCreateRow() throws Exception {
+    long xmlNanos = measure(InputRowFactory.XML);
+    long codeNanos = measure(InputRowFactory.PROGRAMMATIC);
+    Log.i(TAG, "rows: " + ROUNDS + ", xml: " + xmlNanos / 1000 + "us, programmatic: " + codeNanos / 1000 + "us");
+  }
+
+  private long measure(InputRowFactory factory) {
+    for (int i = 0; i < WARM_UP; i++) {
+      factory.createRow(mContext);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      factory.createRow(mContext);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static int countViews(View view) {
+    int count = 1;
+    if (view instanceof ViewGroup) {
+      ViewGroup group = (ViewGroup) view;
+      for (int i = 0; i < group.getChildCount(); i++) {
+        count += countViews(group.getChildAt(i));
+      }
+    }
+    return count;
+  }
+}
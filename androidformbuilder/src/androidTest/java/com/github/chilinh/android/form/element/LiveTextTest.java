@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.content.Context;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.Editable;
+import android.text.InputType;
+import android.widget.EditText;
+
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.FormModelDialog;
+import com.github.chilinh.android.form.validator.ValidationCache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that typing into an {@link EditTextElement} in live text mode does not allocate. Edits
+ * go through a bound {@link EditText}, so its text watcher, the model and
+ * {@link RefreshScheduler} are all run, on main thread as when user types
+ */
+@RunWith(AndroidJUnit4.class)
+public class LiveTextTest {
+
+  private static final int WARM_UP = 20;
+  private static final int KEYSTROKES = 1000;
+
+  private Context mContext;
+  private FormModel mModel;
+  private EditTextElement mElement;
+  private EditText mEditText;
+
+  @Before
+  public void setUp() throws Exception {
+    mContext = InstrumentationRegistry.getTargetContext();
+    runOnMainSync(new Runnable() {
+      @Override
+      public void run() {
+        mModel = new FormModelDialog();
+        mElement = new EditTextElement("note", "Note").multiLine(true).liveText(true);
+        mElement.setModel(mModel);
+        mElement.bindView(mElement.createRecyclableView(mContext));
+        mEditText = (EditText) mElement.getFieldView();
+      }
+    });
+  }
+
+  @Test
+  public void typingDoesNotAllocate() throws Exception {
+    final int[] allocations = new int[2];
+    runOnMainSync(new Runnable() {
+      @Override
+      public void run() {
+        ValidationCache cache = new ValidationCache();
+        cache.attach(mModel);
+        // Same edits to an edit text without element, what editing costs by itself
+        EditText plain = new EditText(mContext);
+        plain.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_MULTI_LINE);
+        allocations[0] = countTypingAllocations(plain);
+        allocations[1] = countTypingAllocations(mEditText);
+      }
+    });
+
+    assertTrue("edit text: " + allocations[0] + ", bound to element: " + allocations[1], allocations[1] <= allocations[0]);
+  }
+
+  private static int countTypingAllocations(EditText editText) {
+    Editable text = editText.getText();
+    // Big enough to never grow while typing
+    for (int i = 0; i < WARM_UP + KEYSTROKES; i++) {
+      text.append('w');
+    }
+    text.clear();
+    for (int i = 0; i < WARM_UP; i++) {
+      type(text, 'w');
+    }
+
+    Debug.startAllocCounting();
+    Debug.resetThreadAllocCount();
+    for (int i = 0; i < KEYSTROKES; i++) {
+      type(text, 'a');
+    }
+    int allocations = Debug.getThreadAllocCount();
+    Debug.stopAllocCounting();
+    return allocations;
+  }
+
+  @Test
+  public void textIsCopiedWhenRead() throws Exception {
+    runOnMainSync(new Runnable() {
+      @Override
+      public void run() {
+        type(mEditText.getText(), 'a');
+        type(mEditText.getText(), 'b');
+        CharSequence value = mModel.get("note");
+        assertTrue(value instanceof LiveText);
+        assertEquals("ab", value.toString());
+        assertSame(value.toString(), value.toString());
+
+        type(mEditText.getText(), 'c');
+        assertSame(value, mModel.get("note"));
+        assertEquals("abc", value.toString());
+        // Refresh did not replace text being edited
+        assertEquals("abc", mEditText.getText().toString());
+      }
+    });
+  }
+
+  @Test
+  public void listenersAreNotified() throws Exception {
+    final int[] count = new int[1];
+    runOnMainSync(new Runnable() {
+      @Override
+      public void run() {
+        mModel.addListener("note", new FormModel.OnChangeListener() {
+          @Override
+          public void onChanged(FormModel model, String name) {
+            count[0]++;
+          }
+        });
+        type(mEditText.getText(), 'a');
+        type(mEditText.getText(), 'b');
+      }
+    });
+    assertEquals(2, count[0]);
+  }
+
+  /**
+   * Method to type a character and run the refresh which next frame would run
+   */
+  private static void type(Editable text, char c) {
+    text.append(c);
+    RefreshScheduler.getInstance().flush();
+  }
+
+  private static void runOnMainSync(Runnable runnable) {
+    InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares reading a large form from JSON schema and from compiled schema
+ */
+@RunWith(AndroidJUnit4.class)
+public class SchemaBenchmarkTest {
+
+  private static final String TAG = "SchemaBenchmark";
+  private static final int SECTIONS = 20;
+  private static final int ELEMENTS_PER_SECTION = 50;
+  private static final int WARM_UP = 5;
+  private static final int RUNS = 20;
+
+  private String mJson;
+  private byte[] mCompiled;
+
+  @Before
+  public void setUp() throws Exception {
+    mJson = largeSchema();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FormSchema.compile(new StringReader(mJson), out);
+    mCompiled = out.toByteArray();
+  }
+
+  @Test
+  public void compiledSchemaIsEquivalent() throws Exception {
+    Recorder json = new Recorder();
+    FormSchema.parse(new StringReader(mJson), json);
+    Recorder compiled = new Recorder();
+    FormSchema.parseCompiled(mCompiled, compiled);
+
+    assertEquals(SECTIONS + SECTIONS * ELEMENTS_PER_SECTION + 2, json.events.size());
+    assertEquals(json.events, compiled.events);
+  }
+
+  @Test
+  public void benchmarkRead() throws Exception {
+    for (int i = 0; i < WARM_UP; i++) {
+      readJson();
+      readCompiled();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < RUNS; i++) {
+      readJson();
+    }
+    long json = (System.nanoTime() - start) / RUNS;
+
+    start = System.nanoTime();
+    for (int i = 0; i < RUNS; i++) {
+      readCompiled();
+    }
+    long compiled = (System.nanoTime() - start) / RUNS;
+
+    Log.i(TAG, String.format("%d elements: json %d bytes %d us, compiled %d bytes %d us",
+      SECTIONS * ELEMENTS_PER_SECTION, mJson.length(), json / 1000, mCompiled.length, compiled / 1000));
+    assertTrue(mCompiled.length < mJson.length());
+  }
+
+  private void readJson() throws Exception {
+    new FormSchema().read(new StringReader(mJson));
+  }
+
+  private void readCompiled() {
+    new FormSchema().readCompiled(mCompiled);
+  }
+
+  private static String largeSchema() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\"title\": \"Inspection\", \"submit\": \"Save\", \"sections\": [");
+    for (int s = 0; s < SECTIONS; s++) {
+      if (s > 0) {
+        json.append(',');
+      }
+      json.append("{\"name\": \"section").append(s).append("\", \"title\": \"Section ").append(s)
+        .append("\", \"collapsible\": true, \"collapsed\": ").append(s % 2 == 1).append(", \"elements\": [");
+      for (int e = 0; e < ELEMENTS_PER_SECTION; e++) {
+        if (e > 0) {
+          json.append(',');
+        }
+        String name = "field" + s + "_" + e;
+        switch (e % 5) {
+          case 0:
+            json.append("{\"type\": \"edit\", \"name\": \"").append(name)
+              .append("\", \"label\": \"Note\", \"placeholder\": \"Write here\", \"required\": true, \"inputType\": 8192, \"multiLine\": ")
+              .append(e % 2 == 0).append(", \"password\": ").append(e % 2 == 1).append('}');
+            break;
+          case 1:
+            json.append("{\"type\": \"combo\", \"name\": \"").append(name)
+              .append("\", \"label\": \"Condition\", \"options\": [\"Good\", \"Fair\", \"Poor\", \"Broken\"], \"default\": \"Fair\"}");
+            break;
+          case 2:
+            json.append("{\"type\": \"date\", \"name\": \"").append(name)
+              .append("\", \"label\": \"Checked\", \"verticalLabel\": true, \"default\": \"2017-01-31\"}");
+            break;
+          case 3:
+            json.append("{\"type\": \"time\", \"name\": \"").append(name)
+              .append("\", \"label\": \"Start\", \"is24Hour\": true, \"format\": \"HH:mm\"}");
+            break;
+          default:
+            json.append("{\"type\": \"text\", \"name\": \"").append(name)
+              .append("\", \"label\": \"Code\", \"default\": ").append(e).append('}');
+            break;
+        }
+      }
+      json.append("]}");
+    }
+    json.append("]}");
+    return json.toString();
+  }
+
+  private static class Recorder implements SchemaHandler {
+
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onFormAttribute(String name, Object value) {
+      events.add(name + "=" + value);
+    }
+
+    @Override
+    public void onSection(SectionSpec section) {
+      events.add("section " + section.name + " " + section.title + " " + section.collapsible + " " + section.collapsed);
+    }
+
+    @Override
+    public void onElement(ElementSpec element) {
+      events.add(element.type + " " + element.name + " " + element.label + " " + element.placeholder + " "
+        + element.format + " " + element.defaultValue + " " + element.required + " " + element.verticalLabel + " "
+        + element.multiLine + " " + element.password + " " + element.is24Hour + " " + element.inputType + " "
+        + element.options + " " + element.validators);
+    }
+  }
+}
@@ -24,6 +24,10 @@
 
 package com.github.chilinh.android.form;
 
+import com.github.chilinh.android.form.validator.InputError;
+
+import java.util.List;
+
 /**
  * Created by Linh on 11/11/16.
  */
@@ -70,6 +74,29 @@ public interface Callback {
     void onDismiss(T owner, Form form);
   }
 
+  /**
+   * Callback when form is prepared in background
+   */
+  interface Prepare {
+    /**
+     * Will call on main thread when views of form are ready to be shown
+     * @param form
+     */
+    void onPrepared(Form form);
+  }
+
+  /**
+   * Callback when form is validated in background
+   */
+  interface Validate {
+    /**
+     * Will call on main thread after errors are displayed
+     * @param form
+     * @param errors empty if form is valid
+     */
+    void onValidated(Form form, List<InputError> errors);
+  }
+
   abstract class SubmitAbs<T> implements Submit<T> {
     @Override
     public boolean validate(T owner, Form form) {
@@ -0,0 +1,471 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Store of many form drafts in one memory mapped file.
+ *
+ * The file has a fixed header, an index of slots, one per draft, and a data area where
+ * records of drafts are appended. A record starts with a directory of its fields, hash of name
+ * and offset of each field, followed by the fields encoded by {@link FormModelCodec}. So one
+ * field of a draft, e.g. a title for a draft list, is read without decoding the others, and
+ * drafts are loaded into a model directly from the mapped file.
+ * Saving a draft again appends a new record, space of old records is reclaimed by
+ * {@link #compact()}, which is also run when the file would grow while half of it is unused.
+ * A saved record is forced to disk before its slot points to it, and the slot is forced before
+ * save returns, so after a crash a slot points to either the old or the new complete record.
+ * A removal moves the last slot to the removed one and forces it before the slot count is
+ * decreased, a copy left in the last slot by a crash is dropped when the file is opened.
+ * Removals are written to disk by the system, call {@link #sync()} to force them
+ */
+public final class DraftStore implements Closeable {
+
+  private static final int MAGIC = 0x46445246;
+  private static final int VERSION = 1;
+
+  public static final int DEFAULT_SLOT_CAPACITY = 1024;
+
+  /**
+   * Header: magic, version, slot capacity, slot count, end of data, reserved
+   */
+  private static final int HEADER_SIZE = 32;
+  private static final int HEADER_SLOT_CAPACITY = 8;
+  private static final int HEADER_SLOT_COUNT = 12;
+  private static final int HEADER_DATA_END = 16;
+
+  /**
+   * Slot: draft id, offset of record, length of record, number of fields, update time
+   */
+  private static final int SLOT_SIZE = 32;
+  private static final int SLOT_OFFSET = 8;
+  private static final int SLOT_LENGTH = 16;
+  private static final int SLOT_FIELD_COUNT = 20;
+  private static final int SLOT_UPDATED_AT = 24;
+
+  /**
+   * Directory entry of record: hash of name, offset of field from start of record
+   */
+  private static final int FIELD_SIZE = 8;
+
+  /**
+   * Method to open a store, it is created if not exists
+   * @param file
+   * @return
+   * @throws IOException if file can't be opened or is not a draft store
+   */
+  public static DraftStore open(File file) throws IOException {
+    return open(file, DEFAULT_SLOT_CAPACITY);
+  }
+
+  /**
+   * Method to open a store, it is created if not exists
+   * @param file
+   * @param slotCapacity number of drafts a new store has room for, it grows when it is full
+   * @return
+   * @throws IOException if file can't be opened or is not a draft store
+   */
+  public static DraftStore open(File file, int slotCapacity) throws IOException {
+    DraftStore store = new DraftStore(file);
+    if (file.exists() && file.length() > 0) {
+      store.map();
+      store.readIndex();
+    } else {
+      store.create(slotCapacity);
+    }
+    return store;
+  }
+
+  private final File mFile;
+  private final Map<Long, Integer> mSlots = new HashMap<>();
+  private RandomAccessFile mRaf;
+  private MappedByteBuffer mBuffer;
+  private int mSlotCapacity;
+  private int mSlotCount;
+  private long mDataEnd;
+  private long mLiveBytes;
+
+  private DraftStore(File file) {
+    mFile = file;
+  }
+
+  //region Draft
+  /**
+   * Method to save values of a model as a draft, replacing previous draft of the same id.
+   * Default and null values are not saved, like instance state
+   * @param id of draft
+   * @param model one of models of this library
+   * @throws IOException
+   */
+  public synchronized void save(long id, FormModel model) throws IOException {
+    FormData data = FormData.of(model);
+    int count = 0;
+    int size = 0;
+    String[] names = new String[data.size()];
+    byte[][] entries = new byte[data.size()][];
+    for (int i = 0; i < data.capacity(); i++) {
+      String name = data.keyAt(i);
+      if (name == null || data.isDefaultAt(i)
+        || data.typeAt(i) == FormData.TYPE_OBJECT && data.objectAt(i) == null) {
+        continue;
+      }
+      byte[] entry = FormModelCodec.encodeEntry(data, name);
+      if (entry != null) {
+        names[count] = name;
+        entries[count++] = entry;
+        size += entry.length;
+      }
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(count * FIELD_SIZE + size);
+    int offset = count * FIELD_SIZE;
+    for (int i = 0; i < count; i++) {
+      record.putInt(i * FIELD_SIZE, names[i].hashCode());
+      record.putInt(i * FIELD_SIZE + 4, offset);
+      offset += entries[i].length;
+    }
+    record.position(count * FIELD_SIZE);
+    for (int i = 0; i < count; i++) {
+      record.put(entries[i]);
+    }
+    append(id, record.array(), count, System.currentTimeMillis(), true);
+  }
+
+  /**
+   * Method to set values of a draft to model, in one batch. Values are read from the mapped
+   * file without copying the draft
+   * @param id of draft
+   * @param model
+   * @return false if there is no draft of id
+   */
+  public synchronized boolean load(long id, FormModel model) {
+    Integer slot = mSlots.get(id);
+    if (slot == null) {
+      return false;
+    }
+    int pos = slotPosition(slot);
+    int offset = (int) mBuffer.getLong(pos + SLOT_OFFSET);
+    int length = mBuffer.getInt(pos + SLOT_LENGTH);
+    int count = mBuffer.getInt(pos + SLOT_FIELD_COUNT);
+
+    ByteBuffer record = mBuffer.duplicate();
+    record.limit(offset + length);
+    record.position(offset + count * FIELD_SIZE);
+    model.beginBatch();
+    try {
+      for (int i = 0; i < count; i++) {
+        FormModelCodec.readEntry(record, model);
+      }
+    } finally {
+      model.commitBatch();
+    }
+    return true;
+  }
+
+  /**
+   * Method to read one field of a draft without reading others
+   * @param id of draft
+   * @param name of field
+   * @return value, or null if draft or field doesn't exist
+   */
+  public synchronized Object getValue(long id, String name) {
+    Integer slot = mSlots.get(id);
+    if (slot == null) {
+      return null;
+    }
+    int pos = slotPosition(slot);
+    int offset = (int) mBuffer.getLong(pos + SLOT_OFFSET);
+    int length = mBuffer.getInt(pos + SLOT_LENGTH);
+    int count = mBuffer.getInt(pos + SLOT_FIELD_COUNT);
+    int hash = name.hashCode();
+    for (int i = 0; i < count; i++) {
+      int field = offset + i * FIELD_SIZE;
+      if (mBuffer.getInt(field) != hash) {
+        continue;
+      }
+      ByteBuffer entry = mBuffer.duplicate();
+      entry.limit(offset + length);
+      entry.position(offset + mBuffer.getInt(field + 4));
+      Object value = FormModelCodec.readEntryValue(entry, name);
+      if (value != FormModelCodec.NO_VALUE) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param id of draft
+   * @return time draft was saved in milliseconds, or 0 if there is no draft of id
+   */
+  public synchronized long getUpdatedAt(long id) {
+    Integer slot = mSlots.get(id);
+    return slot == null ? 0 : mBuffer.getLong(slotPosition(slot) + SLOT_UPDATED_AT);
+  }
+
+  public synchronized boolean contains(long id) {
+    return mSlots.containsKey(id);
+  }
+
+  /**
+   * @return number of drafts
+   */
+  public synchronized int size() {
+    return mSlotCount;
+  }
+
+  /**
+   * @return ids of all drafts in index order
+   */
+  public synchronized long[] getDraftIds() {
+    long[] ids = new long[mSlotCount];
+    for (int i = 0; i < mSlotCount; i++) {
+      ids[i] = mBuffer.getLong(slotPosition(i));
+    }
+    return ids;
+  }
+
+  /**
+   * Method to remove a draft
+   * @param id of draft
+   * @return false if there is no draft of id
+   */
+  public synchronized boolean remove(long id) {
+    Integer slot = mSlots.remove(id);
+    if (slot == null) {
+      return false;
+    }
+    mLiveBytes -= mBuffer.getInt(slotPosition(slot) + SLOT_LENGTH);
+    int last = mSlotCount - 1;
+    if (slot != last) {
+      // Move last slot to the removed one, so slots stay contiguous
+      copySlot(last, slot);
+      mSlots.put(mBuffer.getLong(slotPosition(slot)), slot);
+      // Moved draft must be on disk before the count drops its old slot
+      mBuffer.force();
+    }
+    mSlotCount = last;
+    mBuffer.putInt(HEADER_SLOT_COUNT, mSlotCount);
+    return true;
+  }
+  //endregion
+
+  //region File
+  /**
+   * Method to rewrite the file without space of old records
+   * @throws IOException
+   */
+  public synchronized void compact() throws IOException {
+    compact(mSlotCapacity);
+  }
+
+  /**
+   * Method to force changes to be written to disk
+   */
+  public synchronized void sync() {
+    mBuffer.force();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (mRaf != null) {
+      mBuffer.force();
+      mRaf.close();
+      mRaf = null;
+      mBuffer = null;
+    }
+  }
+
+  private void create(int slotCapacity) throws IOException {
+    mSlotCapacity = slotCapacity;
+    mSlotCount = 0;
+    mDataEnd = dataStart();
+    mLiveBytes = 0;
+    mRaf = new RandomAccessFile(mFile, "rw");
+    mRaf.setLength(mDataEnd);
+    mBuffer = mRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mDataEnd);
+    mBuffer.putInt(0, MAGIC);
+    mBuffer.putInt(4, VERSION);
+    mBuffer.putInt(HEADER_SLOT_CAPACITY, mSlotCapacity);
+    mBuffer.putInt(HEADER_SLOT_COUNT, 0);
+    mBuffer.putLong(HEADER_DATA_END, mDataEnd);
+  }
+
+  private void map() throws IOException {
+    mRaf = new RandomAccessFile(mFile, "rw");
+    mBuffer = mRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mRaf.length());
+  }
+
+  private void readIndex() throws IOException {
+    if (mBuffer.capacity() < HEADER_SIZE || mBuffer.getInt(0) != MAGIC || mBuffer.getInt(4) != VERSION) {
+      close();
+      throw new IOException(mFile + " is not a draft store");
+    }
+    mSlotCapacity = mBuffer.getInt(HEADER_SLOT_CAPACITY);
+    mSlotCount = mBuffer.getInt(HEADER_SLOT_COUNT);
+    mDataEnd = mBuffer.getLong(HEADER_DATA_END);
+    if (mSlotCount > mSlotCapacity || mDataEnd > mBuffer.capacity() || mDataEnd < dataStart()) {
+      close();
+      throw new IOException(mFile + " is corrupted");
+    }
+    mSlots.clear();
+    mLiveBytes = 0;
+    for (int i = 0; i < mSlotCount; i++) {
+      Integer previous = mSlots.put(mBuffer.getLong(slotPosition(i)), i);
+      if (previous != null) {
+        // Last slot was moved by a removal whose slot count was not written, finish it
+        mSlots.put(mBuffer.getLong(slotPosition(i)), previous);
+        mSlotCount = i;
+        mBuffer.putInt(HEADER_SLOT_COUNT, mSlotCount);
+        break;
+      }
+      mLiveBytes += mBuffer.getInt(slotPosition(i) + SLOT_LENGTH);
+    }
+  }
+
+  /**
+   * @param durable true to force record to disk before it is published in its slot, and the
+   *                slot before returning, a new file being compacted is forced once at the end
+   */
+  private void append(long id, byte[] record, int fieldCount, long updatedAt, boolean durable) throws IOException {
+    Integer slot = mSlots.get(id);
+    if (slot == null && mSlotCount == mSlotCapacity) {
+      compact(mSlotCapacity * 2);
+    }
+    ensureData(record.length);
+
+    long offset = mDataEnd;
+    ByteBuffer data = mBuffer.duplicate();
+    data.position((int) offset);
+    data.put(record);
+    mDataEnd += record.length;
+    mBuffer.putLong(HEADER_DATA_END, mDataEnd);
+    if (durable) {
+      // Mapped pages reach disk in no particular order, a slot must not point to a record
+      // which is not there yet
+      mBuffer.force();
+    }
+
+    if (slot == null) {
+      slot = mSlotCount;
+    } else {
+      mLiveBytes -= mBuffer.getInt(slotPosition(slot) + SLOT_LENGTH);
+    }
+    int pos = slotPosition(slot);
+    mBuffer.putLong(pos, id);
+    mBuffer.putLong(pos + SLOT_OFFSET, offset);
+    mBuffer.putInt(pos + SLOT_LENGTH, record.length);
+    mBuffer.putInt(pos + SLOT_FIELD_COUNT, fieldCount);
+    mBuffer.putLong(pos + SLOT_UPDATED_AT, updatedAt);
+    mLiveBytes += record.length;
+
+    // A new slot is only counted once it is complete, a slot of 32 bytes is within a sector of
+    // disk so an updated slot is written as a whole
+    if (slot == mSlotCount) {
+      mSlotCount++;
+      mSlots.put(id, slot);
+      mBuffer.putInt(HEADER_SLOT_COUNT, mSlotCount);
+    }
+    if (durable) {
+      mBuffer.force();
+    }
+  }
+
+  private void ensureData(int length) throws IOException {
+    if (mDataEnd + length <= mBuffer.capacity()) {
+      return;
+    }
+    long unused = mDataEnd - dataStart() - mLiveBytes;
+    if (unused > mLiveBytes) {
+      compact(mSlotCapacity);
+      if (mDataEnd + length <= mBuffer.capacity()) {
+        return;
+      }
+    }
+    long size = Math.max(mDataEnd + length, mBuffer.capacity() * 2L);
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Draft store is full");
+    }
+    mRaf.setLength(size);
+    mBuffer = mRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+  }
+
+  /**
+   * Method to copy live records to a new file with new slot capacity, then replace this file
+   */
+  private void compact(int slotCapacity) throws IOException {
+    File temp = new File(mFile.getPath() + ".tmp");
+    if (temp.exists() && !temp.delete()) {
+      throw new IOException("Can not delete " + temp);
+    }
+    DraftStore target = new DraftStore(temp);
+    target.create(slotCapacity);
+    target.ensureData((int) mLiveBytes);
+    for (int i = 0; i < mSlotCount; i++) {
+      int pos = slotPosition(i);
+      int offset = (int) mBuffer.getLong(pos + SLOT_OFFSET);
+      byte[] record = new byte[mBuffer.getInt(pos + SLOT_LENGTH)];
+      ByteBuffer data = mBuffer.duplicate();
+      data.position(offset);
+      data.get(record);
+      target.append(mBuffer.getLong(pos), record, mBuffer.getInt(pos + SLOT_FIELD_COUNT), mBuffer.getLong(pos + SLOT_UPDATED_AT), false);
+    }
+    // Forced before it replaces this file
+    target.close();
+
+    close();
+    if (!temp.renameTo(mFile)) {
+      throw new IOException("Can not rename " + temp + " to " + mFile);
+    }
+    map();
+    readIndex();
+  }
+
+  private void copySlot(int from, int to) {
+    int src = slotPosition(from);
+    int dst = slotPosition(to);
+    for (int i = 0; i < SLOT_SIZE; i += 8) {
+      mBuffer.putLong(dst + i, mBuffer.getLong(src + i));
+    }
+  }
+
+  private long dataStart() {
+    return HEADER_SIZE + (long) mSlotCapacity * SLOT_SIZE;
+  }
+
+  private static int slotPosition(int slot) {
+    return HEADER_SIZE + slot * SLOT_SIZE;
+  }
+  //endregion
+}
@@ -27,10 +27,16 @@ package com.github.chilinh.android.form;
 import android.content.Context;
 import android.content.DialogInterface;
 import android.content.res.Resources;
+import android.os.Bundle;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentManager;
 import android.support.v7.app.AlertDialog;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
+import android.util.Log;
 import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -41,16 +47,25 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import com.github.chilinh.android.form.element.BaseFormElement;
+import com.github.chilinh.android.form.element.BaseInputElement;
+import com.github.chilinh.android.form.element.ElementIndex;
+import com.github.chilinh.android.form.element.InputRowFactory;
 import com.github.chilinh.android.form.element.SectionElement;
+import com.github.chilinh.android.form.element.TextElement;
+import com.github.chilinh.android.form.expression.ComputeEngine;
+import com.github.chilinh.android.form.rule.Rule;
+import com.github.chilinh.android.form.rule.RuleEngine;
 import com.github.chilinh.android.form.validator.ElementErrorDisplay;
 import com.github.chilinh.android.form.validator.ErrorDisplay;
 import com.github.chilinh.android.form.validator.InputError;
+import com.github.chilinh.android.form.validator.ValidationCache;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Created by Linh on 11/3/16.
@@ -73,6 +88,14 @@ public class Form {
     private CharSequence cancelBtn;
     private int cancelResId = View.NO_ID;
 
+    private boolean useRecyclerView;
+    private FormViewPool viewPool;
+    private InputRowFactory rowFactory;
+    private boolean incrementalValidation;
+    private Executor validateExecutor;
+    private int maxSavedStateSize = FormModelCodec.DEFAULT_MAX_SIZE;
+    private FormModel model;
+
     public Builder errorDisplay(ErrorDisplay errorDisplay) {
       this.errorDisplay = errorDisplay;
       return this;
@@ -114,14 +137,108 @@ public class Form {
       return this;
     }
 
+    /**
+     * Method to render form by {@link RecyclerView}, only visible elements will have views
+     * and views are recycled between elements of the same type. Recommend for large forms
+     * @param useRecyclerView
+     * @return
+     */
+    public Builder useRecyclerView(boolean useRecyclerView) {
+      this.useRecyclerView = useRecyclerView;
+      return this;
+    }
+
+    /**
+     * Method to set a pool that views of this form are taken from and given back to when the
+     * form is released, see {@link Form#releaseViews()}
+     * @param viewPool
+     * @return
+     */
+    public Builder viewPool(FormViewPool viewPool) {
+      this.viewPool = viewPool;
+      return this;
+    }
+
+    /**
+     * Method to set factory that creates rows of input elements which don't have their own,
+     * default is {@link InputRowFactory#XML}
+     * @param rowFactory
+     * @return
+     */
+    public Builder rowFactory(InputRowFactory rowFactory) {
+      this.rowFactory = rowFactory;
+      return this;
+    }
+
+    /**
+     * Method to validate only fields changed since last validation, results of other fields
+     * are taken from cache. See {@link Form#getValidationCache()}
+     * @param incrementalValidation
+     * @return
+     */
+    public Builder incrementalValidation(boolean incrementalValidation) {
+      this.incrementalValidation = incrementalValidation;
+      return this;
+    }
+
+    /**
+     * Method to run validators on executor when submit button is clicked, so heavy validators
+     * don't block main thread. See {@link Form#validateAsync(Executor, Callback.Validate)}
+     * @param validateExecutor null to validate on main thread
+     * @return
+     */
+    public Builder validateExecutor(Executor validateExecutor) {
+      this.validateExecutor = validateExecutor;
+      return this;
+    }
+
     private final Map<String, SectionElement> mSectionMap = new HashMap<>();
     private final List<SectionElement> mSections = new ArrayList<>();
 
+    /**
+     * Method to set max size of values saved in instance state, values which don't fit are
+     * not saved. Default is 64KB
+     * @param maxSavedStateSize in bytes
+     * @return
+     */
+    public Builder maxSavedStateSize(int maxSavedStateSize) {
+      this.maxSavedStateSize = maxSavedStateSize;
+      return this;
+    }
+
+    /**
+     * Method to set model that form is built with, e.g. a {@link JournaledFormModel} to keep
+     * a draft. By default forms built to fragment use a retained fragment and dialog forms use
+     * a new model each time
+     * @param model
+     * @return
+     */
+    public Builder model(FormModel model) {
+      this.model = model;
+      return this;
+    }
+
+    private final ElementIndex mIndex = new ElementIndex();
+    private final List<Rule> mRules = new ArrayList<>();
+
+    /**
+     * Method to add a rule which shows or enables an element depending on values of others,
+     * e.g. <code>Rule.showWhen("otherReason", Condition.selected("reason", OTHER))</code>.
+     * Hidden elements are not validated
+     * @param rule
+     * @return
+     */
+    public Builder addRule(Rule rule) {
+      mRules.add(rule);
+      return this;
+    }
+
     public Builder addElement(SectionElement section, int position) {
       if (mSectionMap.containsKey(section.getName())) {
         throw new IllegalArgumentException("Section with that name already exists");
       }
 
+      mIndex.addSection(section);
       mSectionMap.put(section.getName(), section);
       mSections.add(position, section);
       return this;
@@ -146,30 +263,71 @@ public class Form {
     }
 
     public Form build(Context context) {
-      Form form = new Form(context.getApplicationContext(), mSectionMap, mSections, errorDisplay);
+      if (rowFactory != null) {
+        for (SectionElement section : mSections) {
+          for (BaseFormElement element : section.getElements()) {
+            if (element instanceof BaseInputElement && ((BaseInputElement) element).getRowFactory() == null) {
+              ((BaseInputElement) element).rowFactory(rowFactory);
+            }
+          }
+        }
+      }
+
+      Form form = new Form(context.getApplicationContext(), mSectionMap, mSections, mIndex, errorDisplay);
       Resources res = context.getResources();
       form.mTitle = getCharsequence(res, titleResId, title);
       form.mSubmitBtn = getCharsequence(res, submitResId, submitBtn);
       form.mCancelBtn = getCharsequence(res, cancelResId, cancelBtn);
+      form.mUseRecyclerView = useRecyclerView;
+      form.mViewPool = viewPool;
+      form.mValidationCache = incrementalValidation ? new ValidationCache() : null;
+      form.mValidateExecutor = validateExecutor;
+      form.mMaxSavedStateSize = maxSavedStateSize;
+      form.mCustomModel = model;
+      form.mRuleEngine = mRules.isEmpty() ? null : new RuleEngine(mRules);
+      form.mComputeEngine = newComputeEngine();
       return form;
     }
+
+    private ComputeEngine newComputeEngine() {
+      List<TextElement> computed = new ArrayList<>();
+      for (SectionElement section : mSections) {
+        for (BaseFormElement element : section.getElements()) {
+          if (element instanceof TextElement && ((TextElement) element).getExpression() != null) {
+            computed.add((TextElement) element);
+          }
+        }
+      }
+      return computed.isEmpty() ? null : new ComputeEngine(computed);
+    }
   }
 
-  private Form(Context context, Map<String, SectionElement> sectionMap, List<SectionElement> sections, ErrorDisplay errorDisplay) {
+  private Form(Context context, Map<String, SectionElement> sectionMap, List<SectionElement> sections, ElementIndex index, ErrorDisplay errorDisplay) {
     mContext = context;
     mErrorDisplay = errorDisplay == null ? new ElementErrorDisplay(this) : null;
     mSectionMap = sectionMap;
     mSections = sections;
+    mIndex = index;
   }
 
   private final Context mContext;
   private final Map<String, SectionElement> mSectionMap;
   private final List<SectionElement> mSections;
+  private final ElementIndex mIndex;
   private final ErrorDisplay mErrorDisplay;
 
   private CharSequence mTitle;
   private CharSequence mSubmitBtn;
   private CharSequence mCancelBtn;
+  private boolean mUseRecyclerView;
+  private FormViewPool mViewPool;
+  private RecyclerView mRecyclerView;
+  private ValidationCache mValidationCache;
+  private Executor mValidateExecutor;
+  private int mMaxSavedStateSize;
+  private FormModel mCustomModel;
+  private RuleEngine mRuleEngine;
+  private ComputeEngine mComputeEngine;
 
   public List<SectionElement> getSections() {
     return Collections.unmodifiableList(mSections);
@@ -184,13 +342,15 @@ public class Form {
   }
 
   public BaseFormElement getElement(String name) {
-    for (SectionElement section : mSections) {
-      BaseFormElement element = section.getElement(name);
-      if (element != null) {
-        return element;
-      }
-    }
-    return null;
+    return mIndex.getElement(name);
+  }
+
+  /**
+   * @param name of element
+   * @return section which contains element with that name or null
+   */
+  public SectionElement getSectionOf(String name) {
+    return mIndex.getSection(name);
   }
   //endregion
 
@@ -198,11 +358,19 @@ public class Form {
   private List<InputError> getErrors() {
     List<InputError> errors = new ArrayList<>();
     for (SectionElement section : mSections) {
-      section.validate(errors);
+      section.validate(errors, mValidationCache);
     }
     return errors;
   }
 
+  /**
+   * @return cache of validation results or null if form is not built with
+   * {@link Builder#incrementalValidation(boolean)}
+   */
+  public ValidationCache getValidationCache() {
+    return mValidationCache;
+  }
+
   public void clearValidateError(Context context) {
     mLastestErrors = null;
     mErrorDisplay.clear(context);
@@ -211,6 +379,8 @@ public class Form {
   private List<InputError> mLastestErrors;
 
   public boolean validate(Context context) {
+    // Results of a running validation would be stale
+    mValidateGeneration++;
     clearValidateError(context);
     mLastestErrors = getErrors();
     if (mLastestErrors != null && !mLastestErrors.isEmpty()) {
@@ -223,14 +393,150 @@ public class Form {
   public List<InputError> getLastErrorList() {
     return mLastestErrors;
   }
+
+  private volatile int mValidateGeneration;
+
+  /**
+   * Method to validate form on executor. Values of fields are taken from model before
+   * validators are run, so later changes do not affect the result. Calling it again, or
+   * {@link #validate(Context)}, cancels a running validation and its result is dropped.
+   * Errors are displayed on main thread before callback is called.
+   * Must be called on main thread
+   * @param executor to run validators on
+   * @param callback can be null
+   */
+  public void validateAsync(Executor executor, final Callback.Validate callback) {
+    final int generation = ++mValidateGeneration;
+    final List<BaseInputElement> fields = new ArrayList<>();
+    final List<Object> values = new ArrayList<>();
+    for (SectionElement section : mSections) {
+      if (!section.isVisible()) {
+        continue;
+      }
+      for (BaseFormElement element : section.getElements()) {
+        if (element instanceof BaseInputElement && element.isVisible()) {
+          Object value = mModel.get(element.getName());
+          fields.add((BaseInputElement) element);
+          // Text may be a live editable
+          values.add(value instanceof CharSequence ? value.toString() : value);
+        }
+      }
+    }
+
+    executor.execute(
+      () -> {
+        final List<InputError> errors = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+          if (generation != mValidateGeneration) {
+            return;
+          }
+          errors.addAll(fields.get(i).validateValue(values.get(i)));
+        }
+
+        mMainHandler.post(
+          () -> {
+            if (generation != mValidateGeneration) {
+              return;
+            }
+            clearValidateError(mContext);
+            mLastestErrors = errors;
+            if (!errors.isEmpty()) {
+              mErrorDisplay.show(mContext, errors);
+            }
+            if (callback != null) {
+              callback.onValidated(Form.this, errors);
+            }
+          }
+        );
+      }
+    );
+  }
+
+  /**
+   * Method to cancel running validation started by {@link #validateAsync(Executor, Callback.Validate)}
+   */
+  public void cancelValidation() {
+    mValidateGeneration++;
+  }
+
+  private void validateThen(final Runnable onValid) {
+    if (mValidateExecutor == null) {
+      if (validate(mContext)) {
+        onValid.run();
+      }
+      return;
+    }
+    validateAsync(
+      mValidateExecutor,
+      (form, errors) -> {
+        if (errors.isEmpty()) {
+          onValid.run();
+        }
+      }
+    );
+  }
   //endregion
 
   private void makeFormView(ViewGroup containerView) {
     containerView.removeAllViews();
 
+    if (mUseRecyclerView) {
+      containerView.addView(makeRecyclerView(containerView.getContext()), ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+      return;
+    }
+
+    for (SectionElement section : getSections()) {
+      section.setModel(mModel);
+      section.makeView(containerView, mViewPool);
+    }
+  }
+
+  private RecyclerView makeRecyclerView(Context context) {
     for (SectionElement section : getSections()) {
       section.setModel(mModel);
-      section.makeView(containerView);
+    }
+
+    RecyclerView recyclerView = new RecyclerView(context);
+    recyclerView.setLayoutManager(new LinearLayoutManager(context));
+    // Change animations would bind an element to two rows at the same time
+    recyclerView.setItemAnimator(null);
+    recyclerView.setDescendantFocusability(ViewGroup.FOCUS_BEFORE_DESCENDANTS);
+    recyclerView.setAdapter(new FormAdapter(mSections, mViewPool != null ? mViewPool : mPreparedPool));
+    mRecyclerView = recyclerView;
+    return recyclerView;
+  }
+
+  /**
+   * Method to unbind views from all elements, call it when views of this form are no longer
+   * displayed. If the form has a {@link FormViewPool}, views are given back to it to be reused
+   * by next forms
+   */
+  public void releaseViews() {
+    if (mRecyclerView != null) {
+      for (SectionElement section : mSections) {
+        section.setOnCollapseChangeListener(null);
+        section.setOnVisibilityChangeListener(null);
+        for (BaseFormElement element : section.getElements()) {
+          element.setOnVisibilityChangeListener(null);
+        }
+      }
+      ((FormAdapter) mRecyclerView.getAdapter()).releaseViews(mRecyclerView, mViewPool);
+      mRecyclerView = null;
+    }
+
+    for (SectionElement section : mSections) {
+      for (BaseFormElement element : section.getElements()) {
+        releaseView(element);
+      }
+      releaseView(section);
+    }
+  }
+
+  private void releaseView(BaseFormElement element) {
+    if (mViewPool != null) {
+      element.recycleView(mViewPool);
+    } else {
+      element.unbindView();
     }
   }
 
@@ -240,6 +546,72 @@ public class Form {
     return mModel;
   }
 
+  private void setModel(FormModel model) {
+    mModel = model;
+    if (mValidationCache != null) {
+      mValidationCache.attach(model);
+    }
+    if (model instanceof FormModelFragment) {
+      ((FormModelFragment) model).setMaxSavedStateSize(mMaxSavedStateSize);
+    } else if (model instanceof FormModelDialog && mRestoredState != null) {
+      restoreState((FormModelDialog) model, mRestoredState);
+      mRestoredState = null;
+    }
+    // Rules may read computed values
+    if (mComputeEngine != null) {
+      mComputeEngine.attach(model);
+    }
+    if (mRuleEngine != null) {
+      mRuleEngine.attach(this);
+    }
+  }
+
+  private FormModel newDialogModel() {
+    return mCustomModel != null ? mCustomModel : new FormModelDialog();
+  }
+
+  //region Instance state
+  private static final String STATE_DIALOG_DATA = "#gh_form_dialog_data";
+
+  private byte[] mRestoredState;
+
+  /**
+   * Method to save values of dialog form, call it from onSaveInstanceState of the owner of
+   * dialog. Values of forms built to fragment are saved by their model
+   * @param outState
+   */
+  public void onSaveInstanceState(Bundle outState) {
+    if (mModel instanceof FormModelDialog) {
+      outState.putByteArray(STATE_DIALOG_DATA, ((FormModelDialog) mModel).saveState(mMaxSavedStateSize));
+    }
+  }
+
+  /**
+   * Method to restore values saved by {@link #onSaveInstanceState(Bundle)}, they are applied
+   * when dialog is built, or at once if it has been built
+   * @param savedInstanceState
+   */
+  public void onRestoreInstanceState(Bundle savedInstanceState) {
+    byte[] state = savedInstanceState == null ? null : savedInstanceState.getByteArray(STATE_DIALOG_DATA);
+    if (state == null) {
+      return;
+    }
+    if (mModel instanceof FormModelDialog) {
+      restoreState((FormModelDialog) mModel, state);
+    } else {
+      mRestoredState = state;
+    }
+  }
+
+  private void restoreState(FormModelDialog model, byte[] state) {
+    try {
+      model.restoreState(state);
+    } catch (IllegalArgumentException e) {
+      Log.w(TAG, "restoreState: can not restore form data", e);
+    }
+  }
+  //endregion
+
   private void applyWindow(Window window) {
     window.setSoftInputMode(WindowManager.LayoutParams.SOFT_INPUT_ADJUST_RESIZE | WindowManager.LayoutParams.SOFT_INPUT_STATE_HIDDEN);
   }
@@ -248,13 +620,17 @@ public class Form {
 
   public void buildToFragment(Fragment fragment, final Callback.Submit<Fragment> submitCb) {
     View view = fragment.getView();
-    FragmentManager fm = fragment.getActivity().getSupportFragmentManager();
-    FormModelFragment model = (FormModelFragment) fm.findFragmentByTag(FORM_FRAGMENT_MODEL);
-    if (model == null) {
-      model = new FormModelFragment();
-      fm.beginTransaction().add(model, FORM_FRAGMENT_MODEL).commit();
+    if (mCustomModel != null) {
+      setModel(mCustomModel);
+    } else {
+      FragmentManager fm = fragment.getActivity().getSupportFragmentManager();
+      FormModelFragment model = (FormModelFragment) fm.findFragmentByTag(FORM_FRAGMENT_MODEL);
+      if (model == null) {
+        model = new FormModelFragment();
+        fm.beginTransaction().add(model, FORM_FRAGMENT_MODEL).commit();
+      }
+      setModel(model);
     }
-    mModel = model;
 
     if (TextUtils.isEmpty(mSubmitBtn)) {
       mSubmitBtn = "Summit";
@@ -269,22 +645,142 @@ public class Form {
       submitBtn.setFocusable(true);
 
       submitBtn.setOnClickListener(
-        (v) -> {
-          if (validate(mContext)) {
+        (v) -> validateThen(
+          () -> {
             if (submitCb != null) {
               if (submitCb.validate(fragment, Form.this)) {
                 submitCb.onSubmit(fragment, Form.this);
               }
+            }
+          }
+        )
+      );
+    }
+  }
+
+  //region Prepare
+  /**
+   * Max number of rows whose views are created in advance when form uses recycler view
+   */
+  private static final int PREPARE_RECYCLER_ROWS = 16;
+
+  private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+  private volatile int mPrepareGeneration;
+  private View mPreparedView;
+  private Context mPreparedContext;
+  private FormViewPool mPreparedPool;
+
+  /**
+   * @return true if views of dialog form have been prepared by
+   * {@link #prepareDialog(Context, Executor, Callback.Prepare)}
+   */
+  public boolean isPrepared() {
+    return mPreparedView != null;
+  }
+
+  /**
+   * Method to create views of dialog form on a worker thread, so a later call to
+   * {@link #buildDialog(Context, Callback.Submit, Callback.Dismiss)} with the same context
+   * only has to attach them. Views are created on executor, then bound and attached to the
+   * form container on main thread in one pass. Views which can't be created outside main
+   * thread are made on main thread instead.
+   * Must be called on main thread
+   * @param context that dialog will be built with
+   * @param executor to create views on
+   * @param callback will be called on main thread when form is ready, can be null
+   */
+  public void prepareDialog(final Context context, Executor executor, final Callback.Prepare callback) {
+    final int generation = ++mPrepareGeneration;
+    mPreparedView = null;
+    mPreparedContext = null;
+
+    setModel(newDialogModel());
+    final List<BaseFormElement> elements = new ArrayList<>();
+    for (SectionElement section : mSections) {
+      section.setModel(mModel);
+      elements.add(section);
+      if (!section.isCollapsed()) {
+        elements.addAll(section.getElements());
+      }
+    }
+    final boolean recycler = mUseRecyclerView;
+
+    executor.execute(
+      () -> {
+        final View content = recycler ? null : LayoutInflater.from(context).inflate(R.layout.base_form, null, false);
+        final View[] views = new View[elements.size()];
+        int count = recycler ? Math.min(PREPARE_RECYCLER_ROWS, views.length) : views.length;
+        for (int i = 0; i < count && generation == mPrepareGeneration; i++) {
+          BaseFormElement element = elements.get(i);
+          if (element.getViewType() == null) {
+            continue;
+          }
+          try {
+            views[i] = element.createRecyclableView(context);
+          } catch (RuntimeException e) {
+            // e.g. views which create a handler, they will be made on main thread
+            if (DEBUG) {
+              Log.w(TAG, "prepareDialog: can not create view of " + element.getName() + " in background", e);
+            }
+          }
+        }
+
+        mMainHandler.post(
+          () -> {
+            if (generation != mPrepareGeneration) {
               return;
             }
+            attachPrepared(context, content, elements, views);
+            if (callback != null) {
+              callback.onPrepared(Form.this);
+            }
           }
+        );
+      }
+    );
+  }
+
+  private void attachPrepared(Context context, View content, List<BaseFormElement> elements, View[] views) {
+    if (content == null) {
+      if (mViewPool == null && mPreparedPool == null) {
+        mPreparedPool = new FormViewPool(PREPARE_RECYCLER_ROWS);
+      }
+      FormViewPool pool = mViewPool != null ? mViewPool : mPreparedPool;
+      for (int i = 0; i < views.length; i++) {
+        if (views[i] != null) {
+          pool.release(elements.get(i).getViewType(), views[i]);
         }
-      );
+      }
+      mPreparedView = makeRecyclerView(context);
+    } else {
+      for (int i = 0; i < views.length; i++) {
+        BaseFormElement element = elements.get(i);
+        if (views[i] != null && !element.isViewCreated()) {
+          element.bindView(views[i]);
+        }
+      }
+      makeFormView((ViewGroup) content.findViewById(R.id.form_elements_container));
+      mPreparedView = content;
     }
+    mPreparedContext = context;
   }
+  //endregion
 
   public AlertDialog buildDialog(Context context, final Callback.Submit<DialogInterface> submitCb, final Callback.Dismiss<DialogInterface> dismissCb) {
-    mModel = new FormModelDialog();
+    View view = null;
+    if (mPreparedView != null && mPreparedContext == context) {
+      view = mPreparedView;
+    } else {
+      if (mPreparedView != null) {
+        // Prepared for another context, its views can not be used
+        releaseViews();
+      }
+      setModel(newDialogModel());
+    }
+    // Cancel pending preparation, if any
+    mPrepareGeneration++;
+    mPreparedView = null;
+    mPreparedContext = null;
 
     if (TextUtils.isEmpty(mSubmitBtn)) {
       mSubmitBtn = "Summit";
@@ -296,9 +792,15 @@ public class Form {
     title.setGravity(Gravity.CENTER);
     title.setTextSize(22);
 
-    View view = LayoutInflater.from(context).inflate(R.layout.base_form, null, false);
-    ViewGroup group = (ViewGroup) view.findViewById(R.id.form_elements_container);
-    makeFormView(group);
+    if (view == null) {
+      if (mUseRecyclerView) {
+        view = makeRecyclerView(context);
+      } else {
+        view = LayoutInflater.from(context).inflate(R.layout.base_form, null, false);
+        ViewGroup group = (ViewGroup) view.findViewById(R.id.form_elements_container);
+        makeFormView(group);
+      }
+    }
     AlertDialog.Builder builder = new AlertDialog.Builder(context)
       .setCustomTitle(title)
       .setView(view)
@@ -319,16 +821,18 @@ public class Form {
               new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                  if (validate(mContext)) {
-                    if (submitCb != null) {
-                      if (submitCb.validate(dialog, Form.this)) {
-                        submitCb.onSubmit(dialog, Form.this);
+                  validateThen(
+                    () -> {
+                      if (submitCb != null) {
+                        if (submitCb.validate(dialog, Form.this)) {
+                          submitCb.onSubmit(dialog, Form.this);
+                        }
+                        return;
                       }
-                      return;
-                    }
 
-                    dialog.dismiss();
-                  }
+                      dialog.dismiss();
+                    }
+                  );
                 }
               }
             );
@@ -341,9 +845,14 @@ public class Form {
       new DialogInterface.OnDismissListener() {
         @Override
         public void onDismiss(DialogInterface dialog) {
+          cancelValidation();
           if (dismissCb != null) {
             dismissCb.onDismiss(dialog, Form.this);
           }
+          if (mViewPool != null) {
+            // Dialog is not expected to be shown again, let next forms reuse its views
+            releaseViews();
+          }
         }
       }
     );
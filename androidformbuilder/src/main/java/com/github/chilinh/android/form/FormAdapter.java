@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.github.chilinh.android.form.element.BaseFormElement;
+import com.github.chilinh.android.form.element.SectionElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapter to render a form in {@link RecyclerView}, only rows visible on screen have views.
+ *
+ * Sections and their elements are flattened into rows, elements which have the same
+ * {@link BaseFormElement#getViewType()} share recycled views. Elements without a view type
+ * keep their own view which is moved into a wrapper row when bound.
+ */
+final class FormAdapter extends RecyclerView.Adapter<FormAdapter.ElementHolder>
+  implements SectionElement.OnCollapseChangeListener, BaseFormElement.OnVisibilityChangeListener {
+
+  private final List<SectionElement> mSections;
+  private final FormViewPool mViewPool;
+  private final List<BaseFormElement> mRows = new ArrayList<>();
+  private final Map<Object, Integer> mTypeIds = new HashMap<>();
+  private final SparseArray<BaseFormElement> mTypePrototypes = new SparseArray<>();
+  private int[] mRowTypes = new int[0];
+
+  FormAdapter(List<SectionElement> sections, FormViewPool viewPool) {
+    mSections = sections;
+    mViewPool = viewPool;
+    for (SectionElement section : sections) {
+      section.setOnCollapseChangeListener(this);
+      section.setOnVisibilityChangeListener(this);
+      for (BaseFormElement element : section.getElements()) {
+        element.setOnVisibilityChangeListener(this);
+      }
+    }
+    buildRows();
+  }
+
+  @Override
+  public void onCollapseChanged(SectionElement section, boolean collapsed) {
+    int position = mRows.indexOf(section);
+    if (position < 0) {
+      return;
+    }
+    if (collapsed) {
+      int count = rowCount(position) - 1;
+      buildRows();
+      notifyItemRangeRemoved(position + 1, count);
+    } else {
+      buildRows();
+      notifyItemRangeInserted(position + 1, rowCount(position) - 1);
+    }
+  }
+
+  @Override
+  public void onVisibilityChanged(BaseFormElement element, boolean visible) {
+    if (visible) {
+      buildRows();
+      int position = mRows.indexOf(element);
+      if (position >= 0) {
+        notifyItemRangeInserted(position, rowCount(position));
+      }
+    } else {
+      int position = mRows.indexOf(element);
+      if (position >= 0) {
+        int count = rowCount(position);
+        buildRows();
+        notifyItemRangeRemoved(position, count);
+      }
+    }
+  }
+
+  /**
+   * @return number of rows of element at position, a section has rows of its elements too
+   */
+  private int rowCount(int position) {
+    int end = position + 1;
+    if (mRows.get(position) instanceof SectionElement) {
+      while (end < mRows.size() && !(mRows.get(end) instanceof SectionElement)) {
+        end++;
+      }
+    }
+    return end - position;
+  }
+
+  /**
+   * Method to rebuild rows after elements of the form have been changed
+   */
+  void refresh() {
+    buildRows();
+    notifyDataSetChanged();
+  }
+
+  private void buildRows() {
+    mRows.clear();
+    for (SectionElement section : mSections) {
+      if (!section.isVisible()) {
+        continue;
+      }
+      mRows.add(section);
+      if (!section.isCollapsed()) {
+        for (BaseFormElement element : section.getElements()) {
+          if (element.isVisible()) {
+            mRows.add(element);
+          }
+        }
+      }
+    }
+
+    mRowTypes = new int[mRows.size()];
+    for (int i = 0; i < mRowTypes.length; i++) {
+      mRowTypes[i] = typeOf(mRows.get(i));
+    }
+  }
+
+  private int typeOf(BaseFormElement element) {
+    Object key = element.getViewType();
+    if (key == null) {
+      // Element has its own view, so it has its own type
+      key = element;
+    }
+    Integer type = mTypeIds.get(key);
+    if (type == null) {
+      type = mTypeIds.size();
+      mTypeIds.put(key, type);
+      mTypePrototypes.put(type, element);
+    }
+    return type;
+  }
+
+  @Override
+  public int getItemCount() {
+    return mRows.size();
+  }
+
+  @Override
+  public int getItemViewType(int position) {
+    return mRowTypes[position];
+  }
+
+  @Override
+  public ElementHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+    BaseFormElement prototype = mTypePrototypes.get(viewType);
+    Object key = prototype.getViewType();
+    View view = null;
+    if (key == null) {
+      view = new FrameLayout(parent.getContext());
+    } else if (mViewPool != null) {
+      view = mViewPool.acquire(parent.getContext(), key);
+    }
+    if (view == null) {
+      view = prototype.createRecyclableView(parent.getContext());
+    }
+    view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+    return new ElementHolder(view, key);
+  }
+
+  /**
+   * Method to detach this adapter from recycler view, unbind all rows and give their views to
+   * pool. Holders are not tracked by the adapter, ones dropped by recycler view are unbound
+   * in {@link #onViewRecycled(ElementHolder)} and collected
+   * @param recyclerView which uses this adapter
+   * @param pool can be null
+   */
+  void releaseViews(RecyclerView recyclerView, FormViewPool pool) {
+    // Cached rows are still bound, move them to recycled pool
+    recyclerView.setItemViewCacheSize(0);
+    List<ElementHolder> holders = new ArrayList<>();
+    for (int i = 0; i < recyclerView.getChildCount(); i++) {
+      holders.add((ElementHolder) recyclerView.getChildViewHolder(recyclerView.getChildAt(i)));
+    }
+    RecyclerView.RecycledViewPool recycled = recyclerView.getRecycledViewPool();
+    for (int type = 0; type < mTypeIds.size(); type++) {
+      RecyclerView.ViewHolder holder;
+      while ((holder = recycled.getRecycledView(type)) != null) {
+        holders.add((ElementHolder) holder);
+      }
+    }
+    recyclerView.setAdapter(null);
+
+    for (ElementHolder holder : holders) {
+      holder.unbind();
+      if (pool != null) {
+        pool.release(holder.viewType, holder.itemView);
+      }
+    }
+  }
+
+  @Override
+  public void onBindViewHolder(ElementHolder holder, int position) {
+    holder.bind(mRows.get(position));
+  }
+
+  @Override
+  public void onViewRecycled(ElementHolder holder) {
+    holder.unbind();
+  }
+
+  @Override
+  public boolean onFailedToRecycleView(ElementHolder holder) {
+    // View will be dropped by recycler view, release it from the element
+    holder.unbind();
+    return false;
+  }
+
+  static final class ElementHolder extends RecyclerView.ViewHolder {
+    final Object viewType;
+    private BaseFormElement mElement;
+
+    ElementHolder(View itemView, Object viewType) {
+      super(itemView);
+      this.viewType = viewType;
+    }
+
+    void bind(BaseFormElement element) {
+      unbind();
+      mElement = element;
+      if (element.getViewType() != null) {
+        element.bindView(itemView);
+      } else {
+        element.makeView((ViewGroup) itemView);
+      }
+    }
+
+    void unbind() {
+      if (mElement == null) {
+        return;
+      }
+      if (mElement.getViewType() == null) {
+        ((ViewGroup) itemView).removeAllViews();
+      } else if (mElement.getView() == itemView) {
+        mElement.unbindView();
+      }
+      mElement = null;
+    }
+  }
+}
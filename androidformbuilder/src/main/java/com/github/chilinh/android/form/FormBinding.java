@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+/**
+ * Binding between a class and a form, generated at compile time for classes annotated with
+ * {@link com.github.chilinh.android.form.annotation.BindForm}, e.g. <code>new Profile_FormBinding()</code>
+ * @param <T> type of bound class
+ */
+public interface FormBinding<T> {
+
+  /**
+   * Method to add sections and elements of bound fields
+   * @param builder
+   * @return builder
+   */
+  Form.Builder addElements(Form.Builder builder);
+
+  /**
+   * Method to copy bound fields to model, in one batch
+   * @param source
+   * @param model
+   */
+  void write(T source, FormModel model);
+
+  /**
+   * Method to copy values of model to bound fields, a field stays if model has no value
+   * @param model
+   * @param target
+   */
+  void read(FormModel model, T target);
+}
@@ -0,0 +1,304 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import java.util.Objects;
+
+/**
+ * Storage of form values. Values are kept in parallel arrays of an open addressing table, so
+ * int, long and boolean values are stored without boxing and there is no entry object per
+ * value. Setters return true if stored value is changed.
+ * A value stored by {@link #setDefault(String, Object)} is marked default until it is changed,
+ * default values are not saved by {@link FormModelCodec}
+ */
+final class FormData {
+
+  static final byte TYPE_NONE = 0;
+  static final byte TYPE_OBJECT = 1;
+  static final byte TYPE_INT = 2;
+  static final byte TYPE_LONG = 3;
+  static final byte TYPE_BOOLEAN = 4;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private String[] mKeys = new String[INITIAL_CAPACITY];
+  private byte[] mTypes = new byte[INITIAL_CAPACITY];
+  private long[] mPrimitives = new long[INITIAL_CAPACITY];
+  private Object[] mObjects = new Object[INITIAL_CAPACITY];
+  private boolean[] mDefaults = new boolean[INITIAL_CAPACITY];
+  private int mSize;
+
+  /**
+   * @param model
+   * @return storage of one of models of this package
+   * @throws IllegalArgumentException if model is implemented outside this package
+   */
+  static FormData of(FormModel model) {
+    if (model instanceof FormModelDialog) {
+      return ((FormModelDialog) model).getData();
+    }
+    if (model instanceof FormModelFragment) {
+      return ((FormModelFragment) model).getData();
+    }
+    if (model instanceof JournaledFormModel) {
+      return ((JournaledFormModel) model).getData();
+    }
+    throw new IllegalArgumentException("Unsupported model " + model.getClass());
+  }
+
+  int size() {
+    return mSize;
+  }
+
+  boolean contains(String name) {
+    return mKeys[indexOf(name)] != null;
+  }
+
+  <T> T get(String name, T defaultIfEmpty) {
+    int i = indexOf(name);
+    switch (mTypes[i]) {
+      case TYPE_OBJECT:
+        return (T) mObjects[i];
+      case TYPE_INT:
+        return (T) Integer.valueOf((int) mPrimitives[i]);
+      case TYPE_LONG:
+        return (T) Long.valueOf(mPrimitives[i]);
+      case TYPE_BOOLEAN:
+        return (T) Boolean.valueOf(mPrimitives[i] != 0);
+      default:
+        return defaultIfEmpty;
+    }
+  }
+
+  boolean set(String name, Object value) {
+    if (value instanceof Integer) {
+      return setInt(name, (Integer) value);
+    }
+    if (value instanceof Long) {
+      return setLong(name, (Long) value);
+    }
+    if (value instanceof Boolean) {
+      return setBoolean(name, (Boolean) value);
+    }
+
+    int i = indexOf(name);
+    if (mTypes[i] == TYPE_OBJECT && Objects.equals(mObjects[i], value)) {
+      return false;
+    }
+    i = insert(i, name);
+    mTypes[i] = TYPE_OBJECT;
+    mObjects[i] = value;
+    mPrimitives[i] = 0;
+    mDefaults[i] = false;
+    return true;
+  }
+
+  /**
+   * Method to store a default value if there is no value of name yet
+   * @param name
+   * @param value
+   * @return true if value is stored
+   */
+  boolean setDefault(String name, Object value) {
+    if (contains(name)) {
+      return false;
+    }
+    set(name, value);
+    mDefaults[indexOf(name)] = true;
+    return true;
+  }
+
+  /**
+   * Method to mark value of name as changed in place, so it is no longer default
+   * @param name
+   */
+  void markChanged(String name) {
+    int i = indexOf(name);
+    if (mKeys[i] != null) {
+      mDefaults[i] = false;
+    }
+  }
+
+  int getInt(String name, int defaultIfEmpty) {
+    int i = indexOf(name);
+    switch (mTypes[i]) {
+      case TYPE_INT:
+      case TYPE_LONG:
+        return (int) mPrimitives[i];
+      case TYPE_OBJECT:
+        return mObjects[i] instanceof Number ? ((Number) mObjects[i]).intValue() : defaultIfEmpty;
+      default:
+        return defaultIfEmpty;
+    }
+  }
+
+  boolean setInt(String name, int value) {
+    return setPrimitive(name, TYPE_INT, value);
+  }
+
+  long getLong(String name, long defaultIfEmpty) {
+    int i = indexOf(name);
+    switch (mTypes[i]) {
+      case TYPE_INT:
+      case TYPE_LONG:
+        return mPrimitives[i];
+      case TYPE_OBJECT:
+        return mObjects[i] instanceof Number ? ((Number) mObjects[i]).longValue() : defaultIfEmpty;
+      default:
+        return defaultIfEmpty;
+    }
+  }
+
+  boolean setLong(String name, long value) {
+    return setPrimitive(name, TYPE_LONG, value);
+  }
+
+  boolean getBoolean(String name, boolean defaultIfEmpty) {
+    int i = indexOf(name);
+    switch (mTypes[i]) {
+      case TYPE_BOOLEAN:
+        return mPrimitives[i] != 0;
+      case TYPE_OBJECT:
+        return mObjects[i] instanceof Boolean ? (Boolean) mObjects[i] : defaultIfEmpty;
+      default:
+        return defaultIfEmpty;
+    }
+  }
+
+  boolean setBoolean(String name, boolean value) {
+    return setPrimitive(name, TYPE_BOOLEAN, value ? 1 : 0);
+  }
+
+  private boolean setPrimitive(String name, byte type, long value) {
+    int i = indexOf(name);
+    if (mTypes[i] == type && mPrimitives[i] == value) {
+      return false;
+    }
+    i = insert(i, name);
+    mTypes[i] = type;
+    mPrimitives[i] = value;
+    mObjects[i] = null;
+    mDefaults[i] = false;
+    return true;
+  }
+
+  /**
+   * @param name
+   * @return slot of name, or the empty slot it would be stored in
+   */
+  private int indexOf(String name) {
+    int mask = mKeys.length - 1;
+    int i = hash(name) & mask;
+    while (mKeys[i] != null && !mKeys[i].equals(name)) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /**
+   * Method to make sure name is stored in table
+   * @param i slot returned by {@link #indexOf(String)}
+   * @param name
+   * @return slot of name, it is changed if table is grown
+   */
+  private int insert(int i, String name) {
+    if (mKeys[i] != null) {
+      return i;
+    }
+    // Keep load factor under 3/4 so probing stays short
+    if ((mSize + 1) * 4 > mKeys.length * 3) {
+      grow();
+      i = indexOf(name);
+    }
+    mKeys[i] = name;
+    mSize++;
+    return i;
+  }
+
+  private void grow() {
+    String[] keys = mKeys;
+    byte[] types = mTypes;
+    long[] primitives = mPrimitives;
+    Object[] objects = mObjects;
+    boolean[] defaults = mDefaults;
+
+    int capacity = keys.length * 2;
+    mKeys = new String[capacity];
+    mTypes = new byte[capacity];
+    mPrimitives = new long[capacity];
+    mObjects = new Object[capacity];
+    mDefaults = new boolean[capacity];
+    for (int j = 0; j < keys.length; j++) {
+      if (keys[j] != null) {
+        int i = indexOf(keys[j]);
+        mKeys[i] = keys[j];
+        mTypes[i] = types[j];
+        mPrimitives[i] = primitives[j];
+        mObjects[i] = objects[j];
+        mDefaults[i] = defaults[j];
+      }
+    }
+  }
+
+  //region Slots, used to iterate values
+  /**
+   * @param name
+   * @return slot of name or -1 if there is no value of name
+   */
+  int slotOf(String name) {
+    int i = indexOf(name);
+    return mKeys[i] != null ? i : -1;
+  }
+
+  int capacity() {
+    return mKeys.length;
+  }
+
+  String keyAt(int i) {
+    return mKeys[i];
+  }
+
+  byte typeAt(int i) {
+    return mTypes[i];
+  }
+
+  long primitiveAt(int i) {
+    return mPrimitives[i];
+  }
+
+  Object objectAt(int i) {
+    return mObjects[i];
+  }
+
+  boolean isDefaultAt(int i) {
+    return mDefaults[i];
+  }
+  //endregion
+
+  private static int hash(String name) {
+    int h = name.hashCode();
+    return h ^ (h >>> 16);
+  }
+}
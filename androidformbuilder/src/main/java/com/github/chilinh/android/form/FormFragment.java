@@ -43,10 +43,21 @@ public abstract class FormFragment extends Fragment implements Callback.Submit<F
     return inflater.inflate(R.layout.base_form_fragment, container, false);
   }
 
+  private Form mForm;
+
   @Override
   public void onViewCreated(View view, @Nullable Bundle savedInstanceState) {
     super.onViewCreated(view, savedInstanceState);
-    Form form = createForm();
-    form.buildToFragment(this, this);
+    mForm = createForm();
+    mForm.buildToFragment(this, this);
+  }
+
+  @Override
+  public void onDestroyView() {
+    if (mForm != null) {
+      mForm.releaseViews();
+      mForm = null;
+    }
+    super.onDestroyView();
   }
 }
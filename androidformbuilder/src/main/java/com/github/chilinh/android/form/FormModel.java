@@ -32,6 +32,18 @@ import java.util.Observer;
  */
 public interface FormModel {
 
+  /**
+   * Listener of changes of form model
+   */
+  interface OnChangeListener {
+    /**
+     * Will call on main thread when value of a field is changed
+     * @param model
+     * @param name of field
+     */
+    void onChanged(FormModel model, String name);
+  }
+
   /**
    * Method to get data by name
    * @param name
@@ -58,16 +70,152 @@ public interface FormModel {
   FormModel set(String name, Object value);
 
   /**
-   * Method to add observer to this form model
+   * @param name
+   * @return true if model has a value of name, even a null one
+   */
+  boolean contains(String name);
+
+  /**
+   * Method to set initial value of a field if it has no value yet, e.g. a value restored from
+   * saved state is kept. A default value is not saved in instance state until it is changed
+   * @param name
+   * @param value
+   * @return
+   */
+  FormModel setDefault(String name, Object value);
+
+  /**
+   * Method to notify listeners that value of a field is changed in place, e.g. a mutable
+   * text, without comparing or replacing it
+   * @param name
+   * @return
+   */
+  FormModel notifyChanged(String name);
+
+  /**
+   * Method to get int value by name without boxing
+   * @param name
+   * @param defaultIfEmpty
+   * @return
+   */
+  int getInt(String name, int defaultIfEmpty);
+
+  /**
+   * Method to set int value by name without boxing
+   * @param name
+   * @param value
+   * @return
+   */
+  FormModel setInt(String name, int value);
+
+  /**
+   * Method to get long value by name without boxing
+   * @param name
+   * @param defaultIfEmpty
+   * @return
+   */
+  long getLong(String name, long defaultIfEmpty);
+
+  /**
+   * Method to set long value by name without boxing
+   * @param name
+   * @param value
+   * @return
+   */
+  FormModel setLong(String name, long value);
+
+  /**
+   * Method to get boolean value by name without boxing
+   * @param name
+   * @param defaultIfEmpty
+   * @return
+   */
+  boolean getBoolean(String name, boolean defaultIfEmpty);
+
+  /**
+   * Method to set boolean value by name without boxing
+   * @param name
+   * @param value
+   * @return
+   */
+  FormModel setBoolean(String name, boolean value);
+
+  /**
+   * Method to start a batch of changes. Values are written at once but listeners are only
+   * notified when the batch is committed, once for each changed field. Batches can be nested
+   * @return
+   */
+  FormModel beginBatch();
+
+  /**
+   * Method to end a batch started by {@link #beginBatch()}
+   * @return
+   */
+  FormModel commitBatch();
+
+  /**
+   * Method to run changes in a batch, see {@link #beginBatch()}
+   * @param changes
+   * @return
+   */
+  FormModel batch(Runnable changes);
+
+  /**
+   * Method to add listener of a field, it is only notified when that field is changed
+   * @param name of field
+   * @param listener
+   * @return
+   */
+  FormModel addListener(String name, OnChangeListener listener);
+
+  /**
+   * Method to add listener of a field
+   * @param name of field
+   * @param listener
+   * @param weak true to hold listener by a weak reference, so it does not keep its owner alive
+   *             when the model outlives it
+   * @return
+   */
+  FormModel addListener(String name, OnChangeListener listener, boolean weak);
+
+  /**
+   * Method to remove listener of a field
+   * @param name of field
+   * @param listener
+   * @return
+   */
+  FormModel removeListener(String name, OnChangeListener listener);
+
+  /**
+   * Method to add listener which is notified when any field is changed
+   * @param listener
+   * @return
+   */
+  FormModel addListener(OnChangeListener listener);
+
+  /**
+   * Method to remove listener added by {@link #addListener(OnChangeListener)}
+   * @param listener
+   * @return
+   */
+  FormModel removeListener(OnChangeListener listener);
+
+  /**
+   * Method to add observer to this form model, it is notified with an {@link java.util.Observable}
+   * which is the same for all changes of this model, and name of changed field
    * @param observer
    * @return
+   * @deprecated use {@link #addListener(String, OnChangeListener)}
    */
+  @Deprecated
   FormModel addObserver(Observer observer);
 
   /**
    * Method to remove observer from this form model
    * @param observer
    * @return
+   * @deprecated use {@link #removeListener(String, OnChangeListener)}
    */
+  @Deprecated
   FormModel removeObserver(Observer observer);
-}
\ No newline at end of file
+}
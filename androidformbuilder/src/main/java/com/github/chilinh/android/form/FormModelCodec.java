@@ -0,0 +1,427 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Date;
+
+/**
+ * Compact binary encoding of form values, used to save models in instance state and in draft
+ * journals. Only values which are not default and not null are written, each as a type tag,
+ * name and value; numbers are written as variable length integers. Values which would make
+ * encoded data exceed a size limit are dropped, so saved state can't cause a
+ * TransactionTooLargeException.
+ * A journal is a header followed by entries appended one by one, without end tag
+ */
+final class FormModelCodec {
+
+  private static final String TAG = "FormModelCodec";
+  private static final boolean DEBUG = true;
+
+  /**
+   * Default max size of encoded data in bytes
+   */
+  static final int DEFAULT_MAX_SIZE = 64 * 1024;
+
+  private static final byte VERSION = 1;
+
+  private static final byte TAG_END = 0;
+  private static final byte TAG_STRING = 1;
+  private static final byte TAG_INT = 2;
+  private static final byte TAG_LONG = 3;
+  private static final byte TAG_TRUE = 4;
+  private static final byte TAG_FALSE = 5;
+  private static final byte TAG_DATE = 6;
+  private static final byte TAG_DOUBLE = 7;
+  private static final byte TAG_NULL = 8;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /**
+   * Result of {@link #readEntryValue(ByteBuffer, String)} when entry has another name
+   */
+  static final Object NO_VALUE = new Object();
+
+  private FormModelCodec() {
+  }
+
+  /**
+   * Method to encode values of form data
+   * @param data
+   * @param maxSize max size of result in bytes
+   * @return
+   */
+  static byte[] encode(FormData data, int maxSize) {
+    Buffer buffer = new Buffer(256);
+    buffer.writeByte(VERSION);
+    // Keep one byte for end tag
+    writeValues(buffer, data, maxSize - 1);
+    buffer.writeByte(TAG_END);
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Method to encode values of form data as a journal, entries can be appended to it
+   * @param data
+   * @return
+   */
+  static byte[] encodeJournal(FormData data) {
+    Buffer buffer = new Buffer(256);
+    buffer.writeByte(VERSION);
+    writeValues(buffer, data, Integer.MAX_VALUE);
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Method to encode a value as an entry of journal, null value is written too
+   * @param data
+   * @param name
+   * @return null if value is not supported
+   */
+  static byte[] encodeEntry(FormData data, String name) {
+    Buffer buffer = new Buffer(32);
+    int i = data.slotOf(name);
+    if (i < 0 || data.typeAt(i) == FormData.TYPE_OBJECT && data.objectAt(i) == null) {
+      buffer.writeByte(TAG_NULL);
+      buffer.writeString(name);
+    } else if (!writeValue(buffer, data, i)) {
+      return null;
+    }
+    return buffer.toByteArray();
+  }
+
+  private static void writeValues(Buffer buffer, FormData data, int maxSize) {
+    for (int i = 0; i < data.capacity(); i++) {
+      String name = data.keyAt(i);
+      if (name == null || data.isDefaultAt(i)) {
+        continue;
+      }
+      int start = buffer.position;
+      if (!writeValue(buffer, data, i)) {
+        continue;
+      }
+      if (buffer.position > maxSize) {
+        if (DEBUG) {
+          Log.w(TAG, "encode: value of " + name + " is dropped, size limit " + maxSize + " is exceeded");
+        }
+        buffer.position = start;
+      }
+    }
+  }
+
+  private static boolean writeValue(Buffer buffer, FormData data, int i) {
+    String name = data.keyAt(i);
+    switch (data.typeAt(i)) {
+      case FormData.TYPE_INT:
+        buffer.writeByte(TAG_INT);
+        buffer.writeString(name);
+        buffer.writeVarLong(data.primitiveAt(i));
+        return true;
+      case FormData.TYPE_LONG:
+        buffer.writeByte(TAG_LONG);
+        buffer.writeString(name);
+        buffer.writeVarLong(data.primitiveAt(i));
+        return true;
+      case FormData.TYPE_BOOLEAN:
+        buffer.writeByte(data.primitiveAt(i) != 0 ? TAG_TRUE : TAG_FALSE);
+        buffer.writeString(name);
+        return true;
+      case FormData.TYPE_OBJECT:
+        Object value = data.objectAt(i);
+        if (value instanceof CharSequence) {
+          buffer.writeByte(TAG_STRING);
+          buffer.writeString(name);
+          buffer.writeString(value.toString());
+          return true;
+        }
+        if (value instanceof Date) {
+          buffer.writeByte(TAG_DATE);
+          buffer.writeString(name);
+          buffer.writeVarLong(((Date) value).getTime());
+          return true;
+        }
+        if (value instanceof Double || value instanceof Float) {
+          buffer.writeByte(TAG_DOUBLE);
+          buffer.writeString(name);
+          buffer.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+          return true;
+        }
+        if (value != null && DEBUG) {
+          Log.w(TAG, "encode: value of " + name + " is not supported: " + value.getClass());
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Method to set encoded values to model, in one batch
+   * @param bytes
+   * @param model
+   * @throws IllegalArgumentException if data is malformed
+   */
+  static void decode(byte[] bytes, FormModel model) {
+    Reader reader = new Reader(ByteBuffer.wrap(bytes));
+    if (reader.readByte() != VERSION) {
+      throw new IllegalArgumentException("Unknown version of form data");
+    }
+    model.beginBatch();
+    try {
+      while (readEntry(reader, model)) {
+      }
+    } finally {
+      model.commitBatch();
+    }
+  }
+
+  /**
+   * Method to set values of a journal to model, in one batch. A journal may end with an entry
+   * which was not completely written, it is ignored
+   * @param bytes
+   * @param model
+   * @return length of complete entries, new entries should be written from there
+   * @throws IllegalArgumentException if journal is malformed
+   */
+  static int decodeJournal(byte[] bytes, FormModel model) {
+    Reader reader = new Reader(ByteBuffer.wrap(bytes));
+    if (bytes.length == 0) {
+      return 0;
+    }
+    if (reader.readByte() != VERSION) {
+      throw new IllegalArgumentException("Unknown version of form data");
+    }
+    int end = reader.buffer.position();
+    model.beginBatch();
+    try {
+      while (reader.buffer.hasRemaining()) {
+        if (!readEntry(reader, model)) {
+          break;
+        }
+        end = reader.buffer.position();
+      }
+    } catch (IllegalArgumentException e) {
+      if (DEBUG) {
+        Log.w(TAG, "decodeJournal: last entry is incomplete", e);
+      }
+    } finally {
+      model.commitBatch();
+    }
+    return end;
+  }
+
+  /**
+   * Method to set value of an entry to model, entry is read from current position of buffer
+   * @param buffer
+   * @param model
+   * @throws IllegalArgumentException if entry is malformed
+   */
+  static void readEntry(ByteBuffer buffer, FormModel model) {
+    readEntry(new Reader(buffer), model);
+  }
+
+  /**
+   * Method to read value of an entry from current position of buffer
+   * @param buffer
+   * @param name expected name of entry
+   * @return value, {@link #NO_VALUE} if entry has another name
+   * @throws IllegalArgumentException if entry is malformed
+   */
+  static Object readEntryValue(ByteBuffer buffer, String name) {
+    Reader reader = new Reader(buffer);
+    byte tag = reader.readByte();
+    if (!name.equals(reader.readString())) {
+      return NO_VALUE;
+    }
+    switch (tag) {
+      case TAG_STRING:
+        return reader.readString();
+      case TAG_INT:
+        return (int) reader.readVarLong();
+      case TAG_LONG:
+        return reader.readVarLong();
+      case TAG_TRUE:
+      case TAG_FALSE:
+        return tag == TAG_TRUE;
+      case TAG_DATE:
+        return new Date(reader.readVarLong());
+      case TAG_DOUBLE:
+        return Double.longBitsToDouble(reader.readLong());
+      case TAG_NULL:
+        return null;
+      default:
+        throw new IllegalArgumentException("Unknown tag " + tag);
+    }
+  }
+
+  /**
+   * @return false if end tag is read
+   */
+  private static boolean readEntry(Reader reader, FormModel model) {
+    byte tag = reader.readByte();
+    if (tag == TAG_END) {
+      return false;
+    }
+    String name = reader.readString();
+    switch (tag) {
+      case TAG_STRING:
+        model.set(name, reader.readString());
+        break;
+      case TAG_INT:
+        model.setInt(name, (int) reader.readVarLong());
+        break;
+      case TAG_LONG:
+        model.setLong(name, reader.readVarLong());
+        break;
+      case TAG_TRUE:
+      case TAG_FALSE:
+        model.setBoolean(name, tag == TAG_TRUE);
+        break;
+      case TAG_DATE:
+        model.set(name, new Date(reader.readVarLong()));
+        break;
+      case TAG_DOUBLE:
+        model.set(name, Double.longBitsToDouble(reader.readLong()));
+        break;
+      case TAG_NULL:
+        model.set(name, null);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown tag " + tag);
+    }
+    return true;
+  }
+
+  private static final class Buffer {
+    byte[] bytes;
+    int position;
+
+    Buffer(int capacity) {
+      bytes = new byte[capacity];
+    }
+
+    void writeByte(int b) {
+      ensure(1);
+      bytes[position++] = (byte) b;
+    }
+
+    /**
+     * Zigzag encoded, so small negative numbers are short too
+     */
+    void writeVarLong(long value) {
+      long v = (value << 1) ^ (value >> 63);
+      ensure(10);
+      while ((v & ~0x7FL) != 0) {
+        bytes[position++] = (byte) ((v & 0x7F) | 0x80);
+        v >>>= 7;
+      }
+      bytes[position++] = (byte) v;
+    }
+
+    void writeLong(long value) {
+      ensure(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeString(String value) {
+      byte[] utf8 = value.getBytes(UTF_8);
+      writeVarLong(utf8.length);
+      ensure(utf8.length);
+      System.arraycopy(utf8, 0, bytes, position, utf8.length);
+      position += utf8.length;
+    }
+
+    private void ensure(int count) {
+      if (position + count > bytes.length) {
+        byte[] newBytes = new byte[Math.max(bytes.length * 2, position + count)];
+        System.arraycopy(bytes, 0, newBytes, 0, position);
+        bytes = newBytes;
+      }
+    }
+
+    byte[] toByteArray() {
+      byte[] result = new byte[position];
+      System.arraycopy(bytes, 0, result, 0, position);
+      return result;
+    }
+  }
+
+  private static final class Reader {
+    final ByteBuffer buffer;
+
+    Reader(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    byte readByte() {
+      if (!buffer.hasRemaining()) {
+        throw new IllegalArgumentException("Unexpected end of form data");
+      }
+      return buffer.get();
+    }
+
+    long readVarLong() {
+      long v = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = readByte();
+        v |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return (v >>> 1) ^ -(v & 1);
+        }
+      }
+      throw new IllegalArgumentException("Malformed number in form data");
+    }
+
+    long readLong() {
+      if (buffer.remaining() < 8) {
+        throw new IllegalArgumentException("Unexpected end of form data");
+      }
+      return buffer.getLong();
+    }
+
+    String readString() {
+      long length = readVarLong();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new IllegalArgumentException("Malformed string in form data");
+      }
+      String value;
+      if (buffer.hasArray()) {
+        value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), (int) length, UTF_8);
+        buffer.position(buffer.position() + (int) length);
+      } else {
+        // e.g. a mapped file
+        byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        value = new String(bytes, UTF_8);
+      }
+      return value;
+    }
+  }
+}
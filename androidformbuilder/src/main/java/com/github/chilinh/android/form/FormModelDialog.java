@@ -24,25 +24,39 @@
 
 package com.github.chilinh.android.form;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Observable;
 import java.util.Observer;
 
 /**
  * Created by Linh on 11/10/16.
  */
 public final class FormModelDialog implements FormModel {
-  private final Observable mObservable = new Observable();
-  private final Map<String, Object> mData = new HashMap<>();
+  private final ListenerRegistry mListeners = new ListenerRegistry();
+  private final FormData mData = new FormData();
+
+  FormData getData() {
+    return mData;
+  }
+
+  /**
+   * Method to encode values which are not default
+   * @param maxSize in bytes
+   * @return
+   */
+  byte[] saveState(int maxSize) {
+    return FormModelCodec.encode(mData, maxSize);
+  }
+
+  /**
+   * Method to set values encoded by {@link #saveState(int)}
+   * @param state
+   */
+  void restoreState(byte[] state) {
+    FormModelCodec.decode(state, this);
+  }
 
   @Override
   public <T> T get(String name, T defaultIfEmpty) {
-    if (mData.containsKey(name)) {
-      return (T) mData.get(name);
-    }
-    return defaultIfEmpty;
+    return mData.get(name, defaultIfEmpty);
   }
 
   @Override
@@ -52,26 +66,130 @@ public final class FormModelDialog implements FormModel {
 
   @Override
   public FormModel set(String name, Object value) {
-    Object old = null;
-    if (mData.containsKey(name)) {
-      old = mData.get(name);
+    if (mData.set(name, value)) {
+      mListeners.notifyChanged(this, name);
     }
-    if (!Objects.equals(old, value)) {
-      mData.put(name, value);
-      mObservable.notifyObservers(name);
+    return this;
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return mData.contains(name);
+  }
+
+  @Override
+  public FormModel setDefault(String name, Object value) {
+    if (mData.setDefault(name, value)) {
+      mListeners.notifyChanged(this, name);
     }
     return this;
   }
 
   @Override
-  public FormModel addObserver(Observer observer) {
-    mObservable.addObserver(observer);
+  public FormModel notifyChanged(String name) {
+    mData.markChanged(name);
+    mListeners.notifyChanged(this, name);
     return this;
   }
 
   @Override
-  public FormModel removeObserver(Observer observer) {
-    mObservable.deleteObserver(observer);
+  public int getInt(String name, int defaultIfEmpty) {
+    return mData.getInt(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setInt(String name, int value) {
+    if (mData.setInt(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public long getLong(String name, long defaultIfEmpty) {
+    return mData.getLong(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setLong(String name, long value) {
+    if (mData.setLong(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public boolean getBoolean(String name, boolean defaultIfEmpty) {
+    return mData.getBoolean(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setBoolean(String name, boolean value) {
+    if (mData.setBoolean(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public FormModel beginBatch() {
+    mListeners.beginBatch();
+    return this;
+  }
+
+  @Override
+  public FormModel commitBatch() {
+    mListeners.commitBatch(this);
+    return this;
+  }
+
+  @Override
+  public FormModel batch(Runnable changes) {
+    beginBatch();
+    try {
+      changes.run();
+    } finally {
+      commitBatch();
+    }
+    return this;
+  }
+
+  @Override
+  public FormModel addListener(String name, OnChangeListener listener) {
+    return addListener(name, listener, false);
+  }
+
+  @Override
+  public FormModel addListener(String name, OnChangeListener listener, boolean weak) {
+    mListeners.add(name, listener, weak);
+    return this;
+  }
+
+  @Override
+  public FormModel removeListener(String name, OnChangeListener listener) {
+    mListeners.remove(name, listener);
+    return this;
+  }
+
+  @Override
+  public FormModel addListener(OnChangeListener listener) {
+    mListeners.add(null, listener, false);
     return this;
   }
+
+  @Override
+  public FormModel removeListener(OnChangeListener listener) {
+    mListeners.remove(null, listener);
+    return this;
+  }
+
+  @Override
+  public FormModel addObserver(Observer observer) {
+    return addListener(mListeners.observerListener(observer));
+  }
+
+  @Override
+  public FormModel removeObserver(Observer observer) {
+    return removeListener(mListeners.observerListener(observer));
+  }
 }
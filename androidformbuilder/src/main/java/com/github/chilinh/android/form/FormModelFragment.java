@@ -28,11 +28,8 @@ import android.os.Bundle;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentManager;
+import android.util.Log;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Observable;
 import java.util.Observer;
 
 /**
@@ -40,6 +37,7 @@ import java.util.Observer;
  */
 public final class FormModelFragment extends Fragment implements FormModel {
 
+  private static final String TAG = "FormModelFragment";
   private static final String FORM_DATA_TAG = "#android_form_data";
 
   static FormModelFragment initIfNeed(FragmentManager fm) {
@@ -51,21 +49,48 @@ public final class FormModelFragment extends Fragment implements FormModel {
     return formModel;
   }
 
+  private static final String STATE_DATA = "#android_form_data_state";
+
+  private final ListenerRegistry mListeners = new ListenerRegistry();
+  private final FormData mData = new FormData();
+
+  FormData getData() {
+    return mData;
+  }
+  private int mMaxSavedStateSize = FormModelCodec.DEFAULT_MAX_SIZE;
+
   @Override
   public void onCreate(@Nullable Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
     setRetainInstance(true);
+    byte[] state = savedInstanceState == null ? null : savedInstanceState.getByteArray(STATE_DATA);
+    if (state != null) {
+      // Process was killed, retained values are gone
+      try {
+        FormModelCodec.decode(state, this);
+      } catch (IllegalArgumentException e) {
+        Log.w(TAG, "onCreate: can not restore form data", e);
+      }
+    }
   }
 
-  private final Observable mObservable = new Observable();
-  private final Map<String, Object> mData = new HashMap<>();
+  @Override
+  public void onSaveInstanceState(Bundle outState) {
+    super.onSaveInstanceState(outState);
+    outState.putByteArray(STATE_DATA, FormModelCodec.encode(mData, mMaxSavedStateSize));
+  }
+
+  /**
+   * Method to set max size of values saved in instance state
+   * @param maxSize in bytes
+   */
+  void setMaxSavedStateSize(int maxSize) {
+    mMaxSavedStateSize = maxSize;
+  }
 
   @Override
   public <T> T get(String name, T defaultIfEmpty) {
-    if (mData.containsKey(name)) {
-      return (T) mData.get(name);
-    }
-    return defaultIfEmpty;
+    return mData.get(name, defaultIfEmpty);
   }
 
   @Override
@@ -75,26 +100,130 @@ public final class FormModelFragment extends Fragment implements FormModel {
 
   @Override
   public FormModel set(String name, Object value) {
-    Object old = null;
-    if (mData.containsKey(name)) {
-      old = mData.get(name);
+    if (mData.set(name, value)) {
+      mListeners.notifyChanged(this, name);
     }
-    if (!Objects.equals(old, value)) {
-      mData.put(name, value);
-      mObservable.notifyObservers(name);
+    return this;
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return mData.contains(name);
+  }
+
+  @Override
+  public FormModel setDefault(String name, Object value) {
+    if (mData.setDefault(name, value)) {
+      mListeners.notifyChanged(this, name);
     }
     return this;
   }
 
   @Override
-  public FormModel addObserver(Observer observer) {
-    mObservable.addObserver(observer);
+  public FormModel notifyChanged(String name) {
+    mData.markChanged(name);
+    mListeners.notifyChanged(this, name);
     return this;
   }
 
   @Override
-  public FormModel removeObserver(Observer observer) {
-    mObservable.deleteObserver(observer);
+  public int getInt(String name, int defaultIfEmpty) {
+    return mData.getInt(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setInt(String name, int value) {
+    if (mData.setInt(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public long getLong(String name, long defaultIfEmpty) {
+    return mData.getLong(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setLong(String name, long value) {
+    if (mData.setLong(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public boolean getBoolean(String name, boolean defaultIfEmpty) {
+    return mData.getBoolean(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setBoolean(String name, boolean value) {
+    if (mData.setBoolean(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
     return this;
   }
+
+  @Override
+  public FormModel beginBatch() {
+    mListeners.beginBatch();
+    return this;
+  }
+
+  @Override
+  public FormModel commitBatch() {
+    mListeners.commitBatch(this);
+    return this;
+  }
+
+  @Override
+  public FormModel batch(Runnable changes) {
+    beginBatch();
+    try {
+      changes.run();
+    } finally {
+      commitBatch();
+    }
+    return this;
+  }
+
+  @Override
+  public FormModel addListener(String name, OnChangeListener listener) {
+    return addListener(name, listener, false);
+  }
+
+  @Override
+  public FormModel addListener(String name, OnChangeListener listener, boolean weak) {
+    mListeners.add(name, listener, weak);
+    return this;
+  }
+
+  @Override
+  public FormModel removeListener(String name, OnChangeListener listener) {
+    mListeners.remove(name, listener);
+    return this;
+  }
+
+  @Override
+  public FormModel addListener(OnChangeListener listener) {
+    mListeners.add(null, listener, false);
+    return this;
+  }
+
+  @Override
+  public FormModel removeListener(OnChangeListener listener) {
+    mListeners.remove(null, listener);
+    return this;
+  }
+
+  @Override
+  public FormModel addObserver(Observer observer) {
+    return addListener(mListeners.observerListener(observer));
+  }
+
+  @Override
+  public FormModel removeObserver(Observer observer) {
+    return removeListener(mListeners.observerListener(observer));
+  }
 }
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import com.github.chilinh.android.form.element.BaseFormElement;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of element views which can be shared between forms, views are keyed by
+ * {@link BaseFormElement#getViewType()}.
+ *
+ * Views keep a reference to the context they are created with, so a pool should live no longer
+ * than that context, e.g. hold it in an activity and pass it to every form built from there
+ * with {@link Form.Builder#viewPool(FormViewPool)}. All methods are thread-safe.
+ */
+public final class FormViewPool {
+
+  public static final int DEFAULT_MAX_PER_TYPE = 32;
+
+  private final int mMaxPerType;
+  private final Map<Object, ArrayDeque<View>> mViews = new HashMap<>();
+
+  public FormViewPool() {
+    this(DEFAULT_MAX_PER_TYPE);
+  }
+
+  /**
+   * Constructor
+   * @param maxPerType max number of views kept for each view type
+   */
+  public FormViewPool(int maxPerType) {
+    if (maxPerType < 0) {
+      throw new IllegalArgumentException("maxPerType must not be negative");
+    }
+    mMaxPerType = maxPerType;
+  }
+
+  /**
+   * Method to take a view out of this pool
+   * @param context the view must be created with
+   * @param viewType key of view type
+   * @return a recycled view or null if there is none
+   */
+  public synchronized View acquire(Context context, Object viewType) {
+    if (viewType == null) {
+      return null;
+    }
+    ArrayDeque<View> views = mViews.get(viewType);
+    if (views == null) {
+      return null;
+    }
+    View view;
+    while ((view = views.poll()) != null) {
+      if (view.getContext() == context) {
+        return view;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Method to give a view back to this pool, the view is removed from its parent
+   * @param viewType key of view type
+   * @param view which is not bound to any element
+   * @return true if view is kept, false if the pool of this type is full
+   */
+  public synchronized boolean release(Object viewType, View view) {
+    if (viewType == null || view == null) {
+      return false;
+    }
+    ArrayDeque<View> views = mViews.get(viewType);
+    if (views == null) {
+      views = new ArrayDeque<>();
+      mViews.put(viewType, views);
+    }
+    if (views.size() >= mMaxPerType) {
+      return false;
+    }
+    ViewParent parent = view.getParent();
+    if (parent instanceof ViewGroup) {
+      ((ViewGroup) parent).removeView(view);
+    }
+    views.push(view);
+    return true;
+  }
+
+  /**
+   * @param viewType key of view type
+   * @return number of views of that type in this pool
+   */
+  public synchronized int size(Object viewType) {
+    ArrayDeque<View> views = mViews.get(viewType);
+    return views == null ? 0 : views.size();
+  }
+
+  /**
+   * Method to drop all views of this pool
+   */
+  public synchronized void clear() {
+    mViews.clear();
+  }
+}
@@ -0,0 +1,463 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Observer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link FormModel} which keeps a draft of its values in a journal file, so they survive
+ * crashes and reboots. Each change is appended to the journal by a background writer, which
+ * writes changes in batches and syncs the file to disk at most once per sync interval, so main
+ * thread never waits for disk. When enough changes have been appended, the journal is compacted
+ * to a snapshot of current values.
+ * Values of the journal are replayed when the model is created, use it with
+ * {@link Form.Builder#model(FormModel)} so a form resumes where user stopped.
+ * Must be used on main thread
+ */
+public final class JournaledFormModel implements FormModel {
+
+  private static final String TAG = "JournaledFormModel";
+  private static final boolean DEBUG = true;
+
+  public static final long DEFAULT_SYNC_INTERVAL_MS = 1000;
+  public static final int DEFAULT_COMPACT_THRESHOLD = 256;
+
+  private final ListenerRegistry mListeners = new ListenerRegistry();
+  private final FormData mData = new FormData();
+
+  FormData getData() {
+    return mData;
+  }
+
+  private final File mFile;
+  private final long mSyncIntervalMs;
+  private final int mCompactThreshold;
+  private final ScheduledExecutorService mWriter;
+
+  /**
+   * Pending journal writes, a null entry means the journal is deleted. Guarded by itself
+   */
+  private final List<byte[]> mPending = new ArrayList<>();
+  private boolean mFlushScheduled;
+  private byte[] mPendingSnapshot;
+  private int mEntryCount;
+  private boolean mReplaying;
+
+  /**
+   * Writer state, only used on writer thread
+   */
+  private FileOutputStream mOutput;
+  private long mValidLength;
+
+  /**
+   * Constructor with default sync interval and compact threshold
+   * @param file of journal, it is created if not exists
+   */
+  public JournaledFormModel(File file) {
+    this(file, DEFAULT_SYNC_INTERVAL_MS, DEFAULT_COMPACT_THRESHOLD);
+  }
+
+  /**
+   * Constructor, values in journal are read at once, for a big journal create model outside
+   * main thread
+   * @param file of journal, it is created if not exists
+   * @param syncIntervalMs max time changes wait before they are written and synced to disk
+   * @param compactThreshold number of appended changes after which journal is compacted
+   */
+  public JournaledFormModel(File file, long syncIntervalMs, int compactThreshold) {
+    mFile = file;
+    mSyncIntervalMs = syncIntervalMs;
+    mCompactThreshold = compactThreshold;
+    mWriter = new ScheduledThreadPoolExecutor(1, (r) -> {
+      Thread thread = new Thread(r, "FormJournal");
+      thread.setDaemon(true);
+      return thread;
+    });
+    replay();
+  }
+
+  private void replay() {
+    if (!mFile.exists()) {
+      return;
+    }
+    mReplaying = true;
+    try {
+      byte[] bytes = readFile(mFile);
+      mValidLength = FormModelCodec.decodeJournal(bytes, this);
+      mEntryCount = mData.size();
+    } catch (IOException | IllegalArgumentException e) {
+      Log.w(TAG, "replay: can not read journal " + mFile, e);
+      mValidLength = 0;
+    } finally {
+      mReplaying = false;
+    }
+  }
+
+  private static byte[] readFile(File file) throws IOException {
+    FileInputStream input = new FileInputStream(file);
+    try {
+      byte[] bytes = new byte[(int) file.length()];
+      int read = 0;
+      while (read < bytes.length) {
+        int count = input.read(bytes, read, bytes.length - read);
+        if (count < 0) {
+          break;
+        }
+        read += count;
+      }
+      if (read < bytes.length) {
+        byte[] trimmed = new byte[read];
+        System.arraycopy(bytes, 0, trimmed, 0, read);
+        return trimmed;
+      }
+      return bytes;
+    } finally {
+      input.close();
+    }
+  }
+
+  //region Journal
+  private void journal(String name) {
+    if (mReplaying) {
+      return;
+    }
+    byte[] entry = FormModelCodec.encodeEntry(mData, name);
+    if (entry == null) {
+      if (DEBUG) {
+        Log.w(TAG, "journal: value of " + name + " is not supported, it is not saved");
+      }
+      return;
+    }
+    byte[] snapshot = null;
+    if (++mEntryCount >= mCompactThreshold + mData.size()) {
+      snapshot = FormModelCodec.encodeJournal(mData);
+      mEntryCount = mData.size();
+    }
+    synchronized (mPending) {
+      if (snapshot != null) {
+        // Snapshot contains all pending changes
+        mPending.clear();
+        mPendingSnapshot = snapshot;
+      } else {
+        mPending.add(entry);
+      }
+      if (!mFlushScheduled) {
+        mFlushScheduled = true;
+        mWriter.schedule(this::flushPending, mSyncIntervalMs, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Method to write pending changes now, it does not wait for them to be written
+   */
+  public void flush() {
+    synchronized (mPending) {
+      mFlushScheduled = true;
+    }
+    mWriter.execute(this::flushPending);
+  }
+
+  /**
+   * Method to write pending changes and stop the writer, model must not be used after it.
+   * It waits for changes to be written
+   */
+  public void close() {
+    flush();
+    mWriter.execute(this::closeOutput);
+    mWriter.shutdown();
+    try {
+      mWriter.awaitTermination(mSyncIntervalMs + 5000, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Method to delete the draft, e.g. after form is submitted. Values of model are kept
+   */
+  public void discard() {
+    synchronized (mPending) {
+      mPending.clear();
+      mPendingSnapshot = null;
+      mEntryCount = 0;
+    }
+    mWriter.execute(
+      () -> {
+        closeOutput();
+        if (mFile.exists() && !mFile.delete()) {
+          Log.w(TAG, "discard: can not delete journal " + mFile);
+        }
+        mValidLength = 0;
+      }
+    );
+  }
+
+  private void flushPending() {
+    byte[] snapshot;
+    byte[][] entries;
+    synchronized (mPending) {
+      mFlushScheduled = false;
+      snapshot = mPendingSnapshot;
+      mPendingSnapshot = null;
+      entries = mPending.toArray(new byte[mPending.size()][]);
+      mPending.clear();
+    }
+    if (snapshot == null && entries.length == 0) {
+      return;
+    }
+
+    try {
+      if (snapshot != null) {
+        compact(snapshot);
+      }
+      if (entries.length > 0) {
+        FileOutputStream output = openOutput();
+        for (byte[] entry : entries) {
+          output.write(entry);
+          mValidLength += entry.length;
+        }
+        output.getFD().sync();
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "flush: can not write journal " + mFile, e);
+      closeOutput();
+    }
+  }
+
+  /**
+   * Method to replace journal by a snapshot, the snapshot is written to a temporary file which
+   * is renamed to journal, so a crash leaves either old or new journal
+   */
+  private void compact(byte[] snapshot) throws IOException {
+    closeOutput();
+    File temp = new File(mFile.getPath() + ".tmp");
+    FileOutputStream output = new FileOutputStream(temp);
+    try {
+      output.write(snapshot);
+      output.getFD().sync();
+    } finally {
+      output.close();
+    }
+    if (!temp.renameTo(mFile)) {
+      throw new IOException("Can not rename " + temp + " to " + mFile);
+    }
+    mValidLength = snapshot.length;
+  }
+
+  private FileOutputStream openOutput() throws IOException {
+    if (mOutput != null) {
+      return mOutput;
+    }
+    File dir = mFile.getParentFile();
+    if (dir != null && !dir.exists() && !dir.mkdirs()) {
+      throw new IOException("Can not create " + dir);
+    }
+    // Drop an incomplete entry left by a crash, new entries are written after complete ones
+    RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+    try {
+      file.setLength(mValidLength);
+    } finally {
+      file.close();
+    }
+    mOutput = new FileOutputStream(mFile, true);
+    if (mValidLength == 0) {
+      byte[] header = FormModelCodec.encodeJournal(new FormData());
+      mOutput.write(header);
+      mValidLength = header.length;
+    }
+    return mOutput;
+  }
+
+  private void closeOutput() {
+    if (mOutput == null) {
+      return;
+    }
+    try {
+      mOutput.close();
+    } catch (IOException e) {
+      Log.w(TAG, "close: can not close journal " + mFile, e);
+    }
+    mOutput = null;
+  }
+  //endregion
+
+  @Override
+  public <T> T get(String name, T defaultIfEmpty) {
+    return mData.get(name, defaultIfEmpty);
+  }
+
+  @Override
+  public <T> T get(String name) {
+    return get(name, null);
+  }
+
+  @Override
+  public FormModel set(String name, Object value) {
+    if (mData.set(name, value)) {
+      journal(name);
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return mData.contains(name);
+  }
+
+  @Override
+  public FormModel setDefault(String name, Object value) {
+    // Defaults are set again by elements, they are not journaled
+    if (mData.setDefault(name, value)) {
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public FormModel notifyChanged(String name) {
+    mData.markChanged(name);
+    journal(name);
+    mListeners.notifyChanged(this, name);
+    return this;
+  }
+
+  @Override
+  public int getInt(String name, int defaultIfEmpty) {
+    return mData.getInt(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setInt(String name, int value) {
+    if (mData.setInt(name, value)) {
+      journal(name);
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public long getLong(String name, long defaultIfEmpty) {
+    return mData.getLong(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setLong(String name, long value) {
+    if (mData.setLong(name, value)) {
+      journal(name);
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public boolean getBoolean(String name, boolean defaultIfEmpty) {
+    return mData.getBoolean(name, defaultIfEmpty);
+  }
+
+  @Override
+  public FormModel setBoolean(String name, boolean value) {
+    if (mData.setBoolean(name, value)) {
+      journal(name);
+      mListeners.notifyChanged(this, name);
+    }
+    return this;
+  }
+
+  @Override
+  public FormModel beginBatch() {
+    mListeners.beginBatch();
+    return this;
+  }
+
+  @Override
+  public FormModel commitBatch() {
+    mListeners.commitBatch(this);
+    return this;
+  }
+
+  @Override
+  public FormModel batch(Runnable changes) {
+    beginBatch();
+    try {
+      changes.run();
+    } finally {
+      commitBatch();
+    }
+    return this;
+  }
+
+  @Override
+  public FormModel addListener(String name, OnChangeListener listener) {
+    return addListener(name, listener, false);
+  }
+
+  @Override
+  public FormModel addListener(String name, OnChangeListener listener, boolean weak) {
+    mListeners.add(name, listener, weak);
+    return this;
+  }
+
+  @Override
+  public FormModel removeListener(String name, OnChangeListener listener) {
+    mListeners.remove(name, listener);
+    return this;
+  }
+
+  @Override
+  public FormModel addListener(OnChangeListener listener) {
+    mListeners.add(null, listener, false);
+    return this;
+  }
+
+  @Override
+  public FormModel removeListener(OnChangeListener listener) {
+    mListeners.remove(null, listener);
+    return this;
+  }
+
+  @Override
+  public FormModel addObserver(Observer observer) {
+    return addListener(mListeners.observerListener(observer));
+  }
+
+  @Override
+  public FormModel removeObserver(Observer observer) {
+    return removeListener(mListeners.observerListener(observer));
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.Observable;
+import java.util.Observer;
+
+/**
+ * Listeners of form model by field name. Listeners of a field are kept in an array which is
+ * copied when listeners are added or removed, so notifying a change only looks the field up and
+ * walks its array, without allocation and without waking listeners of other fields.
+ * Must be used on main thread
+ */
+final class ListenerRegistry {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  /**
+   * Entries are {@link FormModel.OnChangeListener} or weak references to them
+   */
+  private final Map<String, Object[]> mListeners = new HashMap<>();
+  private Object[] mAllListeners = EMPTY;
+
+  /**
+   * Given to {@link Observer}s as the observable of the model, one per model
+   */
+  private final Observable mObservable = new Observable();
+
+  private int mBatchDepth;
+  private final Set<String> mBatchChanges = new LinkedHashSet<>();
+
+  /**
+   * Method to add listener of a field
+   * @param name of field, null to listen to all fields
+   * @param listener
+   * @param weak true to not keep listener from being garbage collected
+   */
+  void add(String name, FormModel.OnChangeListener listener, boolean weak) {
+    Object[] listeners = get(name);
+    Object[] newListeners = new Object[listeners.length + 1];
+    System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+    newListeners[listeners.length] = weak ? new WeakReference<>(listener) : listener;
+    put(name, newListeners);
+  }
+
+  /**
+   * Method to remove listener of a field, cleared weak listeners are removed too
+   * @param name of field, null for listeners of all fields
+   * @param listener
+   */
+  void remove(String name, FormModel.OnChangeListener listener) {
+    Object[] listeners = get(name);
+    int count = 0;
+    Object[] newListeners = new Object[listeners.length];
+    for (Object entry : listeners) {
+      FormModel.OnChangeListener l = unwrap(entry);
+      if (l != null && !l.equals(listener)) {
+        newListeners[count++] = entry;
+      }
+    }
+    if (count == listeners.length) {
+      return;
+    }
+    Object[] trimmed = new Object[count];
+    System.arraycopy(newListeners, 0, trimmed, 0, count);
+    put(name, trimmed);
+  }
+
+  /**
+   * Method to notify listeners of a field and listeners of all fields
+   * @param model
+   * @param name of changed field
+   */
+  void notifyChanged(FormModel model, String name) {
+    if (mBatchDepth > 0) {
+      mBatchChanges.add(name);
+      return;
+    }
+    Object[] listeners = mListeners.get(name);
+    if (listeners != null && notify(listeners, model, name)) {
+      remove(name, null);
+    }
+    if (notify(mAllListeners, model, name)) {
+      remove(null, null);
+    }
+  }
+
+  /**
+   * Method to start a batch, changes are notified when outermost batch is committed
+   */
+  void beginBatch() {
+    mBatchDepth++;
+  }
+
+  /**
+   * Method to end a batch, when outermost batch ends each changed field is notified once
+   * @param model
+   */
+  void commitBatch(FormModel model) {
+    if (mBatchDepth == 0) {
+      throw new IllegalStateException("No batch to commit");
+    }
+    if (--mBatchDepth > 0 || mBatchChanges.isEmpty()) {
+      return;
+    }
+    String[] names = mBatchChanges.toArray(new String[mBatchChanges.size()]);
+    mBatchChanges.clear();
+    for (String name : names) {
+      notifyChanged(model, name);
+    }
+  }
+
+  /**
+   * @return true if there are weak listeners which have been garbage collected
+   */
+  private static boolean notify(Object[] listeners, FormModel model, String name) {
+    boolean cleared = false;
+    for (Object entry : listeners) {
+      FormModel.OnChangeListener listener = unwrap(entry);
+      if (listener != null) {
+        listener.onChanged(model, name);
+      } else {
+        cleared = true;
+      }
+    }
+    return cleared;
+  }
+
+  private static FormModel.OnChangeListener unwrap(Object entry) {
+    if (entry instanceof WeakReference) {
+      return ((WeakReference<FormModel.OnChangeListener>) entry).get();
+    }
+    return (FormModel.OnChangeListener) entry;
+  }
+
+  /**
+   * @param observer
+   * @return listener which calls observer with the observable of this model
+   */
+  ObserverListener observerListener(Observer observer) {
+    return new ObserverListener(observer, mObservable);
+  }
+
+  private Object[] get(String name) {
+    if (name == null) {
+      return mAllListeners;
+    }
+    Object[] listeners = mListeners.get(name);
+    return listeners == null ? EMPTY : listeners;
+  }
+
+  private void put(String name, Object[] listeners) {
+    if (name == null) {
+      mAllListeners = listeners;
+    } else if (listeners.length == 0) {
+      mListeners.remove(name);
+    } else {
+      mListeners.put(name, listeners);
+    }
+  }
+
+  /**
+   * Adapter of deprecated {@link Observer}, they are equal if they wrap the same observer
+   */
+  static final class ObserverListener implements FormModel.OnChangeListener {
+    private final Observer mObserver;
+    private final Observable mObservable;
+
+    private ObserverListener(Observer observer, Observable observable) {
+      mObserver = observer;
+      mObservable = observable;
+    }
+
+    @Override
+    public void onChanged(FormModel model, String name) {
+      mObserver.update(mObservable, name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ObserverListener && ((ObserverListener) o).mObserver.equals(mObserver);
+    }
+
+    @Override
+    public int hashCode() {
+      return mObserver.hashCode();
+    }
+  }
+}
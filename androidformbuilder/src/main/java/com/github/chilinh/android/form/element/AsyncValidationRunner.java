@@ -0,0 +1,221 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import com.github.chilinh.android.form.validator.AsyncInputValidator;
+import com.github.chilinh.android.form.validator.InputError;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs async validators of an input element. Validation is started when value has not changed
+ * for a delay, results of older values are dropped and results of recent values are cached.
+ * A value without result is reported as pending and validated at once, so it never passes as
+ * valid. Must be used on main thread, except {@link #getError(Object)}
+ */
+final class AsyncValidationRunner {
+
+  static final long DEFAULT_DELAY_MS = 300;
+  static final int DEFAULT_CACHE_SIZE = 32;
+
+  /**
+   * Cached result of valid values and key of null value, {@link LruCache} doesn't accept null
+   */
+  private static final Object NO_ERROR = new Object();
+  private static final Object NULL_VALUE = new Object();
+
+  private final BaseInputElement mElement;
+  private final List<AsyncInputValidator> mValidators = new ArrayList<>();
+  private final Handler mHandler = new Handler(Looper.getMainLooper());
+  private final LruCache<Object, Object> mResults = new LruCache<>(DEFAULT_CACHE_SIZE);
+  private final Runnable mStartPending = () -> start(this.mPendingValue);
+  /**
+   * Keys of values being validated
+   */
+  private final Set<Object> mRunning = new HashSet<>();
+
+  private long mDelayMs = DEFAULT_DELAY_MS;
+  private int mSequence;
+  /**
+   * Changed when validators change, results of older validators are dropped
+   */
+  private int mEpoch;
+  private Object mPendingValue;
+  private Resources mResources;
+  private boolean mShowingError;
+
+  AsyncValidationRunner(BaseInputElement element) {
+    mElement = element;
+  }
+
+  void add(AsyncInputValidator validator) {
+    mValidators.add(validator);
+    reset();
+  }
+
+  void remove(AsyncInputValidator validator) {
+    mValidators.remove(validator);
+    reset();
+  }
+
+  boolean isEmpty() {
+    return mValidators.isEmpty();
+  }
+
+  void setDelay(long delayMs) {
+    mDelayMs = delayMs;
+  }
+
+  /**
+   * Method to validate value after delay, cancels validation of previous value
+   * @param value
+   * @param resources to get message of error
+   */
+  void schedule(Object value, Resources resources) {
+    mResources = resources;
+    mSequence++;
+    mHandler.removeCallbacks(mStartPending);
+
+    Object key = keyOf(value);
+    Object cached = mResults.get(key);
+    if (cached != null) {
+      show(cached);
+      return;
+    }
+    mPendingValue = key;
+    mHandler.postDelayed(mStartPending, mDelayMs);
+  }
+
+  /**
+   * Method to drop pending and running validations
+   */
+  void cancel() {
+    mSequence++;
+    mHandler.removeCallbacks(mStartPending);
+  }
+
+  /**
+   * Method to get result of value, can be called from any thread. A value which has not been
+   * validated yet, or whose result was evicted, is validated at once
+   * @param value
+   * @return error of value, {@link AsyncInputValidator.PendingError} if it is not known yet, or
+   * null if value is valid
+   */
+  InputError getError(Object value) {
+    final Object key = keyOf(value);
+    Object cached = mResults.get(key);
+    if (cached != null) {
+      return cached instanceof InputError ? (InputError) cached : null;
+    }
+    mHandler.post(
+      () -> {
+        if (mResults.get(key) == null) {
+          start(key);
+        }
+      }
+    );
+    return new AsyncInputValidator.PendingError(mElement);
+  }
+
+  private void reset() {
+    cancel();
+    mEpoch++;
+    mRunning.clear();
+    mResults.evictAll();
+  }
+
+  private void start(final Object key) {
+    if (mValidators.isEmpty() || !mRunning.add(key)) {
+      return;
+    }
+    final int sequence = mSequence;
+    final int epoch = mEpoch;
+    final Object value = key == NULL_VALUE ? null : key;
+    final AsyncInputValidator[] validators = mValidators.toArray(new AsyncInputValidator[mValidators.size()]);
+    final InputError[] errors = new InputError[validators.length];
+    final int[] remaining = { validators.length };
+
+    for (int i = 0; i < validators.length; i++) {
+      final int index = i;
+      validators[i].validate(
+        value,
+        mElement,
+        (error) -> mHandler.post(
+          () -> {
+            errors[index] = error;
+            if (--remaining[0] != 0 || epoch != mEpoch) {
+              return;
+            }
+            mRunning.remove(key);
+            Object result = NO_ERROR;
+            for (InputError e : errors) {
+              if (e != null) {
+                result = e;
+                break;
+              }
+            }
+            // Result is still right for its value even if it is outdated
+            mResults.put(key, result);
+            // Last validation of element may have used pending state of this value
+            mElement.onAsyncResult();
+            if (sequence == mSequence) {
+              show(result);
+            }
+          }
+        )
+      );
+    }
+  }
+
+  private void show(Object result) {
+    if (mResources == null) {
+      // Validated on submit before user changed the value, form shows errors of submit
+      return;
+    }
+    if (result instanceof InputError) {
+      mShowingError = true;
+      mElement.setError(((InputError) result).getMessage(mResources));
+    } else if (mShowingError) {
+      // Only clear error shown by this runner
+      mShowingError = false;
+      mElement.setError(null);
+    }
+  }
+
+  private static Object keyOf(Object value) {
+    if (value == null) {
+      return NULL_VALUE;
+    }
+    return value instanceof CharSequence ? value.toString() : value;
+  }
+}
@@ -25,12 +25,15 @@
 package com.github.chilinh.android.form.element;
 
 import android.content.Context;
+import android.graphics.Typeface;
 import android.text.TextUtils;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.widget.TextView;
 
 import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.FormViewPool;
 
 import java.util.UUID;
 
@@ -72,16 +75,43 @@ public abstract class BaseFormElement<T extends BaseFormElement> {
    */
   public abstract void setError(CharSequence message);
 
+  /**
+   * Callback when a view is bound to this element, either a view just created by
+   * {@link #createView(Context)} or a recycled one which has the same {@link #getViewType()}.
+   * All state of this element must be (re)applied to the view here
+   * @param view
+   */
+  protected void onBindView(View view) {
+  }
+
+  /**
+   * Callback when view is about to be unbound from this element, listeners which were set
+   * in {@link #onBindView(View)} should be removed here so the view can be reused
+   * @param view
+   */
+  protected void onUnbindView(View view) {
+  }
+
+  /**
+   * Key of the view recycling type of this element. Elements that return the same key must be
+   * able to bind to views created by each other via {@link #onBindView(View)}
+   * @return key of view type or null if view of this element can not be recycled
+   */
+  public Object getViewType() {
+    return null;
+  }
+
   protected final String mName;
   protected FormModel mModel;
   protected View mView;
+  protected FormViewPool mViewPool;
 
   /**
    * Constructor of form element
    * @param name of this element, if null name will be auto generated
    */
   protected BaseFormElement(String name) {
-    this.mName = TextUtils.isEmpty(name) ? UUID.randomUUID().toString() : name;
+    this.mName = name == null || name.isEmpty() ? UUID.randomUUID().toString() : name;
   }
 
   /**
@@ -90,14 +120,136 @@ public abstract class BaseFormElement<T extends BaseFormElement> {
    * @return builder
    */
   public final T setModel(FormModel model) {
+    if (mModel != null) {
+      mModel.removeListener(mName, mModelListener);
+    }
     this.mModel = model;
     onSetModel(model);
+    if (model != null) {
+      // Weak, a retained model may outlive forms that use it
+      model.addListener(mName, mModelListener, true);
+    }
     if (isViewCreated()) {
-      onModelUpdate();
+      requestRefresh();
+    }
+    return (T) this;
+  }
+
+  private final FormModel.OnChangeListener mModelListener = new FormModel.OnChangeListener() {
+    @Override
+    public void onChanged(FormModel model, String name) {
+      if (isViewCreated()) {
+        requestRefresh();
+      }
+    }
+  };
+
+  boolean mRefreshPending;
+
+  /**
+   * Listener of visibility of an element
+   */
+  public interface OnVisibilityChangeListener {
+    /**
+     * Will call when element is shown or hidden
+     * @param element
+     * @param visible
+     */
+    void onVisibilityChanged(BaseFormElement element, boolean visible);
+  }
+
+  private boolean mVisible = true;
+  private boolean mEnabled = true;
+  /**
+   * False when section of this element is disabled
+   */
+  boolean mParentEnabled = true;
+  private OnVisibilityChangeListener mVisibilityListener;
+
+  /**
+   * Method to show or hide this element, a hidden element is not validated
+   * @param visible
+   * @return builder
+   */
+  public final T visible(boolean visible) {
+    if (mVisible != visible) {
+      mVisible = visible;
+      if (isViewCreated()) {
+        requestRefresh();
+      }
+      if (mVisibilityListener != null) {
+        mVisibilityListener.onVisibilityChanged(this, visible);
+      }
     }
     return (T) this;
   }
 
+  /**
+   * @return false if element is hidden
+   */
+  public final boolean isVisible() {
+    return mVisible;
+  }
+
+  /**
+   * Method to let user edit this element or not
+   * @param enabled
+   * @return builder
+   */
+  public final T enabled(boolean enabled) {
+    if (mEnabled != enabled) {
+      mEnabled = enabled;
+      if (isViewCreated()) {
+        requestRefresh();
+      }
+      onEnabledChanged(enabled);
+    }
+    return (T) this;
+  }
+
+  /**
+   * @return false if element is disabled
+   */
+  public final boolean isEnabled() {
+    return mEnabled;
+  }
+
+  /**
+   * Callback when element is enabled or disabled
+   * @param enabled
+   */
+  void onEnabledChanged(boolean enabled) {
+  }
+
+  public void setOnVisibilityChangeListener(OnVisibilityChangeListener listener) {
+    mVisibilityListener = listener;
+  }
+
+  /**
+   * Method to apply state of this element and values of model to its view now
+   */
+  final void refresh() {
+    applyState(mView);
+    onModelUpdate();
+  }
+
+  /**
+   * Method to apply visibility and enabled state to view
+   * @param view
+   */
+  void applyState(View view) {
+    view.setVisibility(mVisible ? View.VISIBLE : View.GONE);
+    setEnabled(view, mEnabled && mParentEnabled);
+  }
+
+  /**
+   * Method to call {@link #onModelUpdate()} on next frame, requests made before it are merged
+   * into one. See {@link RefreshScheduler}
+   */
+  protected final void requestRefresh() {
+    RefreshScheduler.getInstance().schedule(this);
+  }
+
   /**
    * @return name of this element
    */
@@ -124,20 +276,113 @@ public abstract class BaseFormElement<T extends BaseFormElement> {
    * @param container
    */
   public final void makeView(ViewGroup container) {
+    makeView(container, null);
+  }
+
+  /**
+   * Method to create and attach element's view to container, taking a recycled view from pool
+   * if there is one
+   * @param container
+   * @param pool to take view from, can be null
+   */
+  public final void makeView(ViewGroup container, FormViewPool pool) {
+    mViewPool = pool;
     if (mView == null) {
-      mView = createView(container.getContext());
+      Context context = container.getContext();
+      View view = pool == null ? null : pool.acquire(context, getViewType());
+      bindView(view != null ? view : createView(context));
     }
+    detachFromParent(mView);
     container.addView(mView);
     onViewMake(container);
   }
 
+  /**
+   * Method to unbind view of this element and give it back to pool
+   * @param pool
+   */
+  public final void recycleView(FormViewPool pool) {
+    Object viewType = getViewType();
+    View view = unbindView();
+    if (view != null && viewType != null) {
+      pool.release(viewType, view);
+    }
+  }
+
+  /**
+   * Method to create a new view which can be bound to any element that has the same
+   * {@link #getViewType()} as this element
+   * @param context
+   * @return new view, not bound to any element
+   */
+  public final View createRecyclableView(Context context) {
+    if (getViewType() == null) {
+      throw new IllegalStateException("View of this element can not be recycled");
+    }
+    return createView(context);
+  }
+
+  /**
+   * Method to bind a view to this element
+   * @param view created by an element which has the same {@link #getViewType()}
+   */
+  public final void bindView(View view) {
+    if (mView == view) {
+      return;
+    }
+    unbindView();
+    mView = view;
+    onBindView(view);
+    applyState(view);
+  }
+
+  /**
+   * Method to unbind current view from this element
+   * @return the view was bound or null
+   */
+  public final View unbindView() {
+    View view = mView;
+    if (view != null) {
+      onUnbindView(view);
+      mView = null;
+    }
+    return view;
+  }
+
   /**
    * Helper method to set style to text view
    * @param view the text view will be applied
    * @param typeface style to set
    */
   static void applyTypeface(TextView view, int typeface) {
-    view.setTypeface(view.getTypeface(), typeface);
+    // Reset to normal style first, the view might be recycled from an element using other style
+    view.setTypeface(Typeface.create(view.getTypeface(), Typeface.NORMAL), typeface);
+  }
+
+  /**
+   * Helper method to remove view from its current parent
+   * @param view
+   */
+  static void detachFromParent(View view) {
+    ViewParent parent = view.getParent();
+    if (parent instanceof ViewGroup) {
+      ((ViewGroup) parent).removeView(view);
+    }
+  }
+
+  /**
+   * Helper method to enable or disable a view and all its children
+   * @param view
+   * @param enabled
+   */
+  static void setEnabled(View view, boolean enabled) {
+    view.setEnabled(enabled);
+    if (view instanceof ViewGroup) {
+      ViewGroup group = (ViewGroup) view;
+      for (int i = 0; i < group.getChildCount(); i++) {
+        setEnabled(group.getChildAt(i), enabled);
+      }
+    }
   }
 
   /**
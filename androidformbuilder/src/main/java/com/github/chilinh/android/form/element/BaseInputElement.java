@@ -25,14 +25,13 @@
 package com.github.chilinh.android.form.element;
 
 import android.content.Context;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.EditText;
 import android.widget.TextView;
 
 import com.github.chilinh.android.form.FormModel;
-import com.github.chilinh.android.form.R;
+import com.github.chilinh.android.form.validator.AsyncInputValidator;
 import com.github.chilinh.android.form.validator.InputError;
 import com.github.chilinh.android.form.validator.InputValidator;
 import com.github.chilinh.android.form.validator.RequiredValidator;
@@ -65,6 +64,8 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
 
   private static final RequiredValidator REQUIRED_VALIDATOR = new RequiredValidator();
   private final Set<InputValidator> mValidators = new HashSet<>();
+  private int mValidatorVersion;
+  private AsyncValidationRunner mAsyncValidation;
 
   private boolean mLabelVertical;
 
@@ -76,7 +77,7 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
   public T verticalLabel(boolean vertical) {
     mLabelVertical = vertical;
     if (isViewCreated()) {
-      applyTitle();
+      applyTitle(getRow());
     }
     return (T) this;
   }
@@ -91,7 +92,7 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
   public T labelTypeface(int typeface) {
     mLabelTypeface = typeface;
     if (isViewCreated()) {
-      applyTitle();
+      applyTitle(getRow());
     }
     return (T) this;
   }
@@ -120,6 +121,7 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
     } else if (!isRequired()) {
       mValidators.add(REQUIRED_VALIDATOR);
     }
+    mValidatorVersion++;
     return (T) this;
   }
 
@@ -130,6 +132,7 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
    */
   public T addValidator(InputValidator validator) {
     mValidators.add(validator);
+    mValidatorVersion++;
     return (T) this;
   }
 
@@ -141,6 +144,7 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
   public T addValidatorSet(Collection<InputValidator> newValidators) {
     if (newValidators != null) {
       mValidators.addAll(newValidators);
+      mValidatorVersion++;
     }
     return (T) this;
   }
@@ -152,14 +156,30 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
    */
   public T removeValidator(InputValidator validator) {
     mValidators.remove(validator);
+    mValidatorVersion++;
     return (T) this;
   }
 
   private final CharSequence mLabelText;
-  private View mFieldView;
-  private TextView mErrorView;
-  private TextView mVerticalLabel;
-  private TextView mHorizontalLabel;
+  private CharSequence mError;
+  private InputRowFactory mRowFactory;
+
+  /**
+   * Method to set factory that creates row view of this element
+   * @param factory null to use {@link InputRowFactory#XML}
+   * @return
+   */
+  public T rowFactory(InputRowFactory factory) {
+    mRowFactory = factory;
+    return (T) this;
+  }
+
+  /**
+   * @return factory of row view or null if it is not set
+   */
+  public InputRowFactory getRowFactory() {
+    return mRowFactory;
+  }
 
   /**
    * @return label text
@@ -175,22 +195,104 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
     return mValidators.contains(REQUIRED_VALIDATOR);
   }
 
+  /**
+   * Method to add validator which is run while user is changing value, its error is shown by
+   * {@link #setError(CharSequence)}. Its last results are also used by {@link #validateInput()}
+   * @param validator
+   * @return builder
+   */
+  public T addAsyncValidator(AsyncInputValidator validator) {
+    if (mAsyncValidation == null) {
+      mAsyncValidation = new AsyncValidationRunner(this);
+    }
+    mAsyncValidation.add(validator);
+    mValidatorVersion++;
+    return (T) this;
+  }
+
+  /**
+   * Method to remove async validator
+   * @param validator
+   * @return builder
+   */
+  public T removeAsyncValidator(AsyncInputValidator validator) {
+    if (mAsyncValidation != null) {
+      mAsyncValidation.remove(validator);
+      mValidatorVersion++;
+    }
+    return (T) this;
+  }
+
+  /**
+   * Method to set how long value must not change before async validators are run
+   * @param delayMs default is 300ms
+   * @return builder
+   */
+  public T asyncValidationDelay(long delayMs) {
+    if (mAsyncValidation == null) {
+      mAsyncValidation = new AsyncValidationRunner(this);
+    }
+    mAsyncValidation.setDelay(delayMs);
+    return (T) this;
+  }
+
+  /**
+   * @return a number which is changed whenever validators of this element are changed, or
+   * a result of its async validators arrives
+   */
+  public int getValidatorVersion() {
+    return mValidatorVersion;
+  }
+
   /**
    * Method to validate element value
    * @return list of error
    */
   public List<InputError> validateInput() {
+    return validateValue(mModel.get(mName));
+  }
+
+  /**
+   * Method to validate a value as value of this element, it does not touch model or views
+   * so it can be called from a worker thread as long as validators are not changed meanwhile
+   * @param value
+   * @return list of error
+   */
+  public List<InputError> validateValue(Object value) {
     List<InputError> errors = new ArrayList<>();
-    Object value = mModel.get(mName);
     for (InputValidator validator : mValidators) {
       InputError error = validator.validate(value, this);
       if (error != null) {
         errors.add(error);
       }
     }
+    if (mAsyncValidation != null && !mAsyncValidation.isEmpty()) {
+      InputError error = mAsyncValidation.getError(value);
+      if (error != null) {
+        errors.add(error);
+      }
+    }
     return errors;
   }
 
+  /**
+   * Callback from {@link AsyncValidationRunner} when a result is cached, so a cached
+   * validation of this element which saw the value as pending is not reused
+   */
+  void onAsyncResult() {
+    mValidatorVersion++;
+  }
+
+  /**
+   * Method should be called by subclasses when user changes value of this element
+   * @param value new value
+   */
+  protected void onValueChanged(Object value) {
+    if (mAsyncValidation != null && !mAsyncValidation.isEmpty() && isViewCreated()) {
+      mAsyncValidation.schedule(value, mView.getContext().getResources());
+    }
+  }
+
   /**
    * Method to create field view for this input element
    * @param context
@@ -198,27 +300,51 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
    */
   protected abstract View createFieldView(Context context);
 
+  /**
+   * Method to apply state of this element to field view, the field view might be recycled
+   * from another element of the same type
+   * @param fieldView
+   */
+  protected void onBindFieldView(View fieldView) {
+  }
+
+  /**
+   * Method to remove listeners set in {@link #onBindFieldView(View)}
+   * @param fieldView
+   */
+  protected void onUnbindFieldView(View fieldView) {
+  }
+
   /**
    * Method to get current field view
    * @return
    */
   public View getFieldView() {
-    return mFieldView;
+    InputRow row = getRow();
+    return row == null ? null : row.field;
   }
 
   @Override
   protected final View createView(Context context) {
-    View view = LayoutInflater.from(context).inflate(R.layout.form_input_element, null);
-    mErrorView = (TextView) view.findViewById(R.id.field_error);
+    InputRowFactory factory = mRowFactory != null ? mRowFactory : InputRowFactory.XML;
+    InputRow row = factory.createRow(context);
+    row.field = createFieldView(context);
+    row.fieldContainer.addView(row.field);
+    row.root.setTag(row);
+    return row.root;
+  }
 
-    mVerticalLabel = (TextView) view.findViewById(R.id.field_label_vertical);
-    mHorizontalLabel = (TextView) view.findViewById(R.id.field_label_horizontal);
-    applyTitle();
+  @Override
+  protected final void onBindView(View view) {
+    InputRow row = (InputRow) view.getTag();
+    applyTitle(row);
+    applyError(row);
+    onBindFieldView(row.field);
+  }
 
-    ViewGroup container = (ViewGroup) view.findViewById(R.id.field_container);
-    mFieldView = createFieldView(context);
-    container.addView(mFieldView);
-    return view;
+  @Override
+  protected final void onUnbindView(View view) {
+    onUnbindFieldView(((InputRow) view.getTag()).field);
   }
 
   @Override
@@ -231,25 +357,40 @@ public abstract class BaseInputElement<T extends BaseInputElement> extends BaseF
 
   @Override
   public void setError(CharSequence message) {
-    View view = getFieldView();
-    if (mUseNativeErrorEditView && (view instanceof EditText)) {
-      ((EditText) view).setError(message);
+    mError = message;
+    if (isViewCreated()) {
+      applyError(getRow());
+    }
+  }
+
+  private InputRow getRow() {
+    return mView == null ? null : (InputRow) mView.getTag();
+  }
+
+  private void applyError(InputRow row) {
+    boolean editable = row.field instanceof EditText;
+    if (mUseNativeErrorEditView && editable) {
+      ((EditText) row.field).setError(mError);
+      setText(row.error, null);
     } else {
-      setText(mErrorView, message);
+      if (editable) {
+        ((EditText) row.field).setError(null);
+      }
+      setText(row.error, mError);
     }
   }
 
-  private void applyTitle() {
+  private void applyTitle(InputRow row) {
     if (mLabelVertical) {
-      mHorizontalLabel.setVisibility(View.GONE);
-      mVerticalLabel.setVisibility(View.VISIBLE);
-      applyTypeface(mVerticalLabel, mLabelTypeface);
-      setText(mVerticalLabel, mLabelText);
+      row.horizontalLabel.setVisibility(View.GONE);
+      row.verticalLabel.setVisibility(View.VISIBLE);
+      applyTypeface(row.verticalLabel, mLabelTypeface);
+      setText(row.verticalLabel, mLabelText);
     } else {
-      mVerticalLabel.setVisibility(View.GONE);
-      mHorizontalLabel.setVisibility(View.VISIBLE);
-      applyTypeface(mHorizontalLabel, mLabelTypeface);
-      setText(mHorizontalLabel, mLabelText);
+      row.verticalLabel.setVisibility(View.GONE);
+      row.horizontalLabel.setVisibility(View.VISIBLE);
+      applyTypeface(row.horizontalLabel, mLabelTypeface);
+      setText(row.horizontalLabel, mLabelText);
     }
   }
 }
@@ -25,14 +25,19 @@
 package com.github.chilinh.android.form.element;
 
 import android.content.Context;
+import android.os.AsyncTask;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
+import android.widget.EditText;
 import android.widget.Spinner;
 
+import com.github.chilinh.android.form.FormModel;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * Created by Linh on 11/11/16.
@@ -42,6 +47,7 @@ import java.util.Objects;
 public class ComboBoxElement extends BaseInputElement<ComboBoxElement> {
 
   private final List<String> mFields;
+  private final OptionSource mSource;
 
   /**
    * Constructor
@@ -62,6 +68,21 @@ public class ComboBoxElement extends BaseInputElement<ComboBoxElement> {
   public ComboBoxElement(String name, CharSequence labelText, List<String> fields) {
     super(name, labelText);
     mFields = Objects.requireNonNull(fields);
+    mSource = null;
+  }
+
+  /**
+   * Constructor of a combo box whose options are loaded from source a page at a time, on the
+   * search executor, while they are shown. It is always picked from a searchable list, see
+   * {@link #searchable(boolean)}
+   * @param name
+   * @param labelText
+   * @param source
+   */
+  public ComboBoxElement(String name, CharSequence labelText, OptionSource source) {
+    super(name, labelText);
+    mFields = null;
+    mSource = Objects.requireNonNull(source);
   }
 
   private int mInitIndex;
@@ -73,45 +94,196 @@ public class ComboBoxElement extends BaseInputElement<ComboBoxElement> {
    */
   public ComboBoxElement startIndex(int index) {
     this.mInitIndex = index;
-    if (isViewCreated()) {
-      mModel.set(mName, mInitIndex);
-      internalRefresh(getSpinner());
+    if (mModel != null) {
+      mModel.setInt(mName, mInitIndex);
+    }
+    return this;
+  }
+
+  private boolean mSearchable;
+  private Executor mSearchExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+  private OptionPicker mPicker;
+  private PagedOptions mOptions;
+
+  /**
+   * Method to pick option from a searchable list in a dialog instead of a spinner, for long
+   * lists of options. Options are indexed once on background thread and only visible rows of
+   * the list have views. Value in model is still index of selected option. Combo box of an
+   * {@link OptionSource} is always searchable
+   * @param searchable
+   * @return
+   */
+  public ComboBoxElement searchable(boolean searchable) {
+    mSearchable = searchable;
+    return this;
+  }
+
+  /**
+   * Method to set executor which indexes and searches options of searchable combo box and
+   * loads pages of its {@link OptionSource}, default is {@link AsyncTask#THREAD_POOL_EXECUTOR}
+   * @param executor
+   * @return
+   */
+  public ComboBoxElement searchExecutor(Executor executor) {
+    mSearchExecutor = Objects.requireNonNull(executor);
+    if (mPicker == null || !mPicker.isShowing()) {
+      mPicker = null;
+      mOptions = null;
     }
     return this;
   }
 
+  private ArrayAdapter<String> mAdapter;
+
+  private final AdapterView.OnItemSelectedListener mSelectedListener = new AdapterView.OnItemSelectedListener() {
+    @Override
+    public void onItemSelected(AdapterView<?> parent, View view, int pos, long id) {
+      mModel.setInt(mName, pos);
+      onValueChanged(pos);
+    }
+
+    @Override
+    public void onNothingSelected(AdapterView<?> parent) {
+    }
+  };
+
+  private final OptionPicker.OnPickListener mPickListener = new OptionPicker.OnPickListener() {
+    @Override
+    public void onPick(int index) {
+      mModel.setInt(mName, index);
+      onValueChanged(index);
+    }
+  };
+
+  private final PagedOptions.OnLoadListener mLoadListener = new PagedOptions.OnLoadListener() {
+    @Override
+    public void onLoad() {
+      // Text of selected option may have been loaded
+      View fieldView = getFieldView();
+      if (fieldView != null) {
+        internalRefresh((EditText) fieldView);
+      }
+    }
+  };
+
+  private PagedOptions getOptions() {
+    if (mOptions == null) {
+      if (mSource != null) {
+        mOptions = new PagedOptions(mSource, mSearchExecutor);
+        mOptions.addListener(mLoadListener);
+      } else {
+        mOptions = new PagedOptions(mFields);
+      }
+    }
+    return mOptions;
+  }
+
+  private boolean isPicked() {
+    return mSearchable || mSource != null;
+  }
+
+  private void showPicker(Context context) {
+    if (mPicker == null) {
+      mPicker = new OptionPicker(getOptions(), mSearchExecutor, mPickListener);
+    }
+    mPicker.show(context, getLabel(), mModel.getInt(mName, -1));
+  }
+
+  private final View.OnClickListener mClickListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View v) {
+      showPicker(v.getContext());
+    }
+  };
+
+  private final View.OnFocusChangeListener mFocusListener = new View.OnFocusChangeListener() {
+    @Override
+    public void onFocusChange(View v, boolean hasFocus) {
+      if (hasFocus) {
+        showPicker(v.getContext());
+      }
+    }
+  };
+
   @Override
   protected View createFieldView(Context context) {
-    Spinner view = new Spinner(context);
-    view.setPrompt(getLabel());
-    ArrayAdapter<String> adapter = new ArrayAdapter<>(context, android.R.layout.simple_spinner_item, mFields);
-    adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-    view.setAdapter(adapter);
-    mModel.set(mName, mInitIndex);
-    internalRefresh(view);
-    view.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-      @Override
-      public void onItemSelected(AdapterView<?> parent, View view, int pos, long id) {
-        mModel.set(mName, pos);
-      }
+    if (isPicked()) {
+      EditText editText = new EditText(context);
+      editText.setSingleLine(true);
+      editText.setKeyListener(null);
+      return editText;
+    }
+    return new Spinner(context);
+  }
+
+  @Override
+  protected void onBindFieldView(View fieldView) {
+    if (isPicked()) {
+      EditText editText = (EditText) fieldView;
+      internalRefresh(editText);
+      editText.setOnClickListener(mClickListener);
+      editText.setOnFocusChangeListener(mFocusListener);
+      return;
+    }
+    Spinner spinner = (Spinner) fieldView;
+    spinner.setPrompt(getLabel());
+    Context context = spinner.getContext();
+    if (mAdapter == null || mAdapter.getContext() != context) {
+      mAdapter = new ArrayAdapter<>(context, android.R.layout.simple_spinner_item, mFields);
+      mAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+    }
+    spinner.setAdapter(mAdapter);
+    internalRefresh(spinner);
+    spinner.setOnItemSelectedListener(mSelectedListener);
+  }
 
-      @Override
-      public void onNothingSelected(AdapterView<?> parent) {
+  @Override
+  protected void onUnbindFieldView(View fieldView) {
+    if (isPicked()) {
+      fieldView.setOnClickListener(null);
+      fieldView.setOnFocusChangeListener(null);
+      if (mPicker != null) {
+        mPicker.dismiss();
       }
-    });
-    return view;
+      return;
+    }
+    ((Spinner) fieldView).setOnItemSelectedListener(null);
+  }
+
+  @Override
+  protected void onSetModel(FormModel model) {
+    super.onSetModel(model);
+    if (model != null) {
+      model.setDefault(mName, mInitIndex);
+    }
+  }
+
+  @Override
+  public Object getViewType() {
+    // Searchable field is a text view, not a spinner
+    return isPicked() ? OptionPicker.class : getClass();
   }
 
   @Override
   protected void onModelUpdate() {
-    internalRefresh(getSpinner());
+    if (isPicked()) {
+      internalRefresh((EditText) getFieldView());
+    } else {
+      internalRefresh(getSpinner());
+    }
   }
 
   private void internalRefresh(Spinner spinner) {
-    int value = mModel.get(mName, 0);
+    int value = mModel.getInt(mName, 0);
     spinner.setSelection(value);
   }
 
+  private void internalRefresh(EditText editText) {
+    String option = getOptions().get(mModel.getInt(mName, -1));
+    // Blank until page of the option is loaded, listener refreshes it then
+    editText.setText(option == null ? "" : option);
+  }
+
   private Spinner getSpinner() {
     return ((Spinner) getFieldView());
   }
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.database.Cursor;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * Option source over a column of a {@link Cursor}, for example a query of a local database.
+ * Rows are read only when a page of them is loaded, so the column is never copied into memory as
+ * a whole. Cursor is owned by this source from then on, it is used on the search executor only
+ * and closed by {@link #close()}
+ */
+public class CursorOptionSource implements OptionSource, Closeable {
+
+  private final Cursor mCursor;
+  private final int mColumn;
+
+  /**
+   * Constructor
+   * @param cursor
+   * @param columnIndex index of column holding text of options
+   */
+  public CursorOptionSource(Cursor cursor, int columnIndex) {
+    mCursor = cursor;
+    mColumn = columnIndex;
+  }
+
+  /**
+   * Constructor
+   * @param cursor
+   * @param columnName name of column holding text of options
+   */
+  public CursorOptionSource(Cursor cursor, String columnName) {
+    this(cursor, cursor.getColumnIndexOrThrow(columnName));
+  }
+
+  @Override
+  public synchronized int getCount() {
+    return mCursor.isClosed() ? 0 : mCursor.getCount();
+  }
+
+  @Override
+  public synchronized String[] load(int start, int count) {
+    String[] page = new String[count];
+    if (mCursor.isClosed()) {
+      return page;
+    }
+    for (int i = 0; i < count && mCursor.moveToPosition(start + i); i++) {
+      page[i] = mCursor.getString(mColumn);
+    }
+    return page;
+  }
+
+  /**
+   * Scans rows one by one and keeps only positions, subclass may override it to run a query
+   * on the database instead
+   */
+  @Override
+  public synchronized int[] search(String query, int limit) {
+    if (mCursor.isClosed()) {
+      return new int[0];
+    }
+    String normalized = OptionIndex.normalize(query);
+    int[] prefix = new int[limit];
+    int[] contain = new int[limit];
+    int prefixCount = 0;
+    int containCount = 0;
+    for (int i = 0; prefixCount < limit && mCursor.moveToPosition(i); i++) {
+      String text = OptionIndex.normalize(mCursor.getString(mColumn));
+      if (text.startsWith(normalized)) {
+        prefix[prefixCount++] = i;
+      } else if (containCount < limit && text.contains(normalized)) {
+        contain[containCount++] = i;
+      }
+    }
+    int count = Math.min(limit, prefixCount + containCount);
+    int[] results = Arrays.copyOf(prefix, count);
+    System.arraycopy(contain, 0, results, prefixCount, count - prefixCount);
+    return results;
+  }
+
+  @Override
+  public synchronized void close() {
+    mCursor.close();
+  }
+}
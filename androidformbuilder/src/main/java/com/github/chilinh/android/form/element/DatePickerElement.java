@@ -32,6 +32,8 @@ import android.view.View;
 import android.widget.DatePicker;
 import android.widget.EditText;
 
+import com.github.chilinh.android.form.FormModel;
+
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -76,9 +78,8 @@ public class DatePickerElement extends BaseInputElement<DatePickerElement> {
    */
   public DatePickerElement date(Date date) {
     mInitDate = date;
-    if (isViewCreated()) {
+    if (mModel != null) {
       mModel.set(mName, mInitDate);
-      internalRefresh(getEditText());
     }
     return this;
   }
@@ -103,9 +104,9 @@ public class DatePickerElement extends BaseInputElement<DatePickerElement> {
           Calendar calendar = Calendar.getInstance(Locale.getDefault());
           calendar.setTimeZone(timeZone);
           calendar.set(year, monthOfYear, dayOfMonth);
-          mModel.set(mName, calendar.getTime());
-          internalRefresh(getEditText());
-
+          Date date = calendar.getTime();
+          mModel.set(mName, date);
+          onValueChanged(date);
         }
       }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
 
@@ -128,32 +129,58 @@ public class DatePickerElement extends BaseInputElement<DatePickerElement> {
     return (EditText) getFieldView();
   }
 
-  @Override
-  protected View createFieldView(final Context context) {
-    final EditText editText = new EditText(context);
+  private final View.OnClickListener mClickListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View v) {
+      showDatePickerDialog(v.getContext());
+    }
+  };
+
+  private final View.OnFocusChangeListener mFocusListener = new View.OnFocusChangeListener() {
+    @Override
+    public void onFocusChange(View v, boolean hasFocus) {
+      if (hasFocus) {
+        showDatePickerDialog(v.getContext());
+      }
+    }
+  };
 
+  @Override
+  protected View createFieldView(Context context) {
+    EditText editText = new EditText(context);
     editText.setSingleLine(true);
     editText.setInputType(InputType.TYPE_CLASS_DATETIME | InputType.TYPE_DATETIME_VARIATION_DATE);
     editText.setKeyListener(null);
-    mModel.set(mName, mInitDate);
-    internalRefresh(editText);
-    editText.setOnClickListener(new View.OnClickListener() {
-      @Override
-      public void onClick(View v) {
-        showDatePickerDialog(context);
-      }
-    });
-    editText.setOnFocusChangeListener(new View.OnFocusChangeListener() {
-      @Override
-      public void onFocusChange(View v, boolean hasFocus) {
-        if (hasFocus) {
-          showDatePickerDialog(context);
-        }
-      }
-    });
     return editText;
   }
 
+  @Override
+  protected void onBindFieldView(View fieldView) {
+    EditText editText = (EditText) fieldView;
+    internalRefresh(editText);
+    editText.setOnClickListener(mClickListener);
+    editText.setOnFocusChangeListener(mFocusListener);
+  }
+
+  @Override
+  protected void onUnbindFieldView(View fieldView) {
+    fieldView.setOnClickListener(null);
+    fieldView.setOnFocusChangeListener(null);
+  }
+
+  @Override
+  protected void onSetModel(FormModel model) {
+    super.onSetModel(model);
+    if (model != null) {
+      model.setDefault(mName, mInitDate);
+    }
+  }
+
+  @Override
+  public Object getViewType() {
+    return getClass();
+  }
+
   @Override
   protected void onModelUpdate() {
     internalRefresh(getEditText());
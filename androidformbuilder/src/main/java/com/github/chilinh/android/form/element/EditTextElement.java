@@ -28,10 +28,13 @@ import android.content.Context;
 import android.graphics.Color;
 import android.text.Editable;
 import android.text.InputType;
+import android.text.TextUtils;
 import android.text.TextWatcher;
 import android.view.View;
 import android.widget.EditText;
 
+import com.github.chilinh.android.form.FormModel;
+
 /**
  * Created by Linh on 11/3/16.
  *
@@ -60,13 +63,65 @@ public class EditTextElement extends BaseInputElement<EditTextElement> {
    */
   public EditTextElement text(CharSequence text) {
     mInitValue = text;
-    if (isViewCreated()) {
-      mModel.set(mName, mInitValue);
-      internalRefresh(getEditText());
+    if (mModel != null) {
+      setModelText(mModel, mInitValue);
     }
     return this;
   }
 
+  private LiveText mLiveText;
+
+  /**
+   * Method to make model hold a {@link LiveText} which reads from the text being edited
+   * instead of a copy of it. Typing does not copy text, it is copied when it is read by
+   * {@link LiveText#toString()}. Value of this element in model is a {@link CharSequence},
+   * not a {@link String}. Recommend for large multi-line fields
+   * @param live
+   * @return
+   */
+  public EditTextElement liveText(boolean live) {
+    if (live == (mLiveText != null)) {
+      return this;
+    }
+    CharSequence value = mModel != null ? mModel.<CharSequence>get(mName) : mInitValue;
+    mLiveText = live ? new LiveText(value) : null;
+    if (live && isViewCreated()) {
+      mLiveText.update(getEditText().getText());
+    }
+    if (mModel != null) {
+      mModel.set(mName, live ? mLiveText : value == null ? null : value.toString());
+    }
+    return this;
+  }
+
+  private void setModelText(FormModel model, CharSequence text) {
+    if (mLiveText == null) {
+      model.set(mName, text);
+      return;
+    }
+    mLiveText.update(text);
+    if (model.get(mName) != mLiveText) {
+      model.set(mName, mLiveText);
+    } else {
+      model.notifyChanged(mName);
+    }
+  }
+
+  /**
+   * Method is called when user edits text
+   * @param text being edited
+   */
+  void onTextEdited(CharSequence text) {
+    if (mLiveText == null) {
+      String value = text.toString();
+      mModel.set(mName, value);
+      onValueChanged(value);
+      return;
+    }
+    setModelText(mModel, text);
+    onValueChanged(mLiveText);
+  }
+
   private CharSequence mPlaceholder;
 
   /**
@@ -120,33 +175,68 @@ public class EditTextElement extends BaseInputElement<EditTextElement> {
     return this;
   }
 
+  private final TextWatcher mTextWatcher = new TextWatcher() {
+    @Override
+    public void beforeTextChanged(CharSequence charSequence, int i, int i1, int i2) {
+    }
+
+    @Override
+    public void onTextChanged(CharSequence charSequence, int i, int i1, int i2) {
+    }
+
+    @Override
+    public void afterTextChanged(Editable editable) {
+      onTextEdited(editable);
+    }
+  };
+
   //region Implement
   @Override
   protected View createFieldView(Context context) {
-    final EditText editText = new EditText(context);
+    EditText editText = new EditText(context);
+    editText.setHintTextColor(Color.GRAY);
+    return editText;
+  }
+
+  @Override
+  protected void onBindFieldView(View fieldView) {
+    EditText editText = (EditText) fieldView;
     editText.setSingleLine(!isMultiLine());
     editText.setHint(mPlaceholder);
-    editText.setHintTextColor(Color.GRAY);
     editText.setInputType(inputType);
-    mModel.set(mName, mInitValue);
     internalRefresh(editText);
-    editText.addTextChangedListener(
-      new TextWatcher() {
-        @Override
-        public void beforeTextChanged(CharSequence charSequence, int i, int i1, int i2) {
-        }
-
-        @Override
-        public void onTextChanged(CharSequence charSequence, int i, int i1, int i2) {
-        }
-
-        @Override
-        public void afterTextChanged(Editable editable) {
-          mModel.set(mName, editText.getText().toString());
-        }
-      }
-    );
-    return editText;
+    editText.addTextChangedListener(mTextWatcher);
+  }
+
+  @Override
+  protected void onUnbindFieldView(View fieldView) {
+    ((EditText) fieldView).removeTextChangedListener(mTextWatcher);
+    if (mLiveText != null) {
+      // View may be reused by another element
+      mLiveText.freeze();
+    }
+  }
+
+  @Override
+  protected void onSetModel(FormModel model) {
+    super.onSetModel(model);
+    if (model == null) {
+      return;
+    }
+    if (mLiveText == null) {
+      model.setDefault(mName, mInitValue);
+    } else if (!model.contains(mName)) {
+      mLiveText.update(mInitValue);
+      model.setDefault(mName, mLiveText);
+    } else if (model.get(mName) != mLiveText) {
+      // e.g. text restored from saved state
+      setModelText(model, model.<CharSequence>get(mName));
+    }
+  }
+
+  @Override
+  public Object getViewType() {
+    return getClass();
   }
 
   @Override
@@ -170,12 +260,19 @@ public class EditTextElement extends BaseInputElement<EditTextElement> {
   private void internalRefresh(EditText editText) {
     CharSequence valueStr = mModel.get(mName);
     CharSequence currentStr = editText.getText();
-    if ((currentStr == null && valueStr != currentStr) || (currentStr != null && !currentStr.equals(valueStr))) {
+    if (valueStr == mLiveText && mLiveText.isReading(currentStr)) {
+      return;
+    }
+    if (!TextUtils.equals(currentStr, valueStr)) {
       //if (TextUtils.isEmpty(mDisplayFormat)) {
         editText.setText(valueStr);
       //} else {
       //  editText.setText(String.format(mDisplayFormat, valueStr));
       //}
     }
+    if (valueStr == mLiveText) {
+      // Read from the edited text again, setText replaces it
+      mLiveText.update(editText.getText());
+    }
   }
 }
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of all elements of a form by name. Sections added to it keep it updated when their
+ * elements are added or removed, so names are unique in the whole form
+ */
+public final class ElementIndex {
+
+  private final Map<String, BaseFormElement> mElements = new HashMap<>();
+  private final Map<String, SectionElement> mSections = new HashMap<>();
+
+  /**
+   * Method to index a section and all of its elements
+   * @param section
+   * @throws IllegalArgumentException if section belongs to another index or one of its
+   * elements has the name of an indexed element
+   */
+  public void addSection(SectionElement section) {
+    if (section.getIndex() != null) {
+      throw new IllegalArgumentException("Section is already in a form");
+    }
+    Set<String> names = new HashSet<>();
+    for (BaseFormElement element : section.getElements()) {
+      if (mElements.containsKey(element.getName()) || !names.add(element.getName())) {
+        throw new IllegalArgumentException("Element with that name already exists");
+      }
+    }
+
+    for (BaseFormElement element : section.getElements()) {
+      put(element, section);
+    }
+    section.setIndex(this);
+  }
+
+  /**
+   * Method to remove a section and all of its elements from this index
+   * @param section
+   */
+  public void removeSection(SectionElement section) {
+    if (section.getIndex() != this) {
+      return;
+    }
+    for (BaseFormElement element : section.getElements()) {
+      remove(element.getName());
+    }
+    section.setIndex(null);
+  }
+
+  /**
+   * @param name
+   * @return element with that name or null
+   */
+  public BaseFormElement getElement(String name) {
+    return mElements.get(name);
+  }
+
+  /**
+   * @param name of element
+   * @return section which contains element with that name or null
+   */
+  public SectionElement getSection(String name) {
+    return mSections.get(name);
+  }
+
+  /**
+   * @param name
+   * @return true if there is an element with that name
+   */
+  public boolean contains(String name) {
+    return mElements.containsKey(name);
+  }
+
+  /**
+   * @return number of indexed elements
+   */
+  public int size() {
+    return mElements.size();
+  }
+
+  void put(BaseFormElement element, SectionElement section) {
+    mElements.put(element.getName(), element);
+    mSections.put(element.getName(), section);
+  }
+
+  void remove(String name) {
+    mElements.remove(name);
+    mSections.remove(name);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.github.chilinh.android.form.R;
+
+/**
+ * Views of a row of {@link BaseInputElement}: labels, container of field view and error text.
+ * It is kept as tag of the row view so the row can be rebound without looking up views again
+ */
+public final class InputRow {
+  public final View root;
+  public final TextView horizontalLabel;
+  public final TextView verticalLabel;
+  public final ViewGroup fieldContainer;
+  public final TextView error;
+  View field;
+
+  /**
+   * Constructor
+   * @param root view of the row
+   * @param horizontalLabel label displayed on the left of field
+   * @param verticalLabel label displayed above field
+   * @param fieldContainer container that field view will be added to
+   * @param error text view to display error
+   */
+  public InputRow(View root, TextView horizontalLabel, TextView verticalLabel, ViewGroup fieldContainer, TextView error) {
+    this.root = root;
+    this.horizontalLabel = horizontalLabel;
+    this.verticalLabel = verticalLabel;
+    this.fieldContainer = fieldContainer;
+    this.error = error;
+  }
+
+  /**
+   * Method to find views of a row inflated from {@link R.layout#form_input_element}
+   * @param root
+   * @return
+   */
+  public static InputRow fromLayout(View root) {
+    return new InputRow(
+      root,
+      (TextView) root.findViewById(R.id.field_label_horizontal),
+      (TextView) root.findViewById(R.id.field_label_vertical),
+      (ViewGroup) root.findViewById(R.id.field_container),
+      (TextView) root.findViewById(R.id.field_error)
+    );
+  }
+}
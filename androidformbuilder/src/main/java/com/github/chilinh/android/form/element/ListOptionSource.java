@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import java.util.List;
+
+/**
+ * Option source over a list given to a {@link ComboBoxElement}, searched by {@link OptionIndex}
+ */
+final class ListOptionSource implements OptionSource {
+
+  private final List<String> mOptions;
+  private OptionIndex mIndex;
+
+  ListOptionSource(List<String> options) {
+    mOptions = options;
+  }
+
+  @Override
+  public int getCount() {
+    return mOptions.size();
+  }
+
+  @Override
+  public String[] load(int start, int count) {
+    return mOptions.subList(start, start + count).toArray(new String[count]);
+  }
+
+  @Override
+  public int[] search(String query, int limit) {
+    return getIndex().search(query, limit);
+  }
+
+  /**
+   * Index is built on first search, later searches and pickers of the element reuse it
+   */
+  private synchronized OptionIndex getIndex() {
+    if (mIndex == null) {
+      mIndex = new OptionIndex(mOptions);
+    }
+    return mIndex;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+/**
+ * Text of an {@link EditTextElement} in live text mode. It reads characters from the text
+ * being edited, so it is not copied on each keystroke; a copy is only made by
+ * {@link #toString()}, and it is reused until text is changed again
+ */
+public final class LiveText implements CharSequence {
+
+  private CharSequence mSource;
+  private String mString;
+
+  LiveText(CharSequence source) {
+    mSource = source == null ? "" : source;
+  }
+
+  /**
+   * Method to read from new source or tell that source is changed
+   * @param source
+   */
+  void update(CharSequence source) {
+    mSource = source == null ? "" : source;
+    mString = null;
+  }
+
+  /**
+   * Method to copy current text and stop reading from source, e.g. when its view is recycled
+   */
+  void freeze() {
+    mSource = toString();
+  }
+
+  boolean isReading(CharSequence source) {
+    return mSource == source;
+  }
+
+  @Override
+  public int length() {
+    return mSource.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return mSource.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return mSource.subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    if (mString == null) {
+      mString = mSource.toString();
+    }
+    return mString;
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Search index of options of a {@link ComboBoxElement}. Options are kept sorted for prefix
+ * search by binary search, and each trigram of an option maps to the sorted positions of options
+ * which contain it, so a substring search reads only the postings of the rarest trigrams of the
+ * query. An index is immutable, it is built once by the {@link ListOptionSource} of a combo box
+ */
+final class OptionIndex {
+
+  private final String[] mNormalized;
+  /**
+   * Positions of options sorted by normalized text
+   */
+  private final int[] mSorted;
+  private final Map<Long, int[]> mTrigrams;
+
+  /**
+   * Constructor to index options, takes time for long lists so call it on background thread
+   * @param options
+   */
+  OptionIndex(List<String> options) {
+    int size = options.size();
+    mNormalized = new String[size];
+    Integer[] sorted = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      mNormalized[i] = normalize(options.get(i));
+      sorted[i] = i;
+    }
+    Arrays.sort(sorted, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return mNormalized[a].compareTo(mNormalized[b]);
+      }
+    });
+    mSorted = new int[size];
+    for (int i = 0; i < size; i++) {
+      mSorted[i] = sorted[i];
+    }
+
+    Map<Long, int[]> postings = new HashMap<>();
+    Map<Long, Integer> counts = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      String text = mNormalized[i];
+      for (int j = 0; j + 3 <= text.length(); j++) {
+        Long trigram = trigram(text, j);
+        int[] list = postings.get(trigram);
+        int count = list == null ? 0 : counts.get(trigram);
+        // Positions are added in order, so a repeated trigram of the same option is the last one
+        if (count > 0 && list[count - 1] == i) {
+          continue;
+        }
+        if (list == null) {
+          list = new int[4];
+          postings.put(trigram, list);
+        } else if (count == list.length) {
+          list = Arrays.copyOf(list, count * 2);
+          postings.put(trigram, list);
+        }
+        list[count] = i;
+        counts.put(trigram, count + 1);
+      }
+    }
+    for (Map.Entry<Long, int[]> entry : postings.entrySet()) {
+      entry.setValue(Arrays.copyOf(entry.getValue(), counts.get(entry.getKey())));
+    }
+    mTrigrams = postings;
+  }
+
+  int size() {
+    return mNormalized.length;
+  }
+
+  /**
+   * Method to find options which contain query, options which start with it come first
+   * @param query
+   * @param limit max number of results
+   * @return positions of options
+   */
+  int[] search(String query, int limit) {
+    String normalized = normalize(query);
+    if (normalized.isEmpty()) {
+      int[] all = new int[Math.min(limit, mNormalized.length)];
+      for (int i = 0; i < all.length; i++) {
+        all[i] = i;
+      }
+      return all;
+    }
+
+    int[] results = new int[Math.min(limit, mNormalized.length)];
+    int count = 0;
+    int start = lowerBound(normalized);
+    for (int i = start; i < mSorted.length && count < results.length && mNormalized[mSorted[i]].startsWith(normalized); i++) {
+      results[count++] = mSorted[i];
+    }
+
+    if (normalized.length() >= 3 && count < results.length) {
+      int[] candidates = candidates(normalized);
+      for (int i = 0; i < candidates.length && count < results.length; i++) {
+        String text = mNormalized[candidates[i]];
+        // Trigrams may be apart, prefix matches are in results already
+        if (!text.startsWith(normalized) && text.contains(normalized)) {
+          results[count++] = candidates[i];
+        }
+      }
+    }
+    return count == results.length ? results : Arrays.copyOf(results, count);
+  }
+
+  /**
+   * @return sorted positions of options that have all trigrams of query
+   */
+  private int[] candidates(String query) {
+    int trigramCount = query.length() - 2;
+    int[][] lists = new int[trigramCount][];
+    for (int i = 0; i < trigramCount; i++) {
+      lists[i] = mTrigrams.get(trigram(query, i));
+      if (lists[i] == null) {
+        return new int[0];
+      }
+    }
+    // Start from the rarest trigram, so intersections stay small
+    Arrays.sort(lists, new Comparator<int[]>() {
+      @Override
+      public int compare(int[] a, int[] b) {
+        return a.length - b.length;
+      }
+    });
+    int[] result = lists[0];
+    for (int i = 1; i < lists.length && result.length > 0; i++) {
+      result = intersect(result, lists[i]);
+    }
+    return result;
+  }
+
+  private static int[] intersect(int[] a, int[] b) {
+    int[] result = new int[Math.min(a.length, b.length)];
+    int count = 0;
+    for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (a[i] > b[j]) {
+        j++;
+      } else {
+        result[count++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private int lowerBound(String prefix) {
+    int low = 0;
+    int high = mSorted.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (mNormalized[mSorted[middle]].compareTo(prefix) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static Long trigram(String text, int start) {
+    return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+  }
+
+  static String normalize(String text) {
+    return text == null ? "" : text.trim().toLowerCase(Locale.getDefault());
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.content.Context;
+import android.content.DialogInterface;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.app.AlertDialog;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.text.Editable;
+import android.text.InputType;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckedTextView;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import com.github.chilinh.android.form.R;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Dialog to pick one of many options of a {@link ComboBoxElement}. Options are shown in a
+ * {@link RecyclerView}, so only visible rows have views and only their pages of
+ * {@link PagedOptions} are loaded, and filtered by {@link OptionSource#search(String, int)} on
+ * an executor while user types. Results of a query typed over are dropped
+ */
+final class OptionPicker implements PagedOptions.OnLoadListener {
+
+  interface OnPickListener {
+    void onPick(int index);
+  }
+
+  /**
+   * Max number of options listed for a query, a longer list is not useful to scroll
+   */
+  private static final int MAX_RESULTS = 500;
+
+  private final PagedOptions mOptions;
+  private final Executor mExecutor;
+  private final OnPickListener mListener;
+  private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+  private final ResultAdapter mAdapter = new ResultAdapter();
+  private AlertDialog mDialog;
+  private TextView mEmpty;
+  /**
+   * Changed on main thread, read by executor to skip stale searches
+   */
+  private volatile int mGeneration;
+
+  OptionPicker(PagedOptions options, Executor executor, OnPickListener listener) {
+    mOptions = options;
+    mExecutor = executor;
+    mListener = listener;
+  }
+
+  boolean isShowing() {
+    return mDialog != null;
+  }
+
+  void show(Context context, CharSequence title, int selected) {
+    if (mDialog != null) {
+      return;
+    }
+    mAdapter.mSelected = selected;
+
+    EditText search = new EditText(context);
+    search.setSingleLine(true);
+    search.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS);
+    search.setHint(R.string.option_search_hint);
+    search.addTextChangedListener(
+      new TextWatcher() {
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        }
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {
+          search(s.toString());
+        }
+      }
+    );
+
+    mEmpty = new TextView(context);
+    mEmpty.setText(R.string.option_search_empty);
+    mEmpty.setVisibility(View.GONE);
+
+    RecyclerView list = new RecyclerView(context);
+    list.setLayoutManager(new LinearLayoutManager(context));
+    list.setHasFixedSize(true);
+    list.setAdapter(mAdapter);
+
+    LinearLayout content = new LinearLayout(context);
+    content.setOrientation(LinearLayout.VERTICAL);
+    float density = context.getResources().getDisplayMetrics().density;
+    int padding = (int) (16 * density);
+    content.setPadding(padding, padding / 2, padding, 0);
+    content.addView(search, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+    content.addView(mEmpty, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+    // Dialog wraps its content, so the list needs a height
+    content.addView(list, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, (int) (320 * density)));
+
+    mDialog = new AlertDialog.Builder(context)
+      .setTitle(title)
+      .setView(content)
+      .setNegativeButton(android.R.string.cancel, null)
+      .create();
+    mDialog.setOnDismissListener(
+      new DialogInterface.OnDismissListener() {
+        @Override
+        public void onDismiss(DialogInterface dialog) {
+          mDialog = null;
+          mEmpty = null;
+          mOptions.removeListener(OptionPicker.this);
+          // Drop results of running search
+          mGeneration++;
+        }
+      }
+    );
+    mOptions.addListener(this);
+    mDialog.show();
+    search("");
+  }
+
+  @Override
+  public void onLoad() {
+    // Rows bound before their page was loaded show it now
+    mAdapter.notifyDataSetChanged();
+    updateEmpty();
+  }
+
+  private void updateEmpty() {
+    mEmpty.setVisibility(mAdapter.getItemCount() == 0 && mOptions.getCount() >= 0 ? View.VISIBLE : View.GONE);
+  }
+
+  void dismiss() {
+    if (mDialog != null) {
+      mDialog.dismiss();
+    }
+  }
+
+  private void search(final String query) {
+    final int generation = ++mGeneration;
+    if (OptionIndex.normalize(query).isEmpty()) {
+      // All options, in order, no need to search
+      mAdapter.setResults(null);
+      updateEmpty();
+      return;
+    }
+    mExecutor.execute(
+      new Runnable() {
+        @Override
+        public void run() {
+          if (generation != mGeneration) {
+            return;
+          }
+          final int[] results = mOptions.getSource().search(query, MAX_RESULTS);
+          mMainHandler.post(
+            new Runnable() {
+              @Override
+              public void run() {
+                if (generation != mGeneration) {
+                  return;
+                }
+                mAdapter.setResults(results);
+                updateEmpty();
+              }
+            }
+          );
+        }
+      }
+    );
+  }
+
+  private final class ResultAdapter extends RecyclerView.Adapter<ResultHolder> {
+
+    /**
+     * Positions of options found, or null to list all options
+     */
+    private int[] mResults;
+    int mSelected = -1;
+
+    void setResults(int[] results) {
+      mResults = results;
+      notifyDataSetChanged();
+    }
+
+    @Override
+    public ResultHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+      View view = LayoutInflater.from(parent.getContext()).inflate(android.R.layout.simple_list_item_single_choice, parent, false);
+      return new ResultHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(ResultHolder holder, int position) {
+      int index = mResults == null ? position : mResults[position];
+      String option = mOptions.get(index);
+      holder.index = index;
+      // Blank until page of the option is loaded
+      holder.text.setText(option == null ? "" : option);
+      holder.text.setChecked(index == mSelected);
+    }
+
+    @Override
+    public int getItemCount() {
+      return mResults == null ? Math.max(mOptions.getCount(), 0) : mResults.length;
+    }
+  }
+
+  private final class ResultHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+    final CheckedTextView text;
+    int index;
+
+    ResultHolder(View itemView) {
+      super(itemView);
+      text = (CheckedTextView) itemView;
+      itemView.setOnClickListener(this);
+    }
+
+    @Override
+    public void onClick(View v) {
+      int picked = index;
+      dismiss();
+      mListener.onPick(picked);
+    }
+  }
+}
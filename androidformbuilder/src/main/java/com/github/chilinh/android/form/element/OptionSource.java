@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+/**
+ * Source of options of a {@link ComboBoxElement} which are loaded on demand, in pages, instead
+ * of being given up front. All methods are called on the search executor of the element, never
+ * on main thread, and may be called from more than one thread
+ */
+public interface OptionSource {
+
+  /**
+   * Method to get number of options
+   * @return
+   */
+  int getCount();
+
+  /**
+   * Method to load a page of options
+   * @param start position of first option
+   * @param count number of options, does not go past {@link #getCount()}
+   * @return options of the page, in order
+   */
+  String[] load(int start, int count);
+
+  /**
+   * Method to find options matching a query typed in picker, options starting with query
+   * should come first
+   * @param query text typed by user, not empty
+   * @param limit max number of positions to return
+   * @return positions of matching options
+   */
+  int[] search(String query, int limit);
+}
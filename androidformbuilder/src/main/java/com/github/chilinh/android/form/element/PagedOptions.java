@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Options of a {@link ComboBoxElement} as seen from main thread. Options of an
+ * {@link OptionSource} are loaded a page at a time on an executor when a row asks for one, and
+ * kept in a cache which evicts least recently used pages, so only pages around bound rows are in
+ * memory. Options given as a list are read from it directly. Used on main thread only
+ */
+final class PagedOptions {
+
+  interface OnLoadListener {
+    void onLoad();
+  }
+
+  static final int PAGE_SIZE = 50;
+  /**
+   * Must hold more pages than rows visible at once, or rows of a search spread over many pages
+   * evict each other while loading
+   */
+  private static final int MAX_PAGES = 32;
+
+  private final OptionSource mSource;
+  private final List<String> mList;
+  private final Executor mExecutor;
+  private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+  private final LruCache<Integer, String[]> mPages = new LruCache<>(MAX_PAGES);
+  private final Set<Integer> mLoading = new HashSet<>();
+  private final List<OnLoadListener> mListeners = new ArrayList<>(2);
+  private int mCount = -1;
+
+  PagedOptions(List<String> options) {
+    mSource = new ListOptionSource(options);
+    mList = options;
+    mExecutor = null;
+    mCount = options.size();
+  }
+
+  PagedOptions(OptionSource source, Executor executor) {
+    mSource = source;
+    mList = null;
+    mExecutor = executor;
+  }
+
+  OptionSource getSource() {
+    return mSource;
+  }
+
+  void addListener(OnLoadListener listener) {
+    mListeners.add(listener);
+  }
+
+  void removeListener(OnLoadListener listener) {
+    mListeners.remove(listener);
+  }
+
+  /**
+   * Method to get number of options, first call loads it in background
+   * @return number of options or -1 if not loaded yet
+   */
+  int getCount() {
+    if (mCount < 0) {
+      load(0);
+    }
+    return mCount;
+  }
+
+  /**
+   * Method to get an option, loads its page in background if not cached
+   * @param position
+   * @return option or null if its page is not loaded yet or position is out of range
+   */
+  String get(int position) {
+    if (position < 0 || (mCount >= 0 && position >= mCount)) {
+      return null;
+    }
+    if (mList != null) {
+      return mList.get(position);
+    }
+    int page = position / PAGE_SIZE;
+    String[] options = mPages.get(page);
+    if (options == null) {
+      load(page);
+      return null;
+    }
+    int offset = position - page * PAGE_SIZE;
+    return offset < options.length ? options[offset] : null;
+  }
+
+  private void load(final int page) {
+    if (mList != null || !mLoading.add(page)) {
+      return;
+    }
+    mExecutor.execute(
+      new Runnable() {
+        @Override
+        public void run() {
+          final int count = mSource.getCount();
+          int start = page * PAGE_SIZE;
+          final String[] options = start < count ? mSource.load(start, Math.min(PAGE_SIZE, count - start)) : new String[0];
+          mMainHandler.post(
+            new Runnable() {
+              @Override
+              public void run() {
+                mLoading.remove(page);
+                mCount = count;
+                mPages.put(page, options);
+                for (OnLoadListener listener : new ArrayList<>(mListeners)) {
+                  listener.onLoad();
+                }
+              }
+            }
+          );
+        }
+      }
+    );
+  }
+}
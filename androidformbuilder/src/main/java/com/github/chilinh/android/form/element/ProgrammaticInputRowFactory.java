@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import com.github.chilinh.android.form.R;
+
+/**
+ * Input row factory which builds the same view tree as {@link R.layout#form_input_element} in code
+ */
+final class ProgrammaticInputRowFactory implements InputRowFactory {
+
+  private static final int[] ATTRS_SCROLLBAR_SIZE = {android.R.attr.scrollbarSize};
+
+  private static final float LABEL_TEXT_SIZE_SP = 18;
+  private static final int LABEL_WIDTH_DP = 100;
+  private static final int PADDING_VERTICAL_DP = 2;
+  private static final int ERROR_COLOR = Color.parseColor("#cc0000");
+
+  @Override
+  public InputRow createRow(Context context) {
+    DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+
+    LinearLayout root = new LinearLayout(context);
+    root.setOrientation(LinearLayout.HORIZONTAL);
+    root.setGravity(Gravity.CENTER_VERTICAL);
+    int paddingVertical = dp(metrics, PADDING_VERTICAL_DP);
+    int paddingHorizontal = scrollbarSize(context);
+    root.setPadding(paddingHorizontal, paddingVertical, paddingHorizontal, paddingVertical);
+
+    TextView horizontalLabel = new TextView(context);
+    horizontalLabel.setId(R.id.field_label_horizontal);
+    horizontalLabel.setTextSize(LABEL_TEXT_SIZE_SP);
+    root.addView(horizontalLabel, new LinearLayout.LayoutParams(dp(metrics, LABEL_WIDTH_DP), ViewGroup.LayoutParams.WRAP_CONTENT, 0));
+
+    LinearLayout column = new LinearLayout(context);
+    column.setOrientation(LinearLayout.VERTICAL);
+    root.addView(column, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+
+    TextView verticalLabel = new TextView(context);
+    verticalLabel.setId(R.id.field_label_vertical);
+    verticalLabel.setTextSize(LABEL_TEXT_SIZE_SP);
+    verticalLabel.setVisibility(View.GONE);
+    column.addView(verticalLabel, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT, 0));
+
+    FrameLayout fieldContainer = new FrameLayout(context);
+    fieldContainer.setId(R.id.field_container);
+    column.addView(fieldContainer, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT, 1));
+
+    TextView error = new TextView(context);
+    error.setId(R.id.field_error);
+    error.setTextColor(ERROR_COLOR);
+    error.setVisibility(View.GONE);
+    column.addView(error, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+
+    return new InputRow(root, horizontalLabel, verticalLabel, fieldContainer, error);
+  }
+
+  private static int dp(DisplayMetrics metrics, int value) {
+    return Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, metrics));
+  }
+
+  private static int scrollbarSize(Context context) {
+    TypedArray a = context.getTheme().obtainStyledAttributes(ATTRS_SCROLLBAR_SIZE);
+    try {
+      return a.getDimensionPixelSize(0, 0);
+    } finally {
+      a.recycle();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.element;
+
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces refreshes of element views. Elements whose model values are changed are marked
+ * dirty and {@link BaseFormElement#onModelUpdate()} of each of them is called once on next
+ * frame, no matter how many times they are changed meanwhile.
+ * Refreshes requested outside main thread or in immediate mode, e.g. in tests, are run at once
+ */
+public final class RefreshScheduler implements Choreographer.FrameCallback {
+
+  private static final RefreshScheduler sInstance = new RefreshScheduler();
+
+  /**
+   * @return scheduler shared by all elements
+   */
+  public static RefreshScheduler getInstance() {
+    return sInstance;
+  }
+
+  private List<BaseFormElement> mPending = new ArrayList<>();
+  private List<BaseFormElement> mFlushing = new ArrayList<>();
+  private boolean mFramePosted;
+  private boolean mImmediate;
+
+  private RefreshScheduler() {
+  }
+
+  /**
+   * Method to refresh elements synchronously instead of on next frame
+   * @param immediate
+   */
+  public void setImmediate(boolean immediate) {
+    mImmediate = immediate;
+    if (immediate) {
+      flush();
+    }
+  }
+
+  public boolean isImmediate() {
+    return mImmediate;
+  }
+
+  /**
+   * Method to refresh an element on next frame
+   * @param element
+   */
+  void schedule(BaseFormElement element) {
+    if (mImmediate || Looper.myLooper() != Looper.getMainLooper()) {
+      refresh(element);
+      return;
+    }
+    if (element.mRefreshPending) {
+      return;
+    }
+    element.mRefreshPending = true;
+    mPending.add(element);
+    if (!mFramePosted) {
+      mFramePosted = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  /**
+   * Method to run pending refreshes now
+   */
+  public void flush() {
+    if (mFramePosted) {
+      mFramePosted = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+    // Refreshes may schedule other elements, they go to the other list
+    List<BaseFormElement> elements = mPending;
+    mPending = mFlushing;
+    mFlushing = elements;
+    for (int i = 0; i < elements.size(); i++) {
+      BaseFormElement element = elements.get(i);
+      element.mRefreshPending = false;
+      refresh(element);
+    }
+    elements.clear();
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    mFramePosted = false;
+    flush();
+  }
+
+  private static void refresh(BaseFormElement element) {
+    if (element.isViewCreated()) {
+      element.refresh();
+    }
+  }
+}
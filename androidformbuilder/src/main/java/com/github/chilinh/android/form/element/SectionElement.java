@@ -25,7 +25,6 @@
 package com.github.chilinh.android.form.element;
 
 import android.content.Context;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -34,6 +33,7 @@ import android.widget.TextView;
 import com.github.chilinh.android.form.FormModel;
 import com.github.chilinh.android.form.R;
 import com.github.chilinh.android.form.validator.InputError;
+import com.github.chilinh.android.form.validator.ValidationCache;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -80,6 +80,15 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
   private final CharSequence mTitle;
   private final Map<String, BaseFormElement> mElemMap = new HashMap<>();
   private final List<BaseFormElement> mElements = new ArrayList<>();
+  private ElementIndex mIndex;
+
+  void setIndex(ElementIndex index) {
+    mIndex = index;
+  }
+
+  ElementIndex getIndex() {
+    return mIndex;
+  }
 
   /**
    * Method to add element to this section at specific position
@@ -92,13 +101,17 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
       throw new IllegalArgumentException("Sub-sections are not supported");
     }
 
-    if (mElemMap.containsKey(element.getName())) {
+    if (mIndex != null ? mIndex.contains(element.getName()) : mElemMap.containsKey(element.getName())) {
       throw new IllegalArgumentException("Element with that name already exists");
     }
 
     element.setModel(mModel);
+    element.mParentEnabled = isEnabled();
     mElemMap.put(element.getName(), element);
     mElements.add(position, element);
+    if (mIndex != null) {
+      mIndex.put(element, this);
+    }
     return this;
   }
 
@@ -130,8 +143,15 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
    */
   public BaseFormElement removeElement(String name) {
     BaseFormElement element = mElemMap.remove(name);
+    if (element == null) {
+      return null;
+    }
     mElements.remove(element);
+    if (mIndex != null) {
+      mIndex.remove(name);
+    }
     element.setModel(null);
+    element.mParentEnabled = true;
     return element;
   }
 
@@ -185,17 +205,108 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
     return mTitle;
   }
 
+  /**
+   * Listener of collapse state of a section
+   */
+  public interface OnCollapseChangeListener {
+    /**
+     * Will call when section is collapsed or expanded
+     * @param section
+     * @param collapsed
+     */
+    void onCollapseChanged(SectionElement section, boolean collapsed);
+  }
+
+  private boolean mCollapsible;
+  private boolean mCollapsed;
+  private OnCollapseChangeListener mCollapseListener;
+
+  /**
+   * Method to let user collapse and expand this section by clicking its title,
+   * the section must have a title
+   * @param collapsible
+   * @return
+   */
+  public SectionElement collapsible(boolean collapsible) {
+    mCollapsible = collapsible;
+    if (isViewCreated()) {
+      applyCollapse(getHolder());
+    }
+    return this;
+  }
+
+  /**
+   * Method to collapse or expand this section. Views of elements in a collapsed section are not
+   * created until it is expanded, their values are still kept and validated through form model
+   * @param collapsed
+   * @return
+   */
+  public SectionElement collapsed(boolean collapsed) {
+    if (mCollapsed == collapsed) {
+      return this;
+    }
+    mCollapsed = collapsed;
+    if (isViewCreated()) {
+      ViewHolder holder = getHolder();
+      if (!collapsed && mMakesChildren && !mChildrenMade) {
+        makeChildren(holder);
+      }
+      applyCollapse(holder);
+    }
+    if (mCollapseListener != null) {
+      mCollapseListener.onCollapseChanged(this, collapsed);
+    }
+    return this;
+  }
+
+  /**
+   * @return true if this section is collapsed
+   */
+  public boolean isCollapsed() {
+    return mCollapsed;
+  }
+
+  /**
+   * @return true if user can collapse this section
+   */
+  public boolean isCollapsible() {
+    return mCollapsible;
+  }
+
+  /**
+   * Method to set listener of collapse state
+   * @param listener
+   */
+  public void setOnCollapseChangeListener(OnCollapseChangeListener listener) {
+    mCollapseListener = listener;
+  }
+
   /**
    * Method to validate all elements in this section
    * @param list
    * @return
    */
   public List<InputError> validate(List<InputError> list) {
+    return validate(list, null);
+  }
+
+  /**
+   * Method to validate all elements in this section, reusing results of elements which have
+   * not been changed since last validation
+   * @param list
+   * @param cache can be null
+   * @return
+   */
+  public List<InputError> validate(List<InputError> list, ValidationCache cache) {
     list = list == null ? new ArrayList<InputError>() : list;
+    if (!isVisible()) {
+      return list;
+    }
     for (BaseFormElement element : mElements) {
-      if (element instanceof BaseInputElement) {
+      // Hidden elements are not part of the form user sees
+      if (element instanceof BaseInputElement && element.isVisible()) {
         BaseInputElement field = (BaseInputElement) element;
-        list.addAll(field.validateInput());
+        list.addAll(cache != null ? cache.validate(field) : field.validateInput());
       }
     }
     return list;
@@ -211,7 +322,7 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
   }
   //endregion
 
-  private TextView mErrorView;
+  private CharSequence mError;
 
   //region Implementation
   @Override
@@ -221,16 +332,84 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
     view.setOnClickListener(null);
     view.setOnLongClickListener(null);
     view.setLongClickable(false);
+    view.setTag(new ViewHolder(view));
+    return view;
+  }
+
+  private final View.OnClickListener mToggleListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View v) {
+      collapsed(!mCollapsed);
+    }
+  };
+
+  /**
+   * True when children are made inside view of this section (linear form),
+   * false when they are rows of a recycler view
+   */
+  private boolean mMakesChildren;
+  private boolean mChildrenMade;
+
+  @Override
+  protected void onBindView(View view) {
+    ViewHolder holder = (ViewHolder) view.getTag();
+    setText(holder.title, mTitle);
+    setText(holder.error, mError);
+    applyCollapse(holder);
+  }
+
+  @Override
+  protected void onUnbindView(View view) {
+    ViewHolder holder = (ViewHolder) view.getTag();
+    holder.title.setOnClickListener(null);
+    holder.elements.removeAllViews();
+    mMakesChildren = false;
+    mChildrenMade = false;
+  }
+
+  private ViewHolder getHolder() {
+    return (ViewHolder) mView.getTag();
+  }
 
-    mErrorView = (TextView) view.findViewById(R.id.field_error);
+  private void applyCollapse(ViewHolder holder) {
+    if (mCollapsible) {
+      holder.title.setOnClickListener(mToggleListener);
+      holder.title.setCompoundDrawablesWithIntrinsicBounds(0, 0, mCollapsed ? android.R.drawable.arrow_down_float : android.R.drawable.arrow_up_float, 0);
+    } else {
+      holder.title.setOnClickListener(null);
+      holder.title.setClickable(false);
+      holder.title.setCompoundDrawablesWithIntrinsicBounds(0, 0, 0, 0);
+    }
+    holder.elements.setVisibility(mCollapsed ? View.GONE : View.VISIBLE);
+  }
 
-    if (!TextUtils.isEmpty(getTitle())) {
-      final TextView sectionView = (TextView) view.findViewById(R.id.list_item_section_text);
-      sectionView.setText(mTitle);
-      sectionView.setVisibility(View.VISIBLE);
+  private void makeChildren(ViewHolder holder) {
+    for (BaseFormElement element : mElements) {
+      element.makeView(holder.elements, mViewPool);
     }
+    mChildrenMade = true;
+  }
 
-    return view;
+  @Override
+  public Object getViewType() {
+    return SectionElement.class;
+  }
+
+  @Override
+  void applyState(View view) {
+    // Children apply their own state, disabled section is applied by them
+    view.setVisibility(isVisible() ? View.VISIBLE : View.GONE);
+    ((ViewHolder) view.getTag()).title.setEnabled(isEnabled());
+  }
+
+  @Override
+  void onEnabledChanged(boolean enabled) {
+    for (BaseFormElement element : mElements) {
+      element.mParentEnabled = enabled;
+      if (element.isViewCreated()) {
+        element.requestRefresh();
+      }
+    }
   }
 
   @Override
@@ -246,16 +425,33 @@ public final class SectionElement extends BaseFormElement<SectionElement> {
 
   @Override
   public void setError(CharSequence message) {
-    setText(mErrorView, message);
+    mError = message;
+    if (isViewCreated()) {
+      setText(getHolder().error, message);
+    }
   }
 
   @Override
   protected void onViewMake(ViewGroup container) {
-    ViewGroup viewGroup = (ViewGroup) mView.findViewById(R.id.field_section);
-    viewGroup.removeAllViews();
-    for (BaseFormElement element : mElements) {
-      element.makeView(viewGroup);
+    ViewHolder holder = getHolder();
+    holder.elements.removeAllViews();
+    mMakesChildren = true;
+    mChildrenMade = false;
+    if (!mCollapsed) {
+      makeChildren(holder);
     }
   }
   //endregion
+
+  private static final class ViewHolder {
+    final TextView title;
+    final TextView error;
+    final ViewGroup elements;
+
+    ViewHolder(View view) {
+      title = (TextView) view.findViewById(R.id.list_item_section_text);
+      error = (TextView) view.findViewById(R.id.field_error);
+      elements = (ViewGroup) view.findViewById(R.id.field_section);
+    }
+  }
 }
@@ -32,6 +32,9 @@ import android.widget.TextView;
 
 import com.github.chilinh.android.form.FormModel;
 import com.github.chilinh.android.form.R;
+import com.github.chilinh.android.form.expression.Expression;
+
+import java.text.Format;
 
 /**
  * Created by Linh on 11/11/16.
@@ -55,11 +58,53 @@ public class TextElement extends BaseFormElement<TextElement> {
   public TextElement value(CharSequence value) {
     mValue = value;
     if (isViewCreated()) {
-      mValueView.setText(mValue);
+      getHolder().value.setText(mValue);
     }
     return this;
   }
 
+  private Expression mExpression;
+  private Format mFormat;
+
+  /**
+   * Method to compute value of this element from other values of form, e.g.
+   * <code>price * quantity</code> or <code>years(birthday)</code>. See {@link Expression}
+   * @param expression
+   * @return
+   * @throws IllegalArgumentException if expression is not valid
+   */
+  public TextElement computed(String expression) {
+    return computed(expression, null);
+  }
+
+  /**
+   * Method to compute value of this element from other values of form
+   * @param expression
+   * @param format of computed value, null to format numbers with 2 decimals at most and dates in
+   *               default format
+   * @return
+   * @throws IllegalArgumentException if expression is not valid
+   */
+  public TextElement computed(String expression, Format format) {
+    mExpression = expression == null ? null : Expression.compile(expression);
+    mFormat = format;
+    return this;
+  }
+
+  /**
+   * @return expression of computed value or null
+   */
+  public Expression getExpression() {
+    return mExpression;
+  }
+
+  /**
+   * @return format of computed value or null
+   */
+  public Format getFormat() {
+    return mFormat;
+  }
+
   private CharSequence mPlaceholder;
 
   /**
@@ -70,7 +115,7 @@ public class TextElement extends BaseFormElement<TextElement> {
   public TextElement placeholder(CharSequence placeholder) {
     mPlaceholder = placeholder;
     if (isViewCreated()) {
-      mValueView.setHint(mPlaceholder);
+      getHolder().value.setHint(mPlaceholder);
     }
     return this;
   }
@@ -85,8 +130,7 @@ public class TextElement extends BaseFormElement<TextElement> {
   public TextElement labelTypeface(int typeface) {
     mLabelTypeface = typeface;
     if (isViewCreated()) {
-      TextView label = (TextView) getView().findViewById(R.id.field_label);
-      applyTypeface(label, mLabelTypeface);
+      applyTypeface(getHolder().label, mLabelTypeface);
     }
     return this;
   }
@@ -101,13 +145,16 @@ public class TextElement extends BaseFormElement<TextElement> {
   public TextElement valueTypeface(int typeface) {
     mValueTypeface = typeface;
     if (isViewCreated()) {
-      applyTypeface(mValueView, mValueTypeface);
+      applyTypeface(getHolder().value, mValueTypeface);
     }
     return this;
   }
 
   private final CharSequence mLabelText;
-  private TextView mValueView;
+
+  private ViewHolder getHolder() {
+    return (ViewHolder) mView.getTag();
+  }
 
   private void internalRefresh(TextView view) {
     CharSequence value = mModel.get(mName, mValue);
@@ -117,16 +164,24 @@ public class TextElement extends BaseFormElement<TextElement> {
   @Override
   protected View createView(Context context) {
     View view = LayoutInflater.from(context).inflate(R.layout.form_value_element, null);
+    view.setTag(new ViewHolder(view));
+    return view;
+  }
 
-    TextView label = (TextView) view.findViewById(R.id.field_label);
-    applyTypeface(label, mLabelTypeface);
-    setText(label, mLabelText);
+  @Override
+  protected void onBindView(View view) {
+    ViewHolder holder = (ViewHolder) view.getTag();
+    applyTypeface(holder.label, mLabelTypeface);
+    setText(holder.label, mLabelText);
+
+    holder.value.setHint(mPlaceholder);
+    applyTypeface(holder.value, mValueTypeface);
+    internalRefresh(holder.value);
+  }
 
-    mValueView = (TextView) view.findViewById(R.id.field_value);
-    mValueView.setHint(mPlaceholder);
-    applyTypeface(mValueView, mValueTypeface);
-    internalRefresh(mValueView);
-    return view;
+  @Override
+  public Object getViewType() {
+    return getClass();
   }
 
   @Override
@@ -135,7 +190,7 @@ public class TextElement extends BaseFormElement<TextElement> {
 
   @Override
   protected void onModelUpdate() {
-    internalRefresh(mValueView);
+    internalRefresh(getHolder().value);
   }
 
   @Override
@@ -145,4 +200,14 @@ public class TextElement extends BaseFormElement<TextElement> {
   @Override
   public void setError(CharSequence message) {
   }
+
+  private static final class ViewHolder {
+    final TextView label;
+    final TextView value;
+
+    ViewHolder(View view) {
+      label = (TextView) view.findViewById(R.id.field_label);
+      value = (TextView) view.findViewById(R.id.field_value);
+    }
+  }
 }
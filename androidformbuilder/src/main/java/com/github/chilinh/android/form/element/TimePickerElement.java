@@ -32,6 +32,8 @@ import android.view.View;
 import android.widget.EditText;
 import android.widget.TimePicker;
 
+import com.github.chilinh.android.form.FormModel;
+
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -79,9 +81,8 @@ public class TimePickerElement extends BaseInputElement<TimePickerElement> {
    */
   public TimePickerElement time(Date time) {
     mInitTime = time;
-    if (isViewCreated()) {
+    if (mModel != null) {
       mModel.set(mName, mInitTime);
-      internalRefresh(getEditText());
     }
     return this;
   }
@@ -106,9 +107,9 @@ public class TimePickerElement extends BaseInputElement<TimePickerElement> {
           calendar.setTimeZone(timeZone);
           calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
           calendar.set(Calendar.MINUTE, minute);
-          mModel.set(mName, calendar.getTime());
-          internalRefresh(getEditText());
-        }
+          Date time = calendar.getTime();
+          mModel.set(mName, time);
+          onValueChanged(time);        }
       }, calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE), mIs24Hour);
       mTimePickerDialog.setOnDismissListener(new DialogInterface.OnDismissListener() {
         @Override
@@ -129,31 +130,58 @@ public class TimePickerElement extends BaseInputElement<TimePickerElement> {
     return (EditText) getFieldView();
   }
 
+  private final View.OnClickListener mClickListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View v) {
+      showTimePickerDialog(v.getContext());
+    }
+  };
+
+  private final View.OnFocusChangeListener mFocusListener = new View.OnFocusChangeListener() {
+    @Override
+    public void onFocusChange(View v, boolean hasFocus) {
+      if (hasFocus) {
+        showTimePickerDialog(v.getContext());
+      }
+    }
+  };
+
   @Override
-  protected View createFieldView(final Context context) {
-    final EditText editText = new EditText(context);
+  protected View createFieldView(Context context) {
+    EditText editText = new EditText(context);
     editText.setSingleLine(true);
     editText.setInputType(InputType.TYPE_CLASS_DATETIME | InputType.TYPE_DATETIME_VARIATION_TIME);
     editText.setKeyListener(null);
-    mModel.set(mName, mInitTime);
-    internalRefresh(editText);
-    editText.setOnClickListener(new View.OnClickListener() {
-      @Override
-      public void onClick(View v) {
-        showTimePickerDialog(context);
-      }
-    });
-    editText.setOnFocusChangeListener(new View.OnFocusChangeListener() {
-      @Override
-      public void onFocusChange(View v, boolean hasFocus) {
-        if (hasFocus) {
-          showTimePickerDialog(context);
-        }
-      }
-    });
     return editText;
   }
 
+  @Override
+  protected void onBindFieldView(View fieldView) {
+    EditText editText = (EditText) fieldView;
+    internalRefresh(editText);
+    editText.setOnClickListener(mClickListener);
+    editText.setOnFocusChangeListener(mFocusListener);
+  }
+
+  @Override
+  protected void onUnbindFieldView(View fieldView) {
+    fieldView.setOnClickListener(null);
+    fieldView.setOnFocusChangeListener(null);
+  }
+
+  @Override
+  protected void onSetModel(FormModel model) {
+    super.onSetModel(model);
+    if (model != null) {
+      model.setDefault(mName, mInitTime);
+    }
+  }
+
+  @Override
+  public Object getViewType() {
+    return getClass();
+  }
+
   @Override
   protected void onModelUpdate() {
     internalRefresh(getEditText());
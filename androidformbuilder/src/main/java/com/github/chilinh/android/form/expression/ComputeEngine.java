@@ -0,0 +1,271 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.expression;
+
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.element.TextElement;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.Format;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps values of computed {@link TextElement}s of a form up to date. Elements are sorted once
+ * so that an element comes after elements it reads. When a value of model is changed only
+ * elements which read it are computed again, in that order. Computed values are kept, so an
+ * element reading another computed element takes its value without computing it again, and
+ * elements whose inputs did not change are not computed.
+ * Values are written to model as formatted text
+ */
+public final class ComputeEngine {
+
+  /**
+   * Elements in topological order
+   */
+  private final TextElement[] mElements;
+  private final Expression[] mExpressions;
+  private final Map<String, Integer> mPositions = new HashMap<>();
+  /**
+   * Positions of elements which read a value, by name of value
+   */
+  private final Map<String, int[]> mDependents = new HashMap<>();
+  private final Object[] mValues;
+  private final BitSet mComputed;
+  private final BitSet mPending;
+  private final DecimalFormat mNumberFormat = new DecimalFormat("0.##");
+  private final DateFormat mDateFormat = DateFormat.getDateInstance();
+  private FormModel mModel;
+  private boolean mRunning;
+
+  /**
+   * @param elements which have an expression
+   * @throws IllegalArgumentException if elements read each other in a cycle
+   */
+  public ComputeEngine(Collection<TextElement> elements) {
+    mElements = sort(elements.toArray(new TextElement[elements.size()]));
+    mExpressions = new Expression[mElements.length];
+    mValues = new Object[mElements.length];
+    mComputed = new BitSet(mElements.length);
+    mPending = new BitSet(mElements.length);
+
+    Map<String, List<Integer>> dependents = new HashMap<>();
+    for (int i = 0; i < mElements.length; i++) {
+      mExpressions[i] = mElements[i].getExpression();
+      mPositions.put(mElements[i].getName(), i);
+      for (String name : mExpressions[i].variables()) {
+        List<Integer> positions = dependents.get(name);
+        if (positions == null) {
+          positions = new ArrayList<>();
+          dependents.put(name, positions);
+        }
+        positions.add(i);
+      }
+    }
+    for (Map.Entry<String, List<Integer>> entry : dependents.entrySet()) {
+      int[] positions = new int[entry.getValue().size()];
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] = entry.getValue().get(i);
+      }
+      mDependents.put(entry.getKey(), positions);
+    }
+  }
+
+  /**
+   * Method to compute elements from values of model and keep them computed while it changes
+   * @param model
+   */
+  public void attach(FormModel model) {
+    detach();
+    mModel = model;
+    for (String name : mDependents.keySet()) {
+      // Computed values are passed on by this engine
+      if (!mPositions.containsKey(name)) {
+        // Weak, a retained model may outlive the form
+        model.addListener(name, mModelListener, true);
+      }
+    }
+    mComputed.clear();
+    mPending.set(0, mElements.length);
+    run();
+  }
+
+  /**
+   * Method to stop computing
+   */
+  public void detach() {
+    if (mModel == null) {
+      return;
+    }
+    for (String name : mDependents.keySet()) {
+      if (!mPositions.containsKey(name)) {
+        mModel.removeListener(name, mModelListener);
+      }
+    }
+    mModel = null;
+    mPending.clear();
+  }
+
+  /**
+   * @param name of a computed element
+   * @return last computed value, a Double, String, Date, Boolean or null
+   */
+  public Object getValue(String name) {
+    Integer position = mPositions.get(name);
+    return position == null ? null : mValues[position];
+  }
+
+  private final FormModel.OnChangeListener mModelListener = new FormModel.OnChangeListener() {
+    @Override
+    public void onChanged(FormModel model, String name) {
+      markDependents(name);
+      run();
+    }
+  };
+
+  private final Expression.Scope mScope = new Expression.Scope() {
+    @Override
+    public Object get(String name) {
+      Integer position = mPositions.get(name);
+      return position != null ? mValues[position] : mModel.get(name);
+    }
+  };
+
+  private void markDependents(String name) {
+    int[] positions = mDependents.get(name);
+    if (positions != null) {
+      for (int position : positions) {
+        mPending.set(position);
+      }
+    }
+  }
+
+  private void run() {
+    if (mRunning) {
+      return;
+    }
+    mRunning = true;
+    try {
+      for (int i = mPending.nextSetBit(0); i >= 0 && mModel != null; i = mPending.nextSetBit(0)) {
+        mPending.clear(i);
+        compute(i);
+      }
+    } finally {
+      mRunning = false;
+    }
+  }
+
+  private void compute(int position) {
+    Object value = mExpressions[position].evaluate(mScope);
+    if (mComputed.get(position) && Objects.equals(value, mValues[position])) {
+      return;
+    }
+    mValues[position] = value;
+    mComputed.set(position);
+    TextElement element = mElements[position];
+    mModel.set(element.getName(), format(element.getFormat(), value));
+    markDependents(element.getName());
+  }
+
+  private String format(Format format, Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (format != null) {
+      return format.format(value);
+    }
+    if (value instanceof Number) {
+      return mNumberFormat.format(value);
+    }
+    if (value instanceof Date) {
+      return mDateFormat.format((Date) value);
+    }
+    return value.toString();
+  }
+
+  /**
+   * Kahn's sort, an element comes after elements it reads
+   * @throws IllegalArgumentException if there is a cycle
+   */
+  private static TextElement[] sort(TextElement[] elements) {
+    Map<String, Integer> positions = new HashMap<>();
+    for (int i = 0; i < elements.length; i++) {
+      positions.put(elements[i].getName(), i);
+    }
+
+    int[] inDegree = new int[elements.length];
+    List<List<Integer>> readers = new ArrayList<>(elements.length);
+    for (int i = 0; i < elements.length; i++) {
+      readers.add(new ArrayList<Integer>());
+    }
+    for (int i = 0; i < elements.length; i++) {
+      for (String name : elements[i].getExpression().variables()) {
+        Integer source = positions.get(name);
+        if (source != null) {
+          readers.get(source).add(i);
+          inDegree[i]++;
+        }
+      }
+    }
+
+    Deque<Integer> ready = new ArrayDeque<>();
+    for (int i = 0; i < elements.length; i++) {
+      if (inDegree[i] == 0) {
+        ready.add(i);
+      }
+    }
+    TextElement[] sorted = new TextElement[elements.length];
+    int count = 0;
+    while (!ready.isEmpty()) {
+      int i = ready.poll();
+      sorted[count++] = elements[i];
+      for (int reader : readers.get(i)) {
+        if (--inDegree[reader] == 0) {
+          ready.add(reader);
+        }
+      }
+    }
+
+    if (count < elements.length) {
+      StringBuilder cycle = new StringBuilder();
+      for (int i = 0; i < elements.length; i++) {
+        if (inDegree[i] > 0) {
+          cycle.append(cycle.length() > 0 ? ", " : "").append(elements[i].getName());
+        }
+      }
+      throw new IllegalArgumentException("Computed elements " + cycle + " read each other in a cycle");
+    }
+    return sorted;
+  }
+}
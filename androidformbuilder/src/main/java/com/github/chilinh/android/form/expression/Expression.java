@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.expression;
+
+import java.util.Set;
+
+/**
+ * Expression compiled once into a tree of nodes which is evaluated without parsing.
+ * <p>
+ * Values are numbers (evaluated as Double), text, dates and booleans. A variable is a name of a
+ * value of form model, e.g. <code>price</code>, or <code>[any name]</code> if the name is not a
+ * plain identifier. Text that is a number counts as a number. Operators are
+ * <code>+ - * / %</code> (<code>+</code> joins text that is not a number),
+ * <code>== != &lt; &lt;= &gt; &gt;=</code>, <code>&amp;&amp; || !</code> and
+ * <code>condition ? a : b</code>. Functions are:
+ * <ul>
+ *   <li><code>years(date)</code>: full years from date until now, e.g. an age</li>
+ *   <li><code>days(from, to)</code>: calendar days between dates, times of day are ignored</li>
+ *   <li><code>minutes(from, to)</code>: minutes between times of day, past midnight if
+ *   <code>to</code> is before <code>from</code></li>
+ *   <li><code>round(x)</code>, <code>round(x, digits)</code>, <code>abs(x)</code>,
+ *   <code>min(x, y, ...)</code>, <code>max(x, y, ...)</code></li>
+ * </ul>
+ * If a value an operator needs is not set, the result is null. An expression is evaluated by
+ * one thread at a time
+ */
+public final class Expression {
+
+  /**
+   * Source of values of variables
+   */
+  public interface Scope {
+    /**
+     * @param name of variable
+     * @return value or null
+     */
+    Object get(String name);
+  }
+
+  private final String mSource;
+  private final Node mRoot;
+  private final String[] mVariables;
+
+  Expression(String source, Node root, Set<String> variables) {
+    mSource = source;
+    mRoot = root;
+    mVariables = variables.toArray(new String[variables.size()]);
+  }
+
+  /**
+   * Method to compile an expression
+   * @param source
+   * @return
+   * @throws IllegalArgumentException if source is not a valid expression
+   */
+  public static Expression compile(String source) {
+    return new Parser(source).parse();
+  }
+
+  /**
+   * @param scope of variables
+   * @return a Double, String, Date, Boolean or null
+   */
+  public Object evaluate(Scope scope) {
+    return mRoot.evaluate(scope);
+  }
+
+  /**
+   * @return names of variables read by this expression
+   */
+  public String[] getVariables() {
+    return mVariables.clone();
+  }
+
+  String[] variables() {
+    return mVariables;
+  }
+
+  public String getSource() {
+    return mSource;
+  }
+
+  @Override
+  public String toString() {
+    return mSource;
+  }
+}
@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.expression;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Node of a compiled {@link Expression}
+ */
+abstract class Node {
+
+  private static final long MINUTES_PER_DAY = 24 * 60;
+  private static final long MILLIS_PER_DAY = MINUTES_PER_DAY * 60 * 1000;
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+  abstract Object evaluate(Expression.Scope scope);
+
+  static final class Constant extends Node {
+    private final Object mValue;
+
+    Constant(Object value) {
+      mValue = value;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      return mValue;
+    }
+  }
+
+  static final class Variable extends Node {
+    private final String mName;
+
+    Variable(String name) {
+      mName = name;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      Object value = scope.get(mName);
+      // Text may be a live editable
+      return value instanceof CharSequence && !(value instanceof String) ? value.toString() : value;
+    }
+  }
+
+  static final class Negate extends Node {
+    private final Node mOperand;
+
+    Negate(Node operand) {
+      mOperand = operand;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      Double value = toNumber(mOperand.evaluate(scope));
+      return value == null ? null : -value;
+    }
+  }
+
+  static final class Not extends Node {
+    private final Node mOperand;
+
+    Not(Node operand) {
+      mOperand = operand;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      return !isTrue(mOperand.evaluate(scope));
+    }
+  }
+
+  static final class Conditional extends Node {
+    private final Node mCondition;
+    private final Node mThen;
+    private final Node mElse;
+
+    Conditional(Node condition, Node then, Node otherwise) {
+      mCondition = condition;
+      mThen = then;
+      mElse = otherwise;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      return isTrue(mCondition.evaluate(scope)) ? mThen.evaluate(scope) : mElse.evaluate(scope);
+    }
+  }
+
+  static final class And extends Node {
+    private final Node mLeft;
+    private final Node mRight;
+
+    And(Node left, Node right) {
+      mLeft = left;
+      mRight = right;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      return isTrue(mLeft.evaluate(scope)) && isTrue(mRight.evaluate(scope));
+    }
+  }
+
+  static final class Or extends Node {
+    private final Node mLeft;
+    private final Node mRight;
+
+    Or(Node left, Node right) {
+      mLeft = left;
+      mRight = right;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      return isTrue(mLeft.evaluate(scope)) || isTrue(mRight.evaluate(scope));
+    }
+  }
+
+  static final class Binary extends Node {
+    private final char mOperator;
+    private final Node mLeft;
+    private final Node mRight;
+
+    /**
+     * @param operator one of + - * / % = ! &lt; l(ess or equal) &gt; g(reater or equal)
+     */
+    Binary(char operator, Node left, Node right) {
+      mOperator = operator;
+      mLeft = left;
+      mRight = right;
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      Object left = mLeft.evaluate(scope);
+      Object right = mRight.evaluate(scope);
+      switch (mOperator) {
+        case '=':
+          return equal(left, right);
+        case '!':
+          return !equal(left, right);
+        default:
+          break;
+      }
+
+      Double a = toNumber(left);
+      Double b = toNumber(right);
+      if (mOperator == '+' && left != null && right != null && (a == null || b == null)) {
+        return String.valueOf(left) + right;
+      }
+      if (a == null || b == null) {
+        return compareDates(left, right);
+      }
+      switch (mOperator) {
+        case '+':
+          return a + b;
+        case '-':
+          return a - b;
+        case '*':
+          return a * b;
+        case '/':
+          return a / b;
+        case '%':
+          return a % b;
+        default:
+          return compare(Double.compare(a, b));
+      }
+    }
+
+    private Object compareDates(Object left, Object right) {
+      if (left instanceof Date && right instanceof Date) {
+        return compare(((Date) left).compareTo((Date) right));
+      }
+      return null;
+    }
+
+    private Object compare(int order) {
+      switch (mOperator) {
+        case '<':
+          return order < 0;
+        case 'l':
+          return order <= 0;
+        case '>':
+          return order > 0;
+        case 'g':
+          return order >= 0;
+        default:
+          return null;
+      }
+    }
+  }
+
+  enum Function {
+    YEARS(1, 1), DAYS(2, 2), MINUTES(2, 2), ROUND(1, 2), ABS(1, 1), MIN(1, Integer.MAX_VALUE), MAX(1, Integer.MAX_VALUE);
+
+    final int minArity;
+    final int maxArity;
+
+    Function(int minArity, int maxArity) {
+      this.minArity = minArity;
+      this.maxArity = maxArity;
+    }
+  }
+
+  static final class Call extends Node {
+    private final Function mFunction;
+    private final Node[] mArguments;
+    private final Object[] mValues;
+
+    Call(Function function, Node[] arguments) {
+      mFunction = function;
+      mArguments = arguments;
+      mValues = new Object[arguments.length];
+    }
+
+    @Override
+    Object evaluate(Expression.Scope scope) {
+      // Arguments are evaluated on one thread, so their values are kept in a reused array
+      Object[] values = mValues;
+      for (int i = 0; i < values.length; i++) {
+        values[i] = mArguments[i].evaluate(scope);
+        if (values[i] == null) {
+          return null;
+        }
+      }
+      try {
+        return call(values);
+      } finally {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = null;
+        }
+      }
+    }
+
+    private Object call(Object[] values) {
+      switch (mFunction) {
+        case YEARS:
+          return years(values[0]);
+        case DAYS:
+          return days(values[0], values[1]);
+        case MINUTES:
+          return minutes(values[0], values[1]);
+        case ROUND: {
+          Double value = toNumber(values[0]);
+          Double digits = values.length > 1 ? toNumber(values[1]) : Double.valueOf(0);
+          if (value == null || digits == null) {
+            return null;
+          }
+          double scale = Math.pow(10, digits.intValue());
+          return Math.round(value * scale) / scale;
+        }
+        case ABS: {
+          Double value = toNumber(values[0]);
+          return value == null ? null : Math.abs(value);
+        }
+        default: {
+          Double result = null;
+          for (Object v : values) {
+            Double value = toNumber(v);
+            if (value == null) {
+              return null;
+            }
+            result = result == null ? value : mFunction == Function.MIN ? Math.min(result, value) : Math.max(result, value);
+          }
+          return result;
+        }
+      }
+    }
+
+    private static Object years(Object date) {
+      if (!(date instanceof Date)) {
+        return null;
+      }
+      Calendar from = Calendar.getInstance();
+      from.setTime((Date) date);
+      Calendar now = Calendar.getInstance();
+      int years = now.get(Calendar.YEAR) - from.get(Calendar.YEAR);
+      if (now.get(Calendar.MONTH) < from.get(Calendar.MONTH)
+        || now.get(Calendar.MONTH) == from.get(Calendar.MONTH) && now.get(Calendar.DAY_OF_MONTH) < from.get(Calendar.DAY_OF_MONTH)) {
+        years--;
+      }
+      return (double) years;
+    }
+
+    private static Object days(Object from, Object to) {
+      if (!(from instanceof Date) || !(to instanceof Date)) {
+        return null;
+      }
+      // Dates picked in a day keep the time they were picked at, and a day may be 23 or 25 hours
+      return (double) (epochDay((Date) to) - epochDay((Date) from));
+    }
+
+    /**
+     * @return number of calendar day of date in default time zone, counted from 1970-01-01
+     */
+    private static long epochDay(Date date) {
+      Calendar local = Calendar.getInstance();
+      local.setTime(date);
+      Calendar utc = Calendar.getInstance(UTC);
+      utc.clear();
+      utc.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DAY_OF_MONTH));
+      // UTC midnight is a whole number of days, even before 1970
+      return utc.getTimeInMillis() / MILLIS_PER_DAY;
+    }
+
+    private static Object minutes(Object from, Object to) {
+      if (!(from instanceof Date) || !(to instanceof Date)) {
+        return null;
+      }
+      long minutes = minuteOfDay((Date) to) - minuteOfDay((Date) from);
+      return (double) (minutes < 0 ? minutes + MINUTES_PER_DAY : minutes);
+    }
+
+    private static long minuteOfDay(Date time) {
+      Calendar calendar = Calendar.getInstance();
+      calendar.setTime(time);
+      return calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+    }
+  }
+
+  /**
+   * @return value as number, null if it is not a number
+   */
+  static Double toNumber(Object value) {
+    if (value instanceof Double) {
+      return (Double) value;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    if (value instanceof String) {
+      String text = ((String) value).trim();
+      if (text.isEmpty()) {
+        return null;
+      }
+      try {
+        return Double.valueOf(text);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  static boolean isTrue(Object value) {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue() != 0;
+    }
+    if (value instanceof String) {
+      return !((String) value).isEmpty();
+    }
+    return value != null;
+  }
+
+  static boolean equal(Object left, Object right) {
+    Double a = toNumber(left);
+    Double b = toNumber(right);
+    if (a != null && b != null) {
+      return a.doubleValue() == b.doubleValue();
+    }
+    return left == null ? right == null : left.equals(right);
+  }
+}
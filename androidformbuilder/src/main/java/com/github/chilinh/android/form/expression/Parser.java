@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.expression;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Recursive descent parser of {@link Expression}, from lowest precedence:
+ * <pre>
+ * conditional := or ('?' conditional ':' conditional)?
+ * or          := and ('||' and)*
+ * and         := equality ('&amp;&amp;' equality)*
+ * equality    := comparison (('==' | '!=') comparison)*
+ * comparison  := additive (('&lt;' | '&lt;=' | '&gt;' | '&gt;=') additive)*
+ * additive    := term (('+' | '-') term)*
+ * term        := unary (('*' | '/' | '%') unary)*
+ * unary       := ('-' | '!') unary | primary
+ * primary     := number | 'text' | "text" | true | false | null
+ *              | name '(' arguments ')' | name | '[' name ']' | '(' conditional ')'
+ * </pre>
+ */
+final class Parser {
+
+  private final String mSource;
+  private final Set<String> mVariables = new LinkedHashSet<>();
+  private int mPosition;
+
+  Parser(String source) {
+    mSource = source;
+  }
+
+  Expression parse() {
+    Node root = conditional();
+    skipSpaces();
+    if (mPosition < mSource.length()) {
+      throw error("Unexpected " + mSource.charAt(mPosition));
+    }
+    return new Expression(mSource, root, mVariables);
+  }
+
+  private Node conditional() {
+    Node condition = or();
+    if (!match("?")) {
+      return condition;
+    }
+    Node then = conditional();
+    expect(":");
+    return new Node.Conditional(condition, then, conditional());
+  }
+
+  private Node or() {
+    Node node = and();
+    while (match("||")) {
+      node = new Node.Or(node, and());
+    }
+    return node;
+  }
+
+  private Node and() {
+    Node node = equality();
+    while (match("&&")) {
+      node = new Node.And(node, equality());
+    }
+    return node;
+  }
+
+  private Node equality() {
+    Node node = comparison();
+    while (true) {
+      if (match("==")) {
+        node = new Node.Binary('=', node, comparison());
+      } else if (match("!=")) {
+        node = new Node.Binary('!', node, comparison());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node comparison() {
+    Node node = additive();
+    while (true) {
+      if (match("<=")) {
+        node = new Node.Binary('l', node, additive());
+      } else if (match(">=")) {
+        node = new Node.Binary('g', node, additive());
+      } else if (match("<")) {
+        node = new Node.Binary('<', node, additive());
+      } else if (match(">")) {
+        node = new Node.Binary('>', node, additive());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node additive() {
+    Node node = term();
+    while (true) {
+      if (match("+")) {
+        node = new Node.Binary('+', node, term());
+      } else if (match("-")) {
+        node = new Node.Binary('-', node, term());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node term() {
+    Node node = unary();
+    while (true) {
+      if (match("*")) {
+        node = new Node.Binary('*', node, unary());
+      } else if (match("/")) {
+        node = new Node.Binary('/', node, unary());
+      } else if (match("%")) {
+        node = new Node.Binary('%', node, unary());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node unary() {
+    if (match("-")) {
+      return new Node.Negate(unary());
+    }
+    if (match("!")) {
+      return new Node.Not(unary());
+    }
+    return primary();
+  }
+
+  private Node primary() {
+    skipSpaces();
+    if (mPosition >= mSource.length()) {
+      throw error("Unexpected end");
+    }
+    char c = mSource.charAt(mPosition);
+    if (c == '(') {
+      mPosition++;
+      Node node = conditional();
+      expect(")");
+      return node;
+    }
+    if (c == '\'' || c == '"') {
+      return new Node.Constant(text(c));
+    }
+    if (c == '[') {
+      int end = mSource.indexOf(']', mPosition);
+      if (end < 0) {
+        throw error("Missing ]");
+      }
+      String name = mSource.substring(mPosition + 1, end);
+      mPosition = end + 1;
+      return variable(name);
+    }
+    if (Character.isDigit(c) || c == '.') {
+      return new Node.Constant(number());
+    }
+    if (Character.isJavaIdentifierStart(c)) {
+      String name = identifier();
+      switch (name) {
+        case "true":
+          return new Node.Constant(Boolean.TRUE);
+        case "false":
+          return new Node.Constant(Boolean.FALSE);
+        case "null":
+          return new Node.Constant(null);
+        default:
+          break;
+      }
+      if (match("(")) {
+        return call(name);
+      }
+      return variable(name);
+    }
+    throw error("Unexpected " + c);
+  }
+
+  private Node variable(String name) {
+    mVariables.add(name);
+    return new Node.Variable(name);
+  }
+
+  private Node call(String name) {
+    int start = mPosition;
+    Node.Function function;
+    try {
+      function = Node.Function.valueOf(name.toUpperCase(Locale.US));
+    } catch (IllegalArgumentException e) {
+      throw error("Unknown function " + name);
+    }
+    List<Node> arguments = new ArrayList<>();
+    if (!match(")")) {
+      do {
+        arguments.add(conditional());
+      } while (match(","));
+      expect(")");
+    }
+    if (arguments.size() < function.minArity || arguments.size() > function.maxArity) {
+      mPosition = start;
+      throw error("Wrong number of arguments of " + name);
+    }
+    return new Node.Call(function, arguments.toArray(new Node[arguments.size()]));
+  }
+
+  private String text(char quote) {
+    StringBuilder text = new StringBuilder();
+    mPosition++;
+    while (mPosition < mSource.length()) {
+      char c = mSource.charAt(mPosition++);
+      if (c == quote) {
+        return text.toString();
+      }
+      if (c == '\\' && mPosition < mSource.length()) {
+        c = mSource.charAt(mPosition++);
+      }
+      text.append(c);
+    }
+    throw error("Missing " + quote);
+  }
+
+  private Double number() {
+    int start = mPosition;
+    while (mPosition < mSource.length() && (Character.isDigit(mSource.charAt(mPosition)) || mSource.charAt(mPosition) == '.')) {
+      mPosition++;
+    }
+    try {
+      return Double.valueOf(mSource.substring(start, mPosition));
+    } catch (NumberFormatException e) {
+      mPosition = start;
+      throw error("Invalid number");
+    }
+  }
+
+  private String identifier() {
+    int start = mPosition;
+    while (mPosition < mSource.length() && Character.isJavaIdentifierPart(mSource.charAt(mPosition))) {
+      mPosition++;
+    }
+    return mSource.substring(start, mPosition);
+  }
+
+  private boolean match(String token) {
+    skipSpaces();
+    if (!mSource.startsWith(token, mPosition)) {
+      return false;
+    }
+    // A single character token must not be the start of a longer one, e.g. < of <=
+    if (token.length() == 1 && mPosition + 1 < mSource.length()) {
+      char next = mSource.charAt(mPosition + 1);
+      if ((token.equals("<") || token.equals(">") || token.equals("!")) && next == '=') {
+        return false;
+      }
+    }
+    mPosition += token.length();
+    return true;
+  }
+
+  private void expect(String token) {
+    if (!match(token)) {
+      throw error("Expected " + token);
+    }
+  }
+
+  private void skipSpaces() {
+    while (mPosition < mSource.length() && Character.isWhitespace(mSource.charAt(mPosition))) {
+      mPosition++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at " + mPosition + " of expression: " + mSource);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.rule;
+
+import com.github.chilinh.android.form.FormModel;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Condition of a {@link Rule} on values of model. A condition declares the names of values it
+ * reads, it is evaluated again only when one of them is changed, e.g.
+ * <pre>
+ * new Condition("age") {
+ *   public boolean test(FormModel model) {
+ *     return model.getInt("age", 0) >= 18;
+ *   }
+ * }
+ * </pre>
+ */
+public abstract class Condition {
+
+  private final String[] mDependencies;
+
+  /**
+   * @param dependencies names of values read by {@link #test(FormModel)}
+   */
+  protected Condition(String... dependencies) {
+    mDependencies = dependencies.clone();
+  }
+
+  /**
+   * @param model
+   * @return true if condition holds for values of model
+   */
+  public abstract boolean test(FormModel model);
+
+  /**
+   * @return names of values read by this condition
+   */
+  public final String[] getDependencies() {
+    return mDependencies.clone();
+  }
+
+  final String[] dependencies() {
+    return mDependencies;
+  }
+
+  /**
+   * @param name
+   * @param value
+   * @return condition that value of name equals value
+   */
+  public static Condition equalTo(final String name, final Object value) {
+    return new Condition(name) {
+      @Override
+      public boolean test(FormModel model) {
+        Object current = model.get(name);
+        if (current instanceof CharSequence && value instanceof CharSequence) {
+          // Text of an edit text is not a string, compare characters
+          return current.toString().contentEquals((CharSequence) value);
+        }
+        return current == null ? value == null : current.equals(value);
+      }
+    };
+  }
+
+  /**
+   * @param name of a combo box
+   * @param index of option
+   * @return condition that option at index is selected
+   */
+  public static Condition selected(final String name, final int index) {
+    return new Condition(name) {
+      @Override
+      public boolean test(FormModel model) {
+        return model.getInt(name, -1) == index;
+      }
+    };
+  }
+
+  /**
+   * @param name
+   * @return condition that value of name is set and not empty text
+   */
+  public static Condition notEmpty(final String name) {
+    return new Condition(name) {
+      @Override
+      public boolean test(FormModel model) {
+        Object value = model.get(name);
+        return value instanceof CharSequence ? ((CharSequence) value).length() > 0 : value != null;
+      }
+    };
+  }
+
+  /**
+   * @param condition
+   * @return condition that condition does not hold
+   */
+  public static Condition not(final Condition condition) {
+    return new Condition(condition.mDependencies) {
+      @Override
+      public boolean test(FormModel model) {
+        return !condition.test(model);
+      }
+    };
+  }
+
+  /**
+   * @param conditions
+   * @return condition that all conditions hold
+   */
+  public static Condition and(final Condition... conditions) {
+    return new Condition(dependenciesOf(conditions)) {
+      @Override
+      public boolean test(FormModel model) {
+        for (Condition condition : conditions) {
+          if (!condition.test(model)) {
+            return false;
+          }
+        }
+        return true;
+      }
+    };
+  }
+
+  /**
+   * @param conditions
+   * @return condition that one of conditions holds
+   */
+  public static Condition or(final Condition... conditions) {
+    return new Condition(dependenciesOf(conditions)) {
+      @Override
+      public boolean test(FormModel model) {
+        for (Condition condition : conditions) {
+          if (condition.test(model)) {
+            return true;
+          }
+        }
+        return false;
+      }
+    };
+  }
+
+  private static String[] dependenciesOf(Condition[] conditions) {
+    Set<String> names = new LinkedHashSet<>();
+    for (Condition condition : conditions) {
+      names.addAll(Arrays.asList(condition.mDependencies));
+    }
+    return names.toArray(new String[names.size()]);
+  }
+}
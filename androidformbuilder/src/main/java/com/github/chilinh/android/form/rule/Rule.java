@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.rule;
+
+/**
+ * Rule which shows or enables an element or a section of form while its {@link Condition} holds.
+ * Add rules by {@link com.github.chilinh.android.form.Form.Builder#addRule(Rule)}
+ */
+public final class Rule {
+
+  public enum Effect {
+    /**
+     * Target is shown while condition holds and hidden otherwise
+     */
+    VISIBLE,
+    /**
+     * Target is enabled while condition holds and disabled otherwise
+     */
+    ENABLED
+  }
+
+  final String target;
+  final Effect effect;
+  final Condition condition;
+
+  private Rule(String target, Effect effect, Condition condition) {
+    if (target == null || condition == null) {
+      throw new NullPointerException("Rule needs target and condition");
+    }
+    this.target = target;
+    this.effect = effect;
+    this.condition = condition;
+  }
+
+  /**
+   * Method to create rule which shows an element only when condition holds. If an element
+   * shown by a rule is hidden, rules which read its value don't hold
+   * @param target name of element or section
+   * @param condition
+   * @return
+   */
+  public static Rule showWhen(String target, Condition condition) {
+    return new Rule(target, Effect.VISIBLE, condition);
+  }
+
+  /**
+   * Method to create rule which enables an element only when condition holds
+   * @param target name of element or section
+   * @param condition
+   * @return
+   */
+  public static Rule enableWhen(String target, Condition condition) {
+    return new Rule(target, Effect.ENABLED, condition);
+  }
+
+  public String getTarget() {
+    return target;
+  }
+
+  public Effect getEffect() {
+    return effect;
+  }
+
+  public Condition getCondition() {
+    return condition;
+  }
+}
@@ -0,0 +1,330 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.rule;
+
+import com.github.chilinh.android.form.Form;
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.element.BaseFormElement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates {@link Rule}s of a form incrementally. Rules are sorted once so that a rule showing
+ * an element comes before rules which depend on value of that element. When a value of model
+ * is changed only rules which depend on it are evaluated, in that order, and rules which depend
+ * on an element shown or hidden by them follow. Targets with many rules of the same effect are
+ * shown or enabled only when all of them hold
+ */
+public final class RuleEngine {
+
+  /**
+   * Rules in topological order
+   */
+  private final Rule[] mRules;
+  /**
+   * Positions of rules which read a value, by name of value
+   */
+  private final Map<String, int[]> mDependents;
+  /**
+   * Positions of rules which have the same target and effect as rule at position
+   */
+  private final int[][] mGroups;
+  /**
+   * For each dependency of rule at position, true if it is shown by a rule
+   */
+  private final boolean[][] mCascades;
+
+  private final boolean[] mResults;
+  private final BitSet mPending;
+  private BaseFormElement[] mTargets;
+  private BaseFormElement[][] mSources;
+  private FormModel mModel;
+  private boolean mRunning;
+
+  /**
+   * @param rules
+   * @throws IllegalArgumentException if rules depend on each other in a cycle
+   */
+  public RuleEngine(Collection<Rule> rules) {
+    Rule[] input = rules.toArray(new Rule[rules.size()]);
+    mRules = sort(input);
+    mResults = new boolean[mRules.length];
+    mPending = new BitSet(mRules.length);
+
+    Map<String, List<Integer>> dependents = new HashMap<>();
+    Map<String, List<Integer>> groups = new HashMap<>();
+    Map<String, Boolean> shown = new HashMap<>();
+    for (int i = 0; i < mRules.length; i++) {
+      Rule rule = mRules[i];
+      for (String name : rule.condition.dependencies()) {
+        listOf(dependents, name).add(i);
+      }
+      listOf(groups, rule.effect + ":" + rule.target).add(i);
+      if (rule.effect == Rule.Effect.VISIBLE) {
+        shown.put(rule.target, Boolean.TRUE);
+      }
+    }
+
+    mDependents = new HashMap<>();
+    for (Map.Entry<String, List<Integer>> entry : dependents.entrySet()) {
+      mDependents.put(entry.getKey(), toArray(entry.getValue()));
+    }
+    mGroups = new int[mRules.length][];
+    mCascades = new boolean[mRules.length][];
+    for (int i = 0; i < mRules.length; i++) {
+      Rule rule = mRules[i];
+      mGroups[i] = toArray(groups.get(rule.effect + ":" + rule.target));
+      String[] names = rule.condition.dependencies();
+      mCascades[i] = new boolean[names.length];
+      for (int j = 0; j < names.length; j++) {
+        mCascades[i][j] = shown.containsKey(names[j]);
+      }
+    }
+  }
+
+  /**
+   * @return rules in order they are evaluated
+   */
+  public List<Rule> getRules() {
+    List<Rule> rules = new ArrayList<>(mRules.length);
+    for (Rule rule : mRules) {
+      rules.add(rule);
+    }
+    return rules;
+  }
+
+  /**
+   * Lookup of elements and sections by name
+   */
+  interface Elements {
+    BaseFormElement find(String name);
+  }
+
+  /**
+   * Method to apply rules to elements of form and keep them applied while its model changes
+   * @param form built form which has a model
+   * @throws IllegalArgumentException if target of a rule is not in form
+   */
+  public void attach(final Form form) {
+    attach(
+      form.getModel(),
+      new Elements() {
+        @Override
+        public BaseFormElement find(String name) {
+          BaseFormElement element = form.getElement(name);
+          return element != null ? element : form.getSection(name);
+        }
+      }
+    );
+  }
+
+  void attach(FormModel model, Elements elements) {
+    detach();
+    mTargets = new BaseFormElement[mRules.length];
+    mSources = new BaseFormElement[mRules.length][];
+    for (int i = 0; i < mRules.length; i++) {
+      mTargets[i] = elements.find(mRules[i].target);
+      if (mTargets[i] == null) {
+        throw new IllegalArgumentException("Target " + mRules[i].target + " of rule is not in form");
+      }
+      String[] names = mRules[i].condition.dependencies();
+      mSources[i] = new BaseFormElement[names.length];
+      for (int j = 0; j < names.length; j++) {
+        mSources[i][j] = mCascades[i][j] ? elements.find(names[j]) : null;
+      }
+    }
+
+    mModel = model;
+    for (String name : mDependents.keySet()) {
+      // Weak, a retained model may outlive the form
+      model.addListener(name, mModelListener, true);
+    }
+    mPending.set(0, mRules.length);
+    run();
+  }
+
+  /**
+   * Method to stop applying rules
+   */
+  public void detach() {
+    if (mModel == null) {
+      return;
+    }
+    for (String name : mDependents.keySet()) {
+      mModel.removeListener(name, mModelListener);
+    }
+    mModel = null;
+    mPending.clear();
+  }
+
+  private final FormModel.OnChangeListener mModelListener = new FormModel.OnChangeListener() {
+    @Override
+    public void onChanged(FormModel model, String name) {
+      if (markDependents(name)) {
+        run();
+      }
+    }
+  };
+
+  private boolean markDependents(String name) {
+    int[] positions = mDependents.get(name);
+    if (positions == null) {
+      return false;
+    }
+    for (int position : positions) {
+      mPending.set(position);
+    }
+    return true;
+  }
+
+  private void run() {
+    // Model changed while rules run only marks rules, this loop runs them
+    if (mRunning) {
+      return;
+    }
+    mRunning = true;
+    try {
+      for (int i = mPending.nextSetBit(0); i >= 0 && mModel != null; i = mPending.nextSetBit(0)) {
+        mPending.clear(i);
+        evaluate(i);
+      }
+    } finally {
+      mRunning = false;
+    }
+  }
+
+  private void evaluate(int position) {
+    Rule rule = mRules[position];
+    boolean result = rule.condition.test(mModel);
+    BaseFormElement[] sources = mSources[position];
+    for (int i = 0; result && i < sources.length; i++) {
+      // Value of a hidden element does not count
+      result = sources[i] == null || sources[i].isVisible();
+    }
+    mResults[position] = result;
+    for (int other : mGroups[position]) {
+      if (mPending.get(other)) {
+        // Applied once by the last pending rule of the group, so the target does not flip
+        // while some rules of the group still have old results, e.g. on attach
+        return;
+      }
+    }
+
+    boolean combined = true;
+    for (int other : mGroups[position]) {
+      combined &= mResults[other];
+    }
+    BaseFormElement target = mTargets[position];
+    if (rule.effect == Rule.Effect.VISIBLE) {
+      if (target.isVisible() != combined) {
+        target.visible(combined);
+        markDependents(rule.target);
+      }
+    } else {
+      target.enabled(combined);
+    }
+  }
+
+  /**
+   * Kahn's sort, a rule showing an element comes before rules which read value of that element
+   * @throws IllegalArgumentException if there is a cycle
+   */
+  private static Rule[] sort(Rule[] rules) {
+    Map<String, List<Integer>> readers = new HashMap<>();
+    for (int i = 0; i < rules.length; i++) {
+      for (String name : rules[i].condition.dependencies()) {
+        listOf(readers, name).add(i);
+      }
+    }
+
+    int[] inDegree = new int[rules.length];
+    List<List<Integer>> edges = new ArrayList<>(rules.length);
+    for (int i = 0; i < rules.length; i++) {
+      List<Integer> next = rules[i].effect == Rule.Effect.VISIBLE ? readers.get(rules[i].target) : null;
+      edges.add(next);
+      if (next != null) {
+        for (int j : next) {
+          inDegree[j]++;
+        }
+      }
+    }
+
+    Deque<Integer> ready = new ArrayDeque<>();
+    for (int i = 0; i < rules.length; i++) {
+      if (inDegree[i] == 0) {
+        ready.add(i);
+      }
+    }
+    Rule[] sorted = new Rule[rules.length];
+    int count = 0;
+    while (!ready.isEmpty()) {
+      int i = ready.poll();
+      sorted[count++] = rules[i];
+      List<Integer> next = edges.get(i);
+      if (next != null) {
+        for (int j : next) {
+          if (--inDegree[j] == 0) {
+            ready.add(j);
+          }
+        }
+      }
+    }
+
+    if (count < rules.length) {
+      StringBuilder cycle = new StringBuilder();
+      for (int i = 0; i < rules.length; i++) {
+        if (inDegree[i] > 0) {
+          cycle.append(cycle.length() > 0 ? ", " : "").append(rules[i].target);
+        }
+      }
+      throw new IllegalArgumentException("Rules of " + cycle + " depend on each other in a cycle");
+    }
+    return sorted;
+  }
+
+  private static List<Integer> listOf(Map<String, List<Integer>> map, String key) {
+    List<Integer> list = map.get(key);
+    if (list == null) {
+      list = new ArrayList<>();
+      map.put(key, list);
+    }
+    return list;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+}
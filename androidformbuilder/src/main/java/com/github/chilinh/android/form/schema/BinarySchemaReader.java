@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import java.util.List;
+
+import static com.github.chilinh.android.form.schema.SchemaCompiler.*;
+
+/**
+ * Reader of schema compiled by {@link SchemaCompiler}. It decodes string table once and gives
+ * records to a {@link SchemaHandler} in the order they were compiled
+ */
+final class BinarySchemaReader {
+
+  private final byte[] mBytes;
+  private final SchemaHandler mHandler;
+  private int mPosition;
+  private String[] mStrings;
+
+  BinarySchemaReader(byte[] bytes, SchemaHandler handler) {
+    mBytes = bytes;
+    mHandler = handler;
+  }
+
+  /**
+   * @throws IllegalArgumentException if bytes are not a compiled schema of supported version
+   */
+  void parse() {
+    try {
+      if (readInt() != MAGIC) {
+        throw new IllegalArgumentException("Not a compiled form schema");
+      }
+      int version = mBytes[mPosition++];
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported compiled schema version " + version);
+      }
+      readStringTable();
+
+      int record;
+      while ((record = mBytes[mPosition++]) != RECORD_END) {
+        switch (record) {
+          case RECORD_ATTRIBUTE:
+            String name = readString();
+            mHandler.onFormAttribute(name, readValue());
+            break;
+          case RECORD_SECTION:
+            mHandler.onSection(readSection());
+            break;
+          case RECORD_ELEMENT:
+            mHandler.onElement(readElement());
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown record " + record + " at " + (mPosition - 1));
+        }
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Compiled schema is truncated", e);
+    }
+  }
+
+  private void readStringTable() {
+    // Each string takes one byte of length at least
+    int count = readLength();
+    mStrings = new String[count];
+    for (int i = 0; i < count; i++) {
+      int length = readLength();
+      mStrings[i] = new String(mBytes, mPosition, length, UTF_8);
+      mPosition += length;
+    }
+  }
+
+  /**
+   * @return a count or length which fits in the remaining bytes
+   */
+  private int readLength() {
+    long length = readVarint();
+    if (length < 0 || length > mBytes.length - mPosition) {
+      throw new IllegalArgumentException("Invalid length " + length + " at " + mPosition);
+    }
+    return (int) length;
+  }
+
+  private SectionSpec readSection() {
+    SectionSpec section = new SectionSpec();
+    section.name = readString();
+    section.title = readString();
+    int flags = (int) readVarint();
+    section.collapsible = (flags & FLAG_COLLAPSIBLE) != 0;
+    section.collapsed = (flags & FLAG_COLLAPSED) != 0;
+    return section;
+  }
+
+  private ElementSpec readElement() {
+    ElementSpec element = new ElementSpec();
+    element.type = readString();
+    element.name = readString();
+    element.label = readString();
+    element.placeholder = readString();
+    element.format = readString();
+    int flags = (int) readVarint();
+    element.required = (flags & FLAG_REQUIRED) != 0;
+    element.verticalLabel = (flags & FLAG_VERTICAL_LABEL) != 0;
+    element.multiLine = (flags & FLAG_MULTI_LINE) != 0;
+    element.password = (flags & FLAG_PASSWORD) != 0;
+    element.is24Hour = (flags & FLAG_24_HOUR) != 0;
+    element.inputType = (int) readVarint();
+    element.defaultValue = readValue();
+    readStrings(element.options);
+    readStrings(element.validators);
+    if (element.type == null) {
+      throw new IllegalArgumentException("Element " + element.name + " has no type");
+    }
+    return element;
+  }
+
+  private void readStrings(List<String> out) {
+    int count = readLength();
+    for (int i = 0; i < count; i++) {
+      out.add(readString());
+    }
+  }
+
+  private String readString() {
+    long index = readVarint();
+    if (index < 0 || index > mStrings.length) {
+      throw new IllegalArgumentException("Invalid string " + index + " at " + mPosition);
+    }
+    return index == 0 ? null : mStrings[(int) index - 1];
+  }
+
+  private Object readValue() {
+    int type = mBytes[mPosition++];
+    switch (type) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING:
+        return readString();
+      case VALUE_LONG:
+        long zigzag = readVarint();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+      case VALUE_DOUBLE:
+        long bits = ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        return Double.longBitsToDouble(bits);
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      default:
+        throw new IllegalArgumentException("Unknown value type " + type + " at " + (mPosition - 1));
+    }
+  }
+
+  private long readVarint() {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = mBytes[mPosition++];
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  private int readInt() {
+    int value = (mBytes[mPosition] & 0xFF) << 24
+      | (mBytes[mPosition + 1] & 0xFF) << 16
+      | (mBytes[mPosition + 2] & 0xFF) << 8
+      | (mBytes[mPosition + 3] & 0xFF);
+    mPosition += 4;
+    return value;
+  }
+}
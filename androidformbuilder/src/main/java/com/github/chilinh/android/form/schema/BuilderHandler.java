@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import com.github.chilinh.android.form.Form;
+import com.github.chilinh.android.form.validator.InputValidator;
+
+import java.util.Map;
+
+/**
+ * {@link SchemaHandler} which adds sections and elements to a {@link Form.Builder}
+ */
+final class BuilderHandler implements SchemaHandler {
+
+  private final Form.Builder mBuilder;
+  private final Map<String, InputValidator> mValidators;
+
+  BuilderHandler(Form.Builder builder, Map<String, InputValidator> validators) {
+    mBuilder = builder;
+    mValidators = validators;
+  }
+
+  @Override
+  public void onFormAttribute(String name, Object value) {
+    applyFormAttribute(mBuilder, name, value);
+  }
+
+  @Override
+  public void onSection(SectionSpec section) {
+    mBuilder.addSection(section.newSection());
+  }
+
+  @Override
+  public void onElement(ElementSpec element) {
+    mBuilder.addElement(element.newElement(mValidators));
+  }
+
+  /**
+   * Method to apply a form attribute of schema to builder, unknown attributes are ignored
+   * @param builder
+   * @param name
+   * @param value
+   */
+  static void applyFormAttribute(Form.Builder builder, String name, Object value) {
+    switch (name) {
+      case "title":
+        builder.title(value.toString());
+        break;
+      case "submit":
+        builder.submitButton(value.toString());
+        break;
+      case "cancel":
+        builder.cancelButton(value.toString());
+        break;
+      case "recyclerView":
+        builder.useRecyclerView(Boolean.TRUE.equals(value));
+        break;
+      case "incrementalValidation":
+        builder.incrementalValidation(Boolean.TRUE.equals(value));
+        break;
+      default:
+        break;
+    }
+  }
+}
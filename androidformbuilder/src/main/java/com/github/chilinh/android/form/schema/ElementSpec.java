@@ -0,0 +1,301 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import com.github.chilinh.android.form.element.BaseFormElement;
+import com.github.chilinh.android.form.element.BaseInputElement;
+import com.github.chilinh.android.form.element.ComboBoxElement;
+import com.github.chilinh.android.form.element.DatePickerElement;
+import com.github.chilinh.android.form.element.EditTextElement;
+import com.github.chilinh.android.form.element.TextElement;
+import com.github.chilinh.android.form.element.TimePickerElement;
+import com.github.chilinh.android.form.validator.InputValidator;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Description of a form element read from a schema
+ */
+public final class ElementSpec {
+
+  public static final String TYPE_TEXT = "text";
+  public static final String TYPE_EDIT = "edit";
+  public static final String TYPE_COMBO = "combo";
+  public static final String TYPE_DATE = "date";
+  public static final String TYPE_TIME = "time";
+
+  String type;
+  String name;
+  String label;
+  String placeholder;
+  String format;
+  Object defaultValue;
+  boolean required;
+  boolean verticalLabel;
+  boolean multiLine;
+  boolean password;
+  boolean is24Hour;
+  int inputType;
+  List<String> options = new ArrayList<>();
+  List<String> validators = new ArrayList<>();
+
+  private boolean mPrepared;
+  private int mStartIndex;
+  private Date mDefaultTime;
+
+  ElementSpec() {
+  }
+
+  /**
+   * @return one of TYPE_ constants
+   */
+  public String getType() {
+    return type;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public String getPlaceholder() {
+    return placeholder;
+  }
+
+  /**
+   * @return pattern of {@link java.text.SimpleDateFormat} to display date or time, can be null
+   */
+  public String getFormat() {
+    return format;
+  }
+
+  /**
+   * @return default value, a String, Long, Double or Boolean, can be null
+   */
+  public Object getDefaultValue() {
+    return defaultValue;
+  }
+
+  public boolean isRequired() {
+    return required;
+  }
+
+  public boolean isVerticalLabel() {
+    return verticalLabel;
+  }
+
+  public boolean isMultiLine() {
+    return multiLine;
+  }
+
+  public boolean isPassword() {
+    return password;
+  }
+
+  public boolean is24Hour() {
+    return is24Hour;
+  }
+
+  /**
+   * @return flags of {@link android.text.InputType} to add to edit text, 0 if none
+   */
+  public int getInputType() {
+    return inputType;
+  }
+
+  /**
+   * @return options of combo box
+   */
+  public List<String> getOptions() {
+    return mPrepared ? options : Collections.unmodifiableList(options);
+  }
+
+  /**
+   * @return names of validators, see {@link FormSchema#validator(String, com.github.chilinh.android.form.validator.InputValidator)}
+   */
+  public List<String> getValidators() {
+    return mPrepared ? validators : Collections.unmodifiableList(validators);
+  }
+
+  /**
+   * Method to check this description and resolve its default value once, so elements can be
+   * created without parsing. Description must not change after, it can then be shared by threads
+   * @throws IllegalArgumentException if type is missing or unknown, or default value is invalid
+   */
+  void prepare() {
+    if (mPrepared) {
+      return;
+    }
+    if (type == null) {
+      throw new IllegalArgumentException("Element " + name + " has no type");
+    }
+    switch (type) {
+      case TYPE_TEXT:
+      case TYPE_EDIT:
+        break;
+      case TYPE_COMBO:
+        mStartIndex = comboIndex();
+        break;
+      case TYPE_DATE:
+        mDefaultTime = date("yyyy-MM-dd");
+        break;
+      case TYPE_TIME:
+        mDefaultTime = date("HH:mm");
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type " + type + " of element " + name);
+    }
+    options = Collections.unmodifiableList(new ArrayList<>(options));
+    validators = Collections.unmodifiableList(new ArrayList<>(validators));
+    mPrepared = true;
+  }
+
+  /**
+   * Method to find validators of this description
+   * @param registry validators by name
+   * @return
+   * @throws IllegalArgumentException if a validator is unknown
+   */
+  InputValidator[] resolveValidators(Map<String, InputValidator> registry) {
+    InputValidator[] resolved = new InputValidator[validators.size()];
+    for (int i = 0; i < resolved.length; i++) {
+      String validatorName = validators.get(i);
+      resolved[i] = registry.get(validatorName);
+      if (resolved[i] == null) {
+        throw new IllegalArgumentException("Unknown validator " + validatorName + " of element " + name);
+      }
+    }
+    return resolved;
+  }
+
+  /**
+   * Method to create element of this description
+   * @param registry validators by name
+   * @return
+   * @throws IllegalArgumentException if type or a validator is unknown, or default value is invalid
+   */
+  BaseFormElement newElement(Map<String, InputValidator> registry) {
+    prepare();
+    return newElement(resolveValidators(registry));
+  }
+
+  /**
+   * Method to create element of this prepared description
+   * @param resolved validators, see {@link #resolveValidators(Map)}
+   * @return
+   */
+  BaseFormElement newElement(InputValidator[] resolved) {
+    BaseFormElement element;
+    switch (type) {
+      case TYPE_TEXT:
+        element = new TextElement(name, label)
+          .value(defaultValue == null ? null : defaultValue.toString())
+          .placeholder(placeholder);
+        break;
+      case TYPE_EDIT:
+        element = new EditTextElement(name, label)
+          .text(defaultValue == null ? null : defaultValue.toString())
+          .placeholder(placeholder)
+          .multiLine(multiLine)
+          .password(password);
+        if (inputType != 0) {
+          ((EditTextElement) element).setInputTypeMask(inputType, true);
+        }
+        break;
+      case TYPE_COMBO:
+        // Options are immutable once prepared, so elements share them
+        element = new ComboBoxElement(name, label, options)
+          .startIndex(mStartIndex);
+        break;
+      case TYPE_DATE:
+        element = (format == null ? new DatePickerElement(name, label) : new DatePickerElement(name, label, new SimpleDateFormat(format, Locale.getDefault())))
+          .date(copy(mDefaultTime));
+        break;
+      case TYPE_TIME:
+        element = (format == null ? new TimePickerElement(name, label) : new TimePickerElement(name, label, new SimpleDateFormat(format, Locale.getDefault()), is24Hour))
+          .time(copy(mDefaultTime));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type " + type + " of element " + name);
+    }
+
+    if (element instanceof BaseInputElement) {
+      BaseInputElement input = (BaseInputElement) element;
+      input.required(required).verticalLabel(verticalLabel);
+      for (InputValidator validator : resolved) {
+        input.addValidator(validator);
+      }
+    }
+    return element;
+  }
+
+  private static Date copy(Date date) {
+    return date == null ? null : new Date(date.getTime());
+  }
+
+  private int comboIndex() {
+    if (defaultValue == null) {
+      return 0;
+    }
+    int index;
+    if (defaultValue instanceof Number) {
+      long number = ((Number) defaultValue).longValue();
+      index = number >= 0 && number < options.size() ? (int) number : -1;
+    } else {
+      index = options.indexOf(defaultValue.toString());
+    }
+    if (index < 0) {
+      throw new IllegalArgumentException("Default " + defaultValue + " of element " + name + " is not an option");
+    }
+    return index;
+  }
+  /**
+   * @param pattern of default value if it is a string
+   * @return default value as date, a number is milliseconds since epoch
+   */
+  private Date date(String pattern) {
+    if (defaultValue instanceof Number) {
+      return new Date(((Number) defaultValue).longValue());
+    }
+    if (defaultValue == null) {
+      return null;
+    }
+    try {
+      return new SimpleDateFormat(pattern, Locale.US).parse(defaultValue.toString());
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Default " + defaultValue + " of element " + name + " must be " + pattern, e);
+    }
+  }
+}
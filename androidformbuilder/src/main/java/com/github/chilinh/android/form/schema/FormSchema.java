@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import android.content.Context;
+
+import com.github.chilinh.android.form.Form;
+import com.github.chilinh.android.form.validator.InputValidator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loader of forms described by a JSON schema, e.g.
+ * <pre>
+ * {
+ *   "title": "Inspection",
+ *   "submit": "Save",
+ *   "sections": [
+ *     {
+ *       "name": "site", "title": "Site", "collapsible": true,
+ *       "elements": [
+ *         { "type": "edit", "name": "address", "label": "Address", "required": true },
+ *         { "type": "combo", "name": "kind", "label": "Kind", "options": ["House", "Office"], "default": "Office" },
+ *         { "type": "date", "name": "visit", "label": "Visit", "default": "2017-01-31" },
+ *         { "type": "edit", "name": "email", "label": "Email", "validators": ["email"] }
+ *       ]
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * Element types are text, edit, combo, date and time, see {@link ElementSpec}. Attributes of a
+ * section must come before its elements. Validators are referred by names registered with
+ * {@link #validator(String, InputValidator)}.
+ * Schema is read by a pull parser and the form is built in the same pass.
+ * <p>
+ * To skip parsing text when form opens, a schema can be compiled ahead, e.g. at build time, by
+ * {@link #compile(Reader, OutputStream)} and loaded by {@link #loadCompiled(Context, byte[])}.
+ * A form opened many times should be read once into a {@link FormTemplate}, by
+ * {@link #template(Reader)} or {@link #templateCompiled(byte[])}
+ */
+public final class FormSchema {
+
+  private final Map<String, InputValidator> mValidators = new HashMap<>();
+
+  /**
+   * Method to register a validator that schemas can refer by name. Forms of a
+   * {@link FormTemplate} share its validators, so they should not keep state
+   * @param name
+   * @param validator
+   * @return
+   */
+  public FormSchema validator(String name, InputValidator validator) {
+    mValidators.put(name, validator);
+    return this;
+  }
+
+  /**
+   * Method to read a schema into a builder, so more options can be set before form is built
+   * @param reader of schema, it is not closed
+   * @return
+   * @throws IOException if schema can't be read or is not valid JSON
+   * @throws IllegalArgumentException if schema describes an invalid form
+   */
+  public Form.Builder read(Reader reader) throws IOException {
+    Form.Builder builder = new Form.Builder();
+    parse(reader, new BuilderHandler(builder, mValidators));
+    return builder;
+  }
+
+  /**
+   * Method to build a form from a schema
+   * @param context
+   * @param reader of schema, it is not closed
+   * @return
+   * @throws IOException if schema can't be read or is not valid JSON
+   * @throws IllegalArgumentException if schema describes an invalid form
+   */
+  public Form load(Context context, Reader reader) throws IOException {
+    return read(reader).build(context);
+  }
+
+  /**
+   * Method to build a form from a schema in UTF-8
+   * @param context
+   * @param input of schema, it is not closed
+   * @return
+   * @throws IOException if schema can't be read or is not valid JSON
+   * @throws IllegalArgumentException if schema describes an invalid form
+   */
+  public Form load(Context context, InputStream input) throws IOException {
+    return load(context, new InputStreamReader(input, "UTF-8"));
+  }
+
+  /**
+   * Method to read a schema into a handler
+   * @param reader of schema, it is not closed
+   * @param handler
+   * @throws IOException if schema can't be read or is not valid JSON
+   */
+  public static void parse(Reader reader, SchemaHandler handler) throws IOException {
+    new JsonSchemaParser(reader, handler).parse();
+  }
+
+  /**
+   * Method to read a schema into an immutable template that can create many forms
+   * @param reader of schema, it is not closed
+   * @return
+   * @throws IOException if schema can't be read or is not valid JSON
+   * @throws IllegalArgumentException if schema describes an invalid form
+   */
+  public FormTemplate template(Reader reader) throws IOException {
+    FormTemplate.Collector collector = new FormTemplate.Collector(mValidators);
+    parse(reader, collector);
+    return collector.build();
+  }
+
+  /**
+   * Method to read a compiled schema into an immutable template that can create many forms
+   * @param compiled schema, see {@link #compile(Reader, OutputStream)}
+   * @return
+   * @throws IllegalArgumentException if bytes are not a compiled schema or it describes an invalid form
+   */
+  public FormTemplate templateCompiled(byte[] compiled) {
+    FormTemplate.Collector collector = new FormTemplate.Collector(mValidators);
+    parseCompiled(compiled, collector);
+    return collector.build();
+  }
+
+  /**
+   * Method to read a compiled schema into a builder, so more options can be set before form is built
+   * @param compiled schema, see {@link #compile(Reader, OutputStream)}
+   * @return
+   * @throws IllegalArgumentException if bytes are not a compiled schema or it describes an invalid form
+   */
+  public Form.Builder readCompiled(byte[] compiled) {
+    Form.Builder builder = new Form.Builder();
+    parseCompiled(compiled, new BuilderHandler(builder, mValidators));
+    return builder;
+  }
+
+  /**
+   * Method to build a form from a compiled schema
+   * @param context
+   * @param compiled schema, see {@link #compile(Reader, OutputStream)}
+   * @return
+   * @throws IllegalArgumentException if bytes are not a compiled schema or it describes an invalid form
+   */
+  public Form loadCompiled(Context context, byte[] compiled) {
+    return readCompiled(compiled).build(context);
+  }
+
+  /**
+   * Method to build a form from a compiled schema
+   * @param context
+   * @param input of compiled schema, it is not closed
+   * @return
+   * @throws IOException if schema can't be read
+   * @throws IllegalArgumentException if bytes are not a compiled schema or it describes an invalid form
+   */
+  public Form loadCompiled(Context context, InputStream input) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(input.available(), 1024));
+    byte[] buffer = new byte[8192];
+    int count;
+    while ((count = input.read(buffer)) > 0) {
+      bytes.write(buffer, 0, count);
+    }
+    return loadCompiled(context, bytes.toByteArray());
+  }
+
+  /**
+   * Method to read a compiled schema into a handler
+   * @param compiled schema, see {@link #compile(Reader, OutputStream)}
+   * @param handler
+   * @throws IllegalArgumentException if bytes are not a compiled schema
+   */
+  public static void parseCompiled(byte[] compiled, SchemaHandler handler) {
+    new BinarySchemaReader(compiled, handler).parse();
+  }
+
+  /**
+   * Method to convert a JSON schema to compact binary format
+   * @param reader of JSON schema, it is not closed
+   * @param out of compiled schema, it is not closed
+   * @throws IOException if schema can't be read or is not valid JSON
+   */
+  public static void compile(Reader reader, OutputStream out) throws IOException {
+    SchemaCompiler compiler = new SchemaCompiler();
+    parse(reader, compiler);
+    compiler.writeTo(out);
+  }
+}
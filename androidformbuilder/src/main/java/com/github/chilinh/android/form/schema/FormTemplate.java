@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import android.content.Context;
+
+import com.github.chilinh.android.form.Form;
+import com.github.chilinh.android.form.validator.InputValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable definition of a form: its attributes, sections and elements with validators resolved
+ * and default values parsed. A template is created once, e.g. by
+ * {@link FormSchema#template(java.io.Reader)}, and can be cached and shared by threads. Each
+ * {@link #newForm(Context)} only creates the elements and state of a new form, definition is not
+ * read or checked again
+ */
+public final class FormTemplate {
+
+  private final String[] mAttributeNames;
+  private final Object[] mAttributeValues;
+  /**
+   * Sections and elements in order
+   */
+  private final Object[] mSpecs;
+  /**
+   * Validators of element at the same position in mSpecs, null for sections
+   */
+  private final InputValidator[][] mValidators;
+  private final List<ElementSpec> mElements;
+
+  private FormTemplate(Collector collector) {
+    mAttributeNames = collector.attributeNames.toArray(new String[collector.attributeNames.size()]);
+    mAttributeValues = collector.attributeValues.toArray();
+    mSpecs = collector.specs.toArray();
+    mValidators = collector.validators.toArray(new InputValidator[collector.validators.size()][]);
+    mElements = Collections.unmodifiableList(Arrays.asList(collector.elements.toArray(new ElementSpec[collector.elements.size()])));
+  }
+
+  /**
+   * @return elements of all sections in order
+   */
+  public List<ElementSpec> getElements() {
+    return mElements;
+  }
+
+  /**
+   * Method to create a builder with sections and elements of a new form, so more options can be
+   * set before form is built
+   * @return
+   */
+  public Form.Builder newBuilder() {
+    Form.Builder builder = new Form.Builder();
+    for (int i = 0; i < mAttributeNames.length; i++) {
+      BuilderHandler.applyFormAttribute(builder, mAttributeNames[i], mAttributeValues[i]);
+    }
+    for (int i = 0; i < mSpecs.length; i++) {
+      Object spec = mSpecs[i];
+      if (spec instanceof SectionSpec) {
+        builder.addSection(((SectionSpec) spec).newSection());
+      } else {
+        builder.addElement(((ElementSpec) spec).newElement(mValidators[i]));
+      }
+    }
+    return builder;
+  }
+
+  /**
+   * Method to build a new form of this template
+   * @param context
+   * @return
+   */
+  public Form newForm(Context context) {
+    return newBuilder().build(context);
+  }
+
+  /**
+   * Method to give definition to a handler, e.g. a {@link SchemaCompiler}
+   * @param handler
+   */
+  public void accept(SchemaHandler handler) {
+    for (int i = 0; i < mAttributeNames.length; i++) {
+      handler.onFormAttribute(mAttributeNames[i], mAttributeValues[i]);
+    }
+    for (Object spec : mSpecs) {
+      if (spec instanceof SectionSpec) {
+        handler.onSection((SectionSpec) spec);
+      } else {
+        handler.onElement((ElementSpec) spec);
+      }
+    }
+  }
+
+  /**
+   * {@link SchemaHandler} which checks a definition while it is read and creates its template
+   */
+  static final class Collector implements SchemaHandler {
+
+    private final Map<String, InputValidator> mRegistry;
+    private final Set<String> mSectionNames = new HashSet<>();
+    private final Set<String> mElementNames = new HashSet<>();
+
+    final List<String> attributeNames = new ArrayList<>();
+    final List<Object> attributeValues = new ArrayList<>();
+    final List<Object> specs = new ArrayList<>();
+    final List<InputValidator[]> validators = new ArrayList<>();
+    final List<ElementSpec> elements = new ArrayList<>();
+
+    /**
+     * @param registry validators by name, they are resolved while reading
+     */
+    Collector(Map<String, InputValidator> registry) {
+      mRegistry = registry;
+    }
+
+    @Override
+    public void onFormAttribute(String name, Object value) {
+      attributeNames.add(name);
+      attributeValues.add(value);
+    }
+
+    @Override
+    public void onSection(SectionSpec section) {
+      if (!mSectionNames.add(section.name)) {
+        throw new IllegalArgumentException("Section with name " + section.name + " already exists");
+      }
+      specs.add(section);
+      validators.add(null);
+    }
+
+    @Override
+    public void onElement(ElementSpec element) {
+      if (!mElementNames.add(element.name)) {
+        throw new IllegalArgumentException("Element with name " + element.name + " already exists");
+      }
+      element.prepare();
+      specs.add(element);
+      validators.add(element.resolveValidators(mRegistry));
+      elements.add(element);
+    }
+
+    FormTemplate build() {
+      return new FormTemplate(this);
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Pull parser of JSON form schema. It reads the schema token by token and gives each section
+ * and element to a {@link SchemaHandler} as soon as it is read, so only the element being read
+ * is kept in memory. Unknown attributes are skipped
+ */
+final class JsonSchemaParser {
+
+  private final JsonReader mReader;
+  private final SchemaHandler mHandler;
+
+  JsonSchemaParser(Reader reader, SchemaHandler handler) {
+    mReader = new JsonReader(reader);
+    mHandler = handler;
+  }
+
+  void parse() throws IOException {
+    mReader.beginObject();
+    while (mReader.hasNext()) {
+      String name = mReader.nextName();
+      switch (name) {
+        case "sections":
+          mReader.beginArray();
+          while (mReader.hasNext()) {
+            readSection();
+          }
+          mReader.endArray();
+          break;
+        case "elements":
+          readElements();
+          break;
+        default:
+          Object value = readScalar();
+          if (value != null) {
+            mHandler.onFormAttribute(name, value);
+          }
+          break;
+      }
+    }
+    mReader.endObject();
+  }
+
+  /**
+   * Attributes of a section must come before its elements, so the section is given to handler
+   * when its elements start and they are streamed
+   */
+  private void readSection() throws IOException {
+    SectionSpec section = new SectionSpec();
+    boolean started = false;
+
+    mReader.beginObject();
+    while (mReader.hasNext()) {
+      String name = mReader.nextName();
+      if (started && !"elements".equals(name)) {
+        throw new IllegalArgumentException("Attribute " + name + " of section " + section.name + " must come before its elements");
+      }
+      switch (name) {
+        case "name":
+          section.name = nextString();
+          break;
+        case "title":
+          section.title = nextString();
+          break;
+        case "collapsible":
+          section.collapsible = mReader.nextBoolean();
+          break;
+        case "collapsed":
+          section.collapsed = mReader.nextBoolean();
+          break;
+        case "elements":
+          if (!started) {
+            mHandler.onSection(section);
+            started = true;
+          }
+          readElements();
+          break;
+        default:
+          mReader.skipValue();
+          break;
+      }
+    }
+    mReader.endObject();
+
+    if (!started) {
+      mHandler.onSection(section);
+    }
+  }
+
+  private void readElements() throws IOException {
+    mReader.beginArray();
+    while (mReader.hasNext()) {
+      mHandler.onElement(readElement());
+    }
+    mReader.endArray();
+  }
+
+  private ElementSpec readElement() throws IOException {
+    ElementSpec element = new ElementSpec();
+    mReader.beginObject();
+    while (mReader.hasNext()) {
+      switch (mReader.nextName()) {
+        case "type":
+          element.type = nextString();
+          break;
+        case "name":
+          element.name = nextString();
+          break;
+        case "label":
+          element.label = nextString();
+          break;
+        case "placeholder":
+          element.placeholder = nextString();
+          break;
+        case "format":
+          element.format = nextString();
+          break;
+        case "default":
+          element.defaultValue = readScalar();
+          break;
+        case "required":
+          element.required = mReader.nextBoolean();
+          break;
+        case "verticalLabel":
+          element.verticalLabel = mReader.nextBoolean();
+          break;
+        case "multiLine":
+          element.multiLine = mReader.nextBoolean();
+          break;
+        case "password":
+          element.password = mReader.nextBoolean();
+          break;
+        case "is24Hour":
+          element.is24Hour = mReader.nextBoolean();
+          break;
+        case "inputType":
+          element.inputType = mReader.nextInt();
+          break;
+        case "options":
+          readStrings(element.options);
+          break;
+        case "validators":
+          readStrings(element.validators);
+          break;
+        default:
+          mReader.skipValue();
+          break;
+      }
+    }
+    mReader.endObject();
+    if (element.type == null) {
+      throw new IllegalArgumentException("Element " + element.name + " has no type");
+    }
+    return element;
+  }
+
+  private void readStrings(List<String> out) throws IOException {
+    mReader.beginArray();
+    while (mReader.hasNext()) {
+      out.add(mReader.nextString());
+    }
+    mReader.endArray();
+  }
+
+  private String nextString() throws IOException {
+    if (mReader.peek() == JsonToken.NULL) {
+      mReader.nextNull();
+      return null;
+    }
+    return mReader.nextString();
+  }
+
+  /**
+   * @return a String, Long, Double, Boolean or null, other values are skipped
+   */
+  private Object readScalar() throws IOException {
+    switch (mReader.peek()) {
+      case STRING:
+        return mReader.nextString();
+      case BOOLEAN:
+        return mReader.nextBoolean();
+      case NUMBER:
+        String number = mReader.nextString();
+        try {
+          return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+          return Double.parseDouble(number);
+        }
+      case NULL:
+        mReader.nextNull();
+        return null;
+      default:
+        mReader.skipValue();
+        return null;
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SchemaHandler} which encodes a schema in compact binary format, so it can be read without
+ * parsing text when form opens, see {@link FormSchema#compile(java.io.Reader, OutputStream)}.
+ * <p>
+ * Format is a header (magic, version), a table of all distinct strings and then one record per
+ * form attribute, section and element. Records refer strings by their index in table, so labels,
+ * options and validator names used many times are stored once. Numbers are written as varints
+ */
+public final class SchemaCompiler implements SchemaHandler {
+
+  static final int MAGIC = 0x41465342; // AFSB
+  static final int VERSION = 1;
+
+  static final int RECORD_END = 0;
+  static final int RECORD_ATTRIBUTE = 1;
+  static final int RECORD_SECTION = 2;
+  static final int RECORD_ELEMENT = 3;
+
+  static final int VALUE_NULL = 0;
+  static final int VALUE_STRING = 1;
+  static final int VALUE_LONG = 2;
+  static final int VALUE_DOUBLE = 3;
+  static final int VALUE_TRUE = 4;
+  static final int VALUE_FALSE = 5;
+
+  static final int FLAG_REQUIRED = 1;
+  static final int FLAG_VERTICAL_LABEL = 1 << 1;
+  static final int FLAG_MULTI_LINE = 1 << 2;
+  static final int FLAG_PASSWORD = 1 << 3;
+  static final int FLAG_24_HOUR = 1 << 4;
+  static final int FLAG_COLLAPSIBLE = 1 << 5;
+  static final int FLAG_COLLAPSED = 1 << 6;
+
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final Map<String, Integer> mStringIndex = new HashMap<>();
+  private final List<String> mStrings = new ArrayList<>();
+  private final ByteArrayOutputStream mRecords = new ByteArrayOutputStream();
+
+  @Override
+  public void onFormAttribute(String name, Object value) {
+    mRecords.write(RECORD_ATTRIBUTE);
+    writeString(name);
+    writeValue(value);
+  }
+
+  @Override
+  public void onSection(SectionSpec section) {
+    mRecords.write(RECORD_SECTION);
+    writeString(section.name);
+    writeString(section.title);
+    writeVarint((section.collapsible ? FLAG_COLLAPSIBLE : 0) | (section.collapsed ? FLAG_COLLAPSED : 0));
+  }
+
+  @Override
+  public void onElement(ElementSpec element) {
+    mRecords.write(RECORD_ELEMENT);
+    writeString(element.type);
+    writeString(element.name);
+    writeString(element.label);
+    writeString(element.placeholder);
+    writeString(element.format);
+    writeVarint((element.required ? FLAG_REQUIRED : 0)
+      | (element.verticalLabel ? FLAG_VERTICAL_LABEL : 0)
+      | (element.multiLine ? FLAG_MULTI_LINE : 0)
+      | (element.password ? FLAG_PASSWORD : 0)
+      | (element.is24Hour ? FLAG_24_HOUR : 0));
+    writeVarint(element.inputType);
+    writeValue(element.defaultValue);
+    writeStrings(element.options);
+    writeStrings(element.validators);
+  }
+
+  /**
+   * Method to write compiled schema of all received events
+   * @param out
+   * @throws IOException
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    writeInt(header, MAGIC);
+    header.write(VERSION);
+    writeVarint(header, mStrings.size());
+    for (String string : mStrings) {
+      byte[] bytes = string.getBytes(UTF_8);
+      writeVarint(header, bytes.length);
+      header.write(bytes, 0, bytes.length);
+    }
+    header.writeTo(out);
+    mRecords.writeTo(out);
+    out.write(RECORD_END);
+  }
+
+  /**
+   * @return compiled schema of all received events
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(mRecords.size() + mStrings.size() * 16 + 16);
+    try {
+      writeTo(out);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Strings are written as index + 1 in table, 0 is null
+   */
+  private void writeString(String string) {
+    if (string == null) {
+      mRecords.write(0);
+      return;
+    }
+    Integer index = mStringIndex.get(string);
+    if (index == null) {
+      index = mStrings.size();
+      mStrings.add(string);
+      mStringIndex.put(string, index);
+    }
+    writeVarint(index + 1);
+  }
+
+  private void writeStrings(List<String> strings) {
+    writeVarint(strings.size());
+    for (String string : strings) {
+      writeString(string);
+    }
+  }
+
+  private void writeValue(Object value) {
+    if (value == null) {
+      mRecords.write(VALUE_NULL);
+    } else if (value instanceof Boolean) {
+      mRecords.write((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+    } else if (value instanceof Double || value instanceof Float) {
+      mRecords.write(VALUE_DOUBLE);
+      long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+      writeInt(mRecords, (int) (bits >>> 32));
+      writeInt(mRecords, (int) bits);
+    } else if (value instanceof Number) {
+      long number = ((Number) value).longValue();
+      mRecords.write(VALUE_LONG);
+      // Zigzag, so small negative numbers are short too
+      writeVarint(mRecords, (number << 1) ^ (number >> 63));
+    } else {
+      mRecords.write(VALUE_STRING);
+      writeString(value.toString());
+    }
+  }
+
+  private void writeVarint(long value) {
+    writeVarint(mRecords, value);
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static void writeInt(ByteArrayOutputStream out, int value) {
+    out.write(value >>> 24);
+    out.write(value >>> 16);
+    out.write(value >>> 8);
+    out.write(value);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.validator;
+
+import android.content.res.Resources;
+import android.text.TextUtils;
+
+import com.github.chilinh.android.form.R;
+import com.github.chilinh.android.form.element.BaseInputElement;
+
+/**
+ * Validator for {@link BaseInputElement} which gives its result later, e.g. after a lookup in
+ * a database. It is run while user is changing value of element, see
+ * {@link BaseInputElement#addAsyncValidator(AsyncInputValidator)}
+ */
+public interface AsyncInputValidator {
+
+  /**
+   * Error of a value whose async validation has not given a result yet, it keeps form from
+   * being submitted until the result arrives
+   */
+  class PendingError extends InputError {
+    public PendingError(BaseInputElement element) {
+      super(element);
+    }
+
+    @Override
+    public String getMessage(Resources resources) {
+      return TextUtils.isEmpty(fieldLabel) ? resources.getString(R.string.async_pending_without_name_error_message) : String.format(resources.getString(R.string.async_pending_error_message), fieldLabel);
+    }
+  }
+
+  /**
+   * Callback to give result of validation, can be called on any thread
+   */
+  interface Result {
+    /**
+     * @param error null if value is valid
+     */
+    void onResult(InputError error);
+  }
+
+  /**
+   * Implement for validate input value for input element, it is called on main thread and
+   * must not block it
+   * @param value need to be validate
+   * @param element that value is set
+   * @param result must be called once when validation is done
+   */
+  void validate(Object value, BaseInputElement element, Result result);
+}
@@ -56,6 +56,12 @@ public class ElementErrorDisplay implements ErrorDisplay {
       }
       BaseFormElement element = mForm.getElement(error.fieldName);
       element.setError(error.getMessage(context.getResources()));
+
+      // Expand collapsed section so user can see error in it
+      SectionElement section = mForm.getSectionOf(error.fieldName);
+      if (section != null && section.isCollapsed()) {
+        section.collapsed(false);
+      }
     }
   }
 
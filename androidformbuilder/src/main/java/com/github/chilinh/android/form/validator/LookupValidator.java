@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.validator;
+
+import android.content.res.Resources;
+
+import com.github.chilinh.android.form.element.BaseInputElement;
+
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link AsyncInputValidator} which looks value up in a {@link DataSource} on an executor,
+ * e.g. to check that a value is unique in a local table
+ */
+public class LookupValidator implements AsyncInputValidator {
+
+  /**
+   * Data that values are looked up in, e.g. a SQLite table or a local service
+   */
+  public interface DataSource {
+    /**
+     * Will be called on executor of validator
+     * @param value
+     * @return true if data source contains value
+     */
+    boolean contains(Object value);
+  }
+
+  public static class LookupError extends InputError {
+    private final CharSequence message;
+
+    public LookupError(BaseInputElement element, CharSequence message) {
+      super(element);
+      this.message = message;
+    }
+
+    @Override
+    public String getMessage(Resources resources) {
+      return message == null ? null : message.toString();
+    }
+  }
+
+  /**
+   * Method to create validator that fails if value is already in data source
+   * @param executor to look value up on
+   * @param source
+   * @param message of error
+   * @return
+   */
+  public static LookupValidator unique(Executor executor, DataSource source, CharSequence message) {
+    return new LookupValidator(executor, source, false, message);
+  }
+
+  /**
+   * Method to create validator that fails if value is not in data source
+   * @param executor to look value up on
+   * @param source
+   * @param message of error
+   * @return
+   */
+  public static LookupValidator exists(Executor executor, DataSource source, CharSequence message) {
+    return new LookupValidator(executor, source, true, message);
+  }
+
+  private final Executor mExecutor;
+  private final DataSource mSource;
+  private final boolean mMustExist;
+  private final CharSequence mMessage;
+
+  public LookupValidator(Executor executor, DataSource source, boolean mustExist, CharSequence message) {
+    mExecutor = executor;
+    mSource = source;
+    mMustExist = mustExist;
+    mMessage = message;
+  }
+
+  @Override
+  public void validate(final Object value, final BaseInputElement element, final Result result) {
+    mExecutor.execute(
+      () -> result.onResult(mSource.contains(value) == mMustExist ? null : new LookupError(element, mMessage))
+    );
+  }
+}
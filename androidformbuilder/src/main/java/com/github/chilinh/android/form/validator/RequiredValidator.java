@@ -48,7 +48,7 @@ public class RequiredValidator implements InputValidator {
 
   @Override
   public InputError validate(Object value, BaseInputElement element) {
-    if (TextUtils.isEmpty((String) value)) {
+    if (value == null || value instanceof CharSequence && TextUtils.isEmpty((CharSequence) value)) {
       return new RequiredError(element);
     }
     return null;
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.validator;
+
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.element.BaseInputElement;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of validation results of input elements.
+ *
+ * It observes a {@link FormModel}, a field whose value is changed becomes dirty and only dirty
+ * fields are validated again, others get their last errors from cache. A field is also
+ * validated again when its validators are changed. Validators that depend on other fields
+ * should call {@link #invalidate(String)} when those fields change.
+ */
+public final class ValidationCache implements FormModel.OnChangeListener {
+
+  private static final class Entry {
+    final List<InputError> errors;
+    final int validatorVersion;
+
+    Entry(List<InputError> errors, int validatorVersion) {
+      this.errors = errors;
+      this.validatorVersion = validatorVersion;
+    }
+  }
+
+  private final Map<String, Entry> mEntries = new HashMap<>();
+  private FormModel mModel;
+  private int mHitCount;
+  private int mMissCount;
+
+  /**
+   * Method to start observing a model, all cached results are dropped
+   * @param model
+   */
+  public void attach(FormModel model) {
+    detach();
+    mModel = model;
+    if (model != null) {
+      model.addListener(this);
+    }
+  }
+
+  /**
+   * Method to stop observing current model, all cached results are dropped
+   */
+  public void detach() {
+    if (mModel != null) {
+      mModel.removeListener(this);
+      mModel = null;
+    }
+    mEntries.clear();
+  }
+
+  @Override
+  public void onChanged(FormModel model, String name) {
+    mEntries.remove(name);
+  }
+
+  /**
+   * Method to validate an element, only run its validators if it is dirty
+   * @param element
+   * @return list of error
+   */
+  public List<InputError> validate(BaseInputElement element) {
+    String name = element.getName();
+    int version = element.getValidatorVersion();
+    Entry entry = mEntries.get(name);
+    if (entry != null && entry.validatorVersion == version) {
+      mHitCount++;
+      return entry.errors;
+    }
+    mMissCount++;
+    List<InputError> errors = element.validateInput();
+    mEntries.put(name, new Entry(errors, version));
+    return errors;
+  }
+
+  /**
+   * Method to mark a field as dirty
+   * @param name of field
+   */
+  public void invalidate(String name) {
+    mEntries.remove(name);
+  }
+
+  /**
+   * Method to mark all fields as dirty
+   */
+  public void invalidateAll() {
+    mEntries.clear();
+  }
+
+  /**
+   * @param name of field
+   * @return true if field will be validated again on next validation
+   */
+  public boolean isDirty(String name) {
+    return !mEntries.containsKey(name);
+  }
+
+  /**
+   * @return number of validations that are served from cache
+   */
+  public int getHitCount() {
+    return mHitCount;
+  }
+
+  /**
+   * @return number of validations that run validators
+   */
+  public int getMissCount() {
+    return mMissCount;
+  }
+
+  /**
+   * Method to reset hit and miss count
+   */
+  public void resetStats() {
+    mHitCount = 0;
+    mMissCount = 0;
+  }
+}
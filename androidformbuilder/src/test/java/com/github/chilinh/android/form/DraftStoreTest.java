@@ -0,0 +1,232 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DraftStoreTest {
+
+  @Rule
+  public final TemporaryFolder mFolder = new TemporaryFolder();
+
+  private File mFile;
+  private DraftStore mStore;
+
+  @Before
+  public void setUp() throws IOException {
+    mFile = new File(mFolder.getRoot(), "drafts");
+    mStore = DraftStore.open(mFile, 4);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mStore.close();
+  }
+
+  private static FormModel model(String title, int count) {
+    FormModel model = new FormModelDialog();
+    model.set("title", title);
+    model.setInt("count", count);
+    model.setLong("big", 1L << 40);
+    model.setBoolean("done", true);
+    model.set("when", new Date(1000));
+    model.set("price", 2.5);
+    model.setDefault("untouched", "default");
+    return model;
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    mStore.save(7, model("First", 3));
+
+    FormModel loaded = new FormModelDialog();
+    assertTrue(mStore.load(7, loaded));
+    assertEquals("First", loaded.get("title").toString());
+    assertEquals(3, loaded.getInt("count", 0));
+    assertEquals(1L << 40, loaded.getLong("big", 0));
+    assertTrue(loaded.getBoolean("done", false));
+    assertEquals(new Date(1000), loaded.get("when"));
+    assertEquals(Double.valueOf(2.5), loaded.get("price"));
+    // Default values are not saved
+    assertFalse(loaded.contains("untouched"));
+
+    assertFalse(mStore.load(8, new FormModelDialog()));
+    assertTrue(mStore.getUpdatedAt(7) > 0);
+    assertEquals(0, mStore.getUpdatedAt(8));
+  }
+
+  @Test
+  public void readsOneField() throws IOException {
+    mStore.save(1, model("One", 1));
+    mStore.save(2, model("Two", 2));
+
+    assertEquals("Two", mStore.getValue(2, "title").toString());
+    assertEquals(1, mStore.getValue(1, "count"));
+    assertNull(mStore.getValue(1, "missing"));
+    assertNull(mStore.getValue(3, "title"));
+  }
+
+  @Test
+  public void updatesExistingDraft() throws IOException {
+    mStore.save(1, model("Old", 1));
+    mStore.save(2, model("Other", 2));
+    long length = mFile.length();
+    mStore.save(1, model("New", 5));
+
+    assertEquals(2, mStore.size());
+    assertArrayEquals(new long[]{1, 2}, mStore.getDraftIds());
+    assertEquals("New", mStore.getValue(1, "title").toString());
+    assertEquals(5, mStore.getValue(1, "count"));
+    assertEquals("Other", mStore.getValue(2, "title").toString());
+    assertTrue(mFile.length() >= length);
+  }
+
+  @Test
+  public void removesDraft() throws IOException {
+    mStore.save(1, model("One", 1));
+    mStore.save(2, model("Two", 2));
+    mStore.save(3, model("Three", 3));
+
+    assertTrue(mStore.remove(1));
+    assertFalse(mStore.remove(1));
+    assertFalse(mStore.contains(1));
+    assertEquals(2, mStore.size());
+    // Last slot took the place of removed one
+    assertArrayEquals(new long[]{3, 2}, mStore.getDraftIds());
+    assertEquals("Three", mStore.getValue(3, "title").toString());
+  }
+
+  @Test
+  public void finishesInterruptedRemove() throws IOException {
+    mStore.save(1, model("One", 1));
+    mStore.save(2, model("Two", 2));
+    mStore.save(3, model("Three", 3));
+    mStore.close();
+
+    // Crash after last slot was copied over the removed first one, before count was written
+    try (RandomAccessFile file = new RandomAccessFile(mFile, "rw")) {
+      byte[] slot = new byte[32];
+      file.seek(32 + 2 * 32);
+      file.readFully(slot);
+      file.seek(32);
+      file.write(slot);
+    }
+
+    mStore = DraftStore.open(mFile);
+    assertEquals(2, mStore.size());
+    assertArrayEquals(new long[]{3, 2}, mStore.getDraftIds());
+    assertEquals("Three", mStore.getValue(3, "title").toString());
+    assertTrue(mStore.remove(3));
+    assertArrayEquals(new long[]{2}, mStore.getDraftIds());
+    mStore.close();
+
+    mStore = DraftStore.open(mFile);
+    assertArrayEquals(new long[]{2}, mStore.getDraftIds());
+  }
+
+  @Test
+  public void compactKeepsLiveDrafts() throws IOException {
+    for (int i = 0; i < 50; i++) {
+      mStore.save(1, model("Draft " + i, i));
+      mStore.save(2, model("Other " + i, i));
+    }
+    mStore.remove(2);
+    long before = mFile.length();
+    mStore.compact();
+
+    assertTrue(mFile.length() < before);
+    assertFalse(new File(mFile.getPath() + ".tmp").exists());
+    assertEquals(1, mStore.size());
+    assertEquals("Draft 49", mStore.getValue(1, "title").toString());
+    FormModel loaded = new FormModelDialog();
+    assertTrue(mStore.load(1, loaded));
+    assertEquals(49, loaded.getInt("count", 0));
+  }
+
+  @Test
+  public void growsWhenSlotsAreFull() throws IOException {
+    for (long id = 0; id < 10; id++) {
+      mStore.save(id, model("Draft " + id, (int) id));
+    }
+    assertEquals(10, mStore.size());
+    for (long id = 0; id < 10; id++) {
+      assertEquals("Draft " + id, mStore.getValue(id, "title").toString());
+    }
+  }
+
+  @Test
+  public void reopen() throws IOException {
+    mStore.save(1, model("One", 1));
+    mStore.save(2, model("Two", 2));
+    mStore.save(1, model("One again", 11));
+    mStore.remove(2);
+    long updatedAt = mStore.getUpdatedAt(1);
+    mStore.close();
+
+    mStore = DraftStore.open(mFile);
+    assertEquals(1, mStore.size());
+    assertFalse(mStore.contains(2));
+    assertEquals(updatedAt, mStore.getUpdatedAt(1));
+    FormModel loaded = new FormModelDialog();
+    assertTrue(mStore.load(1, loaded));
+    assertEquals("One again", loaded.get("title").toString());
+    assertEquals(11, loaded.getInt("count", 0));
+
+    // Still writable
+    mStore.save(3, model("Three", 3));
+    assertEquals("Three", mStore.getValue(3, "title").toString());
+  }
+
+  @Test
+  public void rejectsOtherFile() throws IOException {
+    File other = mFolder.newFile("other");
+    try (FileOutputStream out = new FileOutputStream(other)) {
+      out.write(new byte[64]);
+    }
+    try {
+      DraftStore.open(other).close();
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("not a draft store"));
+    }
+  }
+}
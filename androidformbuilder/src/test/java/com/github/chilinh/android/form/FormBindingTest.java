@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form;
+
+import com.github.chilinh.android.form.annotation.BindForm;
+import com.github.chilinh.android.form.annotation.FormField;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Runs a binding generated by the form binding processor, compiled against the classes of this
+ * library, so a change of the API which generated code uses breaks this build
+ */
+public class FormBindingTest {
+
+  /**
+   * Same fields as the profile of the sample app, with every kind of bound field
+   */
+  @BindForm
+  static class Profile {
+
+    @FormField(section = "Personal", label = "Name:", placeholder = "Your name here", required = true)
+    String name;
+
+    @FormField(label = "Genre", options = {"", "Male", "Female"})
+    int genre;
+
+    @FormField(label = "Note", multiLine = true)
+    CharSequence note;
+
+    @FormField(label = "PIN", password = true)
+    String pin;
+
+    @FormField(section = "More", label = "Birthday: ")
+    Date birthday;
+
+    @FormField(label = "Leave: ", time = true)
+    Date leave;
+  }
+
+  private final FormBinding<Profile> mBinding = new FormBindingTest_Profile_FormBinding();
+
+  @Test
+  public void addsElements() {
+    Form.Builder builder = new Form.Builder();
+    assertSame(builder, mBinding.addElements(builder));
+  }
+
+  @Test
+  public void roundTrip() {
+    Profile source = new Profile();
+    source.name = "Linh";
+    source.genre = 2;
+    source.note = new StringBuilder("multi\nline");
+    source.pin = "1234";
+    source.birthday = new Date(86400000L * 365);
+    source.leave = new Date(3600000L);
+
+    FormModel model = new FormModelDialog();
+    mBinding.write(source, model);
+    assertEquals(2, model.getInt("genre", -1));
+    Date birthday = model.get("birthday");
+    assertEquals(source.birthday, birthday);
+    // Date picker must not change the date of bound object
+    assertNotSame(source.birthday, birthday);
+
+    Profile target = new Profile();
+    mBinding.read(model, target);
+    assertEquals("Linh", target.name);
+    assertEquals(2, target.genre);
+    assertEquals("multi\nline", target.note);
+    assertEquals("1234", target.pin);
+    assertEquals(source.birthday, target.birthday);
+    assertNotSame(birthday, target.birthday);
+    assertEquals(source.leave, target.leave);
+  }
+
+  @Test
+  public void readKeepsFieldsWithoutValue() {
+    Profile target = new Profile();
+    target.name = "Linh";
+    target.genre = 1;
+    mBinding.read(new FormModelDialog(), target);
+
+    assertEquals("Linh", target.name);
+    assertEquals(1, target.genre);
+    assertNull(target.birthday);
+  }
+}
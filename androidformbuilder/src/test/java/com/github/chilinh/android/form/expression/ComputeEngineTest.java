@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.expression;
+
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.FormModelDialog;
+import com.github.chilinh.android.form.element.TextElement;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ComputeEngineTest {
+
+  @Test
+  public void computesInDependencyOrder() {
+    // Listed before the elements they read
+    TextElement total = new TextElement("total", "Total").computed("subtotal + tax");
+    TextElement tax = new TextElement("tax", "Tax").computed("subtotal / 10");
+    TextElement subtotal = new TextElement("subtotal", "Subtotal").computed("price * quantity");
+    ComputeEngine engine = new ComputeEngine(Arrays.asList(total, tax, subtotal));
+
+    FormModel model = new FormModelDialog();
+    model.set("price", "20");
+    model.set("quantity", "3");
+    engine.attach(model);
+    assertEquals(60.0, engine.getValue("subtotal"));
+    assertEquals(66.0, engine.getValue("total"));
+    assertEquals("66", model.get("total"));
+
+    model.set("quantity", "5");
+    assertEquals(110.0, engine.getValue("total"));
+    assertEquals("10", model.get("tax"));
+
+    model.set("price", null);
+    assertNull(engine.getValue("total"));
+    assertNull(model.get("total"));
+
+    engine.detach();
+    model.set("price", "1");
+    assertNull(engine.getValue("total"));
+  }
+
+  @Test
+  public void rejectsCycle() {
+    TextElement a = new TextElement("a", "A").computed("b + 1");
+    TextElement b = new TextElement("b", "B").computed("c + 1");
+    TextElement c = new TextElement("c", "C").computed("a + 1");
+    TextElement d = new TextElement("d", "D").computed("x + 1");
+    try {
+      new ComputeEngine(Arrays.asList(d, a, b, c));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("a, b, c"));
+    }
+  }
+
+  @Test
+  public void rejectsSelfReference() {
+    try {
+      new ComputeEngine(Collections.singletonList(new TextElement("a", "A").computed("a + 1")));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("a"));
+    }
+  }
+}
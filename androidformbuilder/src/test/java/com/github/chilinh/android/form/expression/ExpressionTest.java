@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.expression;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExpressionTest {
+
+  private final Map<String, Object> mValues = new HashMap<>();
+  private final Expression.Scope mScope = new Expression.Scope() {
+    @Override
+    public Object get(String name) {
+      return mValues.get(name);
+    }
+  };
+  private TimeZone mDefaultZone;
+
+  @Before
+  public void setUp() {
+    mDefaultZone = TimeZone.getDefault();
+    // Has a daylight saving change, 2017-03-12 is 23 hours long
+    TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+  }
+
+  @After
+  public void tearDown() {
+    TimeZone.setDefault(mDefaultZone);
+  }
+
+  private Object eval(String source) {
+    return Expression.compile(source).evaluate(mScope);
+  }
+
+  @Test
+  public void precedence() {
+    assertEquals(7.0, eval("1 + 2 * 3"));
+    assertEquals(9.0, eval("(1 + 2) * 3"));
+    assertEquals(-6.0, eval("-2 * 3"));
+    assertEquals(1.0, eval("7 % 3 * 1"));
+    assertEquals(2.0, eval("8 / 2 / 2"));
+    assertEquals(3.0, eval("10 - 4 - 3"));
+    assertEquals(true, eval("1 + 1 < 3"));
+    assertEquals(true, eval("1 < 2 == 2 < 3"));
+    // && binds tighter than ||
+    assertEquals(true, eval("true || false && false"));
+    assertEquals(false, eval("(true || false) && false"));
+    assertEquals(false, eval("!true || false"));
+    // Conditional is right associative and lowest
+    assertEquals("b", eval("1 > 2 ? 'a' : 2 > 1 ? 'b' : 'c'"));
+    assertEquals(5.0, eval("true ? 2 + 3 : 0"));
+  }
+
+  @Test
+  public void comparisonTokens() {
+    assertEquals(true, eval("1 != 2"));
+    assertEquals(false, eval("1!=1"));
+    assertEquals(true, eval("2 <= 2"));
+    assertEquals(true, eval("2>=2"));
+    assertEquals(false, eval("2 < 2"));
+    assertEquals(false, eval("2>2"));
+    assertEquals(true, eval("1<=-1 || 1<-1 || 1 == 1"));
+    assertEquals(true, eval("!(1 == 2)"));
+    assertEquals(true, eval("!!true"));
+
+    mValues.put("a", "5");
+    assertEquals(true, eval("a != 4"));
+    assertEquals(true, eval("a<=5"));
+  }
+
+  @Test
+  public void values() {
+    mValues.put("price", "2.5");
+    mValues.put("quantity", 4);
+    mValues.put("first name", "Linh");
+    assertEquals(10.0, eval("price * quantity"));
+    assertEquals("Hi Linh", eval("'Hi ' + [first name]"));
+    // Missing value gives null, not an error
+    assertNull(eval("price * missing"));
+    assertArrayEquals(new String[]{"price", "quantity"}, Expression.compile("price * quantity + price").getVariables());
+  }
+
+  @Test
+  public void functions() {
+    assertEquals(3.14, eval("round(3.14159, 2)"));
+    assertEquals(3.0, eval("round(2.5) + 0"));
+    assertEquals(2.0, eval("abs(-2)"));
+    assertEquals(1.0, eval("min(3, 1, 2)"));
+    assertEquals(3.0, eval("max(3, 1, 2)"));
+  }
+
+  @Test
+  public void invalidSource() {
+    for (String source : Arrays.asList("1 +", "(1", "'text", "1 ? 2", "unknown(1)", "round()", "1 2", "1 = 2", "[name")) {
+      try {
+        Expression.compile(source);
+        fail("Compiled " + source);
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage(), e.getMessage().endsWith("of expression: " + source));
+      }
+    }
+  }
+
+  @Test
+  public void daysCountsCalendarDays() {
+    mValues.put("from", date(2017, Calendar.JANUARY, 1, 15, 0));
+    mValues.put("to", date(2017, Calendar.JANUARY, 3, 9, 0));
+    assertEquals(2.0, eval("days(from, to)"));
+    assertEquals(-2.0, eval("days(to, from)"));
+
+    mValues.put("to", date(2017, Calendar.JANUARY, 1, 0, 0));
+    assertEquals(0.0, eval("days(from, to)"));
+  }
+
+  @Test
+  public void daysAcrossDaylightSaving() {
+    // Spring forward, midnight to midnight is 71 hours
+    mValues.put("from", date(2017, Calendar.MARCH, 11, 0, 0));
+    mValues.put("to", date(2017, Calendar.MARCH, 14, 0, 0));
+    assertEquals(3.0, eval("days(from, to)"));
+
+    // Fall back, a whole year of days
+    mValues.put("from", date(2016, Calendar.NOVEMBER, 6, 0, 0));
+    mValues.put("to", date(2017, Calendar.NOVEMBER, 6, 0, 0));
+    assertEquals(365.0, eval("days(from, to)"));
+  }
+
+  @Test
+  public void daysBefore1970() {
+    mValues.put("from", date(1969, Calendar.DECEMBER, 31, 23, 0));
+    mValues.put("to", date(1970, Calendar.JANUARY, 1, 1, 0));
+    assertEquals(1.0, eval("days(from, to)"));
+  }
+
+  @Test
+  public void minutesWrapPastMidnight() {
+    mValues.put("from", date(2017, Calendar.JANUARY, 1, 9, 15));
+    mValues.put("to", date(2017, Calendar.JANUARY, 1, 17, 45));
+    assertEquals(510.0, eval("minutes(from, to)"));
+
+    mValues.put("from", date(2017, Calendar.JANUARY, 1, 23, 30));
+    mValues.put("to", date(2017, Calendar.JANUARY, 5, 0, 15));
+    assertEquals(45.0, eval("minutes(from, to)"));
+
+    mValues.put("to", mValues.get("from"));
+    assertEquals(0.0, eval("minutes(from, to)"));
+  }
+
+  @Test
+  public void yearsCountsFullYears() {
+    Calendar birthday = Calendar.getInstance();
+    birthday.add(Calendar.YEAR, -30);
+    mValues.put("birthday", birthday.getTime());
+    assertEquals(30.0, eval("years(birthday)"));
+
+    // Birthday is tomorrow
+    birthday.add(Calendar.DAY_OF_MONTH, 1);
+    mValues.put("birthday", birthday.getTime());
+    assertEquals(29.0, eval("years(birthday)"));
+
+    // Birthday was yesterday
+    birthday.add(Calendar.DAY_OF_MONTH, -2);
+    mValues.put("birthday", birthday.getTime());
+    assertEquals(30.0, eval("years(birthday)"));
+
+    mValues.put("birthday", "not a date");
+    assertNull(eval("years(birthday)"));
+  }
+
+  private static Date date(int year, int month, int day, int hour, int minute) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.clear();
+    calendar.set(year, month, day, hour, minute);
+    return calendar.getTime();
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.rule;
+
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.FormModelDialog;
+import com.github.chilinh.android.form.element.BaseFormElement;
+import com.github.chilinh.android.form.element.TextElement;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RuleEngineTest {
+
+  private final Map<String, BaseFormElement> mElements = new HashMap<>();
+  private final List<String> mChanges = new ArrayList<>();
+  private final RuleEngine.Elements mLookup = new RuleEngine.Elements() {
+    @Override
+    public BaseFormElement find(String name) {
+      return mElements.get(name);
+    }
+  };
+  private FormModel mModel;
+
+  @Before
+  public void setUp() {
+    mModel = new FormModelDialog();
+    for (String name : new String[]{"a", "b", "c", "d"}) {
+      TextElement element = new TextElement(name, name);
+      element.setOnVisibilityChangeListener(
+        new BaseFormElement.OnVisibilityChangeListener() {
+          @Override
+          public void onVisibilityChanged(BaseFormElement element, boolean visible) {
+            mChanges.add(element.getName() + (visible ? " shown" : " hidden"));
+          }
+        }
+      );
+      mElements.put(name, element);
+    }
+  }
+
+  @Test
+  public void sortsRulesBeforeTheirReaders() {
+    Rule c = Rule.showWhen("c", Condition.selected("b", 1));
+    Rule d = Rule.showWhen("d", Condition.and(Condition.selected("b", 1), Condition.selected("c", 1)));
+    Rule b = Rule.showWhen("b", Condition.selected("a", 1));
+    List<Rule> sorted = new RuleEngine(Arrays.asList(d, c, b)).getRules();
+
+    assertTrue(sorted.indexOf(b) < sorted.indexOf(c));
+    assertTrue(sorted.indexOf(c) < sorted.indexOf(d));
+  }
+
+  @Test
+  public void rejectsCycle() {
+    try {
+      new RuleEngine(Arrays.asList(
+        Rule.showWhen("d", Condition.selected("a", 1)),
+        Rule.showWhen("a", Condition.selected("c", 1)),
+        Rule.showWhen("b", Condition.selected("a", 1)),
+        Rule.showWhen("c", Condition.selected("b", 1))
+      ));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Rules downstream of the cycle cannot be sorted either
+      assertTrue(e.getMessage(), e.getMessage().contains("a, b, c"));
+    }
+
+    try {
+      new RuleEngine(Arrays.asList(Rule.showWhen("a", Condition.selected("a", 1))));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("a"));
+    }
+  }
+
+  @Test
+  public void enableRuleMayReadItsTarget() {
+    // Only showing an element changes whether its value counts
+    new RuleEngine(Arrays.asList(Rule.enableWhen("a", Condition.selected("a", 1))));
+  }
+
+  @Test
+  public void cascadesThroughHiddenSources() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(
+      Rule.showWhen("c", Condition.selected("b", 1)),
+      Rule.showWhen("b", Condition.selected("a", 1))
+    ));
+    mModel.setInt("a", 0);
+    mModel.setInt("b", 1);
+    engine.attach(mModel, mLookup);
+
+    // Value of b is selected but b is hidden, so it does not show c
+    assertFalse(mElements.get("b").isVisible());
+    assertFalse(mElements.get("c").isVisible());
+
+    mChanges.clear();
+    mModel.setInt("a", 1);
+    assertEquals(Arrays.asList("b shown", "c shown"), mChanges);
+
+    mChanges.clear();
+    mModel.setInt("a", 0);
+    assertEquals(Arrays.asList("b hidden", "c hidden"), mChanges);
+
+    engine.detach();
+    mModel.setInt("a", 1);
+    assertFalse(mElements.get("b").isVisible());
+  }
+
+  @Test
+  public void groupIsAppliedOnceAllRulesAreEvaluated() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(
+      Rule.showWhen("d", Condition.selected("a", 1)),
+      Rule.showWhen("d", Condition.selected("b", 1)),
+      Rule.showWhen("d", Condition.selected("c", 1))
+    ));
+    mModel.setInt("a", 1);
+    mModel.setInt("b", 1);
+    mModel.setInt("c", 1);
+    engine.attach(mModel, mLookup);
+
+    // All rules hold, the target never flips while they are evaluated
+    assertTrue(mChanges.isEmpty());
+    assertTrue(mElements.get("d").isVisible());
+
+    mModel.setInt("b", 0);
+    assertEquals(Arrays.asList("d hidden"), mChanges);
+
+    mChanges.clear();
+    mModel.setInt("b", 1);
+    assertEquals(Arrays.asList("d shown"), mChanges);
+  }
+
+  @Test
+  public void groupHidesOnceOnAttach() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(
+      Rule.showWhen("d", Condition.selected("a", 1)),
+      Rule.showWhen("d", Condition.selected("b", 1))
+    ));
+    mModel.setInt("a", 1);
+    mModel.setInt("b", 0);
+    engine.attach(mModel, mLookup);
+
+    assertEquals(Arrays.asList("d hidden"), mChanges);
+  }
+
+  @Test
+  public void enablesTarget() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(
+      Rule.enableWhen("b", Condition.equalTo("a", Boolean.TRUE))
+    ));
+    mModel.set("a", Boolean.FALSE);
+    engine.attach(mModel, mLookup);
+    assertFalse(mElements.get("b").isEnabled());
+
+    mModel.set("a", Boolean.TRUE);
+    assertTrue(mElements.get("b").isEnabled());
+    assertTrue(mChanges.isEmpty());
+  }
+
+  @Test
+  public void showsWhenTextEquals() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(
+      Rule.showWhen("b", Condition.equalTo("a", "Other"))
+    ));
+    mModel.set("a", "Some");
+    engine.attach(mModel, mLookup);
+    assertFalse(mElements.get("b").isVisible());
+
+    // Edited text is not a string
+    mModel.set("a", new StringBuilder("Other"));
+    assertTrue(mElements.get("b").isVisible());
+
+    mModel.set("a", "Others");
+    assertFalse(mElements.get("b").isVisible());
+
+    mModel.set("a", null);
+    assertFalse(mElements.get("b").isVisible());
+  }
+
+  @Test
+  public void showsWhenNotEmpty() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(
+      Rule.showWhen("b", Condition.notEmpty("a")),
+      Rule.showWhen("c", Condition.not(Condition.notEmpty("a")))
+    ));
+    engine.attach(mModel, mLookup);
+    assertFalse(mElements.get("b").isVisible());
+    assertTrue(mElements.get("c").isVisible());
+
+    mModel.set("a", new StringBuilder("x"));
+    assertTrue(mElements.get("b").isVisible());
+    assertFalse(mElements.get("c").isVisible());
+
+    mModel.set("a", "");
+    assertFalse(mElements.get("b").isVisible());
+    assertTrue(mElements.get("c").isVisible());
+
+    mModel.setInt("a", 0);
+    assertTrue(mElements.get("b").isVisible());
+  }
+
+  @Test
+  public void rejectsMissingTarget() {
+    RuleEngine engine = new RuleEngine(Arrays.asList(Rule.showWhen("missing", Condition.selected("a", 1))));
+    try {
+      engine.attach(mModel, mLookup);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("missing"));
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.android.form.schema;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinarySchemaReaderTest {
+
+  private byte[] mCompiled;
+
+  @Before
+  public void setUp() {
+    SchemaCompiler compiler = new SchemaCompiler();
+    compiler.onFormAttribute("title", "Inspection");
+    compiler.onFormAttribute("version", 3L);
+
+    SectionSpec section = new SectionSpec();
+    section.name = "general";
+    section.title = "G\u00e9n\u00e9ral";
+    section.collapsible = true;
+    section.collapsed = true;
+    compiler.onSection(section);
+
+    ElementSpec edit = new ElementSpec();
+    edit.type = ElementSpec.TYPE_EDIT;
+    edit.name = "note";
+    edit.label = "Note";
+    edit.placeholder = "Write here";
+    edit.required = true;
+    edit.multiLine = true;
+    edit.password = true;
+    edit.inputType = 8192;
+    edit.validators.add("unique");
+    compiler.onElement(edit);
+
+    ElementSpec time = new ElementSpec();
+    time.type = ElementSpec.TYPE_TIME;
+    time.name = "start";
+    time.verticalLabel = true;
+    time.is24Hour = true;
+    time.defaultValue = 2.5;
+    compiler.onElement(time);
+
+    ElementSpec combo = new ElementSpec();
+    combo.type = ElementSpec.TYPE_COMBO;
+    combo.name = "condition";
+    combo.options.addAll(Arrays.asList("Good", "Fair", "Poor"));
+    combo.defaultValue = "Fair";
+    compiler.onElement(combo);
+
+    mCompiled = compiler.toByteArray();
+  }
+
+  @Test
+  public void readsAllRecords() {
+    Recorder recorder = new Recorder();
+    FormSchema.parseCompiled(mCompiled, recorder);
+    assertEquals(
+      Arrays.asList(
+        "title=Inspection",
+        "version=3",
+        "section general G\u00e9n\u00e9ral true true",
+        "edit note Note Write here null null true false true true false 8192 [] [unique]",
+        "time start null null null 2.5 false true false false true 0 [] []",
+        "combo condition null null null Fair false false false false false 0 [Good, Fair, Poor] []"
+      ),
+      recorder.events
+    );
+  }
+
+  @Test
+  public void rejectsTruncated() {
+    for (int length = 0; length < mCompiled.length; length++) {
+      assertRejected(Arrays.copyOf(mCompiled, length));
+    }
+  }
+
+  @Test
+  public void rejectsInvalidLengths() {
+    // Magic, version, then a string count far beyond the data
+    byte[] count = {0x41, 0x46, 0x53, 0x42, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+    assertRejected(count);
+    // Count that is negative as an int
+    byte[] negative = {0x41, 0x46, 0x53, 0x42, 1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08};
+    assertRejected(negative);
+    // One string longer than the data
+    byte[] length = {0x41, 0x46, 0x53, 0x42, 1, 1, 0x7F, 'a', 'b', 0};
+    assertRejected(length);
+  }
+
+  @Test
+  public void rejectsElementWithoutType() {
+    SchemaCompiler compiler = new SchemaCompiler();
+    ElementSpec element = new ElementSpec();
+    element.name = "untyped";
+    compiler.onElement(element);
+    assertRejected(compiler.toByteArray());
+  }
+
+  @Test
+  public void checksComboDefaultIndex() {
+    readCombo(2L);
+    readCombo(null);
+    for (Object index : new Object[]{3L, -1L, 1L << 32, 5.0}) {
+      try {
+        readCombo(index);
+        fail("Accepted " + index);
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("is not an option"));
+      }
+    }
+  }
+
+  private static void readCombo(Object defaultValue) {
+    SchemaCompiler compiler = new SchemaCompiler();
+    ElementSpec combo = new ElementSpec();
+    combo.type = ElementSpec.TYPE_COMBO;
+    combo.name = "condition";
+    combo.options.addAll(Arrays.asList("Good", "Fair", "Poor"));
+    combo.defaultValue = defaultValue;
+    compiler.onElement(combo);
+    FormSchema.parseCompiled(compiler.toByteArray(), new Recorder());
+  }
+
+  @Test
+  public void corruptBytesOnlyFailWithIllegalArgument() {
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      byte[] corrupt = mCompiled.clone();
+      for (int j = 0; j < 3; j++) {
+        corrupt[5 + random.nextInt(corrupt.length - 5)] = (byte) random.nextInt(256);
+      }
+      try {
+        FormSchema.parseCompiled(corrupt, new Recorder());
+      } catch (IllegalArgumentException e) {
+        assertNotNull(e.getMessage());
+      }
+    }
+  }
+
+  private static void assertRejected(byte[] bytes) {
+    try {
+      FormSchema.parseCompiled(bytes, new Recorder());
+      fail("Read " + bytes.length + " bytes");
+    } catch (IllegalArgumentException e) {
+      assertNotNull(e.getMessage());
+    }
+  }
+
+  private static class Recorder implements SchemaHandler {
+
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onFormAttribute(String name, Object value) {
+      events.add(name + "=" + value);
+    }
+
+    @Override
+    public void onSection(SectionSpec section) {
+      events.add("section " + section.name + " " + section.title + " " + section.collapsible + " " + section.collapsed);
+    }
+
+    @Override
+    public void onElement(ElementSpec element) {
+      // As a form schema does, so corrupt values fail here too
+      element.prepare();
+      events.add(element.type + " " + element.name + " " + element.label + " " + element.placeholder + " "
+        + element.format + " " + element.defaultValue + " " + element.required + " " + element.verticalLabel + " "
+        + element.multiLine + " " + element.password + " " + element.is24Hour + " " + element.inputType + " "
+        + element.options + " " + element.validators);
+    }
+  }
+}
@@ -53,7 +53,7 @@ public class FormTestFragment extends FormFragment {
       .addElement(new ComboBoxElement(null, "Genre", "", "Male", "Female"))
       .addElement(new TextElement(null, "For you:").placeholder("N/A").labelTypeface(Typeface.BOLD))
       .addElement(new EditTextElement(null, null).placeholder("Phone number here").setInputTypeMask(InputType.TYPE_CLASS_PHONE, true).required(true))
-      .addSection(new SectionElement("More"))
+      .addSection(new SectionElement("More").collapsible(true))
       .addElement(new DatePickerElement(null, "Birthday: ").date(Calendar.getInstance().getTime()))
       .addElement(new TimePickerElement(null, "Leave: ").time(Calendar.getInstance().getTime()))
       .build(getContext());
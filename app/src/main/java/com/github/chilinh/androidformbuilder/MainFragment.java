@@ -23,6 +23,7 @@
  */
 package com.github.chilinh.androidformbuilder;
 
+import android.content.DialogInterface;
 import android.graphics.Typeface;
 import android.os.Bundle;
 import android.support.annotation.Nullable;
@@ -35,7 +36,11 @@ import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
 import android.widget.ListView;
 
+import com.github.chilinh.android.form.Callback;
 import com.github.chilinh.android.form.Form;
+import com.github.chilinh.android.form.FormModel;
+import com.github.chilinh.android.form.FormModelDialog;
+import com.github.chilinh.android.form.FormViewPool;
 import com.github.chilinh.android.form.element.ComboBoxElement;
 import com.github.chilinh.android.form.element.DatePickerElement;
 import com.github.chilinh.android.form.element.EditTextElement;
@@ -49,6 +54,10 @@ import java.util.Calendar;
  * Created by Linh on 1/17/17.
  */
 public class MainFragment extends Fragment {
+
+  private final FormViewPool mViewPool = new FormViewPool();
+  private final Profile mProfile = new Profile();
+
   @Nullable
   @Override
   public View onCreateView(LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -59,7 +68,8 @@ public class MainFragment extends Fragment {
       android.R.layout.simple_list_item_1,
       new String[]{
         "Dialog Form",
-        "Fragment"
+        "Fragment",
+        "Bound Form"
       }
     ));
     listView.setOnItemClickListener(
@@ -71,6 +81,9 @@ public class MainFragment extends Fragment {
           case 1:
             showFragment();
             break;
+          case 2:
+            showBoundDialog();
+            break;
         }
       }
     );
@@ -89,6 +102,7 @@ public class MainFragment extends Fragment {
   private void showDialog() {
     AlertDialog dialog = new Form.Builder()
       .title("Edit Info")
+      .viewPool(mViewPool)
       .addSection(new SectionElement("Personal"))
       .addElement(new EditTextElement(null, "Name:").placeholder("Your name here").required(true).labelTypeface(Typeface.BOLD))
       .addElement(new ComboBoxElement(null, "Genre", "", "Male", "Female"))
@@ -102,4 +116,26 @@ public class MainFragment extends Fragment {
 
     dialog.show();
   }
+
+  private void showBoundDialog() {
+    final Profile_FormBinding binding = new Profile_FormBinding();
+    // Written before build, so elements keep these values instead of their defaults
+    FormModel model = new FormModelDialog();
+    binding.write(mProfile, model);
+    Form form = binding.addElements(new Form.Builder().title("Edit Profile").viewPool(mViewPool).model(model))
+      .build(getContext());
+
+    form.buildDialog(getContext(), new Callback.Submit<DialogInterface>() {
+      @Override
+      public boolean validate(DialogInterface owner, Form form) {
+        return true;
+      }
+
+      @Override
+      public void onSubmit(DialogInterface owner, Form form) {
+        binding.read(form.getModel(), mProfile);
+        owner.dismiss();
+      }
+    }, null).show();
+  }
 }
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2017] [linh]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.chilinh.androidformbuilder;
+
+import com.github.chilinh.android.form.annotation.BindForm;
+import com.github.chilinh.android.form.annotation.FormField;
+
+import java.util.Date;
+
+/**
+ * Sample model bound to a form by generated {@link Profile_FormBinding}
+ */
+@BindForm
+public class Profile {
+
+  @FormField(section = "Personal", label = "Name:", placeholder = "Your name here", required = true)
+  String name;
+
+  @FormField(label = "Genre", options = {"", "Male", "Female"})
+  int genre;
+
+  @FormField(label = "Phone:", placeholder = "Phone number here")
+  String phone;
+
+  @FormField(section = "More", label = "Birthday: ")
+  Date birthday;
+
+  @FormField(label = "Leave: ", time = true)
+  Date leave;
+}